@@ -2,15 +2,20 @@ package src.ai.data.creation;
 
 //  imports
 import java.io.BufferedWriter;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Random;
+import java.io.OutputStream;
+import java.util.SplittableRandom;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import static java.io.File.separatorChar;
 
+import src.ai.environment.FeatureEncoder;
 import src.util.Logger;
 
 /**
@@ -19,20 +24,68 @@ import src.util.Logger;
  * @author devinlinux
  */
 public class CSVCreator {
-    
+
+    /**
+     * The number of columns of a row of the dataset, laid out as in {@link FeatureEncoder}.
+     */
+    public static final int COLUMNS = FeatureEncoder.COLUMNS;
+
+    /**
+     * The number of rows generated and formatted at a time by {@link #appendRandData(String, long, long)},
+     * so the memory it uses does not grow with the number of rows.
+     */
+    public static final int CHUNK_ROWS = 4096;
+
+    /**
+     * The number of bytes formatted before they are written to the file.
+     */
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    /**
+     * The bytes that end a line, the same as those written by {@link BufferedWriter#newLine()}.
+     */
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes();
+
+    /**
+     * The most bytes a row can take, every value with a sign, ten digits and a separator.
+     */
+    private static final int MAX_ROW_BYTES = COLUMNS * 13 + LINE_SEPARATOR.length;
+
+    /**
+     * Generates the random data of the four players, the files are written at the same time.
+     * {@code [rows] [seed]}
+     *
+     * @param args the command line arguments.
+     */
     public static void main(String[] args) {
+        long rows = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
         String player1Filename = String.format("src%cai%cdata%cnFAKE_player_1.csv", separatorChar, separatorChar, separatorChar);
         String player2Filename = String.format("src%cai%cdata%cnFAKE_player_2.csv", separatorChar, separatorChar, separatorChar);
         String player3Filename = String.format("src%cai%cdata%cnFAKE_player_3.csv", separatorChar, separatorChar, separatorChar);
         String player4Filename = String.format("src%cai%cdata%cnFAKE_player_4.csv", separatorChar, separatorChar, separatorChar);
     
         List<String> playerPaths = new ArrayList<>(Arrays.asList(player1Filename, player2Filename, player3Filename, player4Filename));
+        SplittableRandom seeds = new SplittableRandom(seed);
+        long[] playerSeeds = new long[playerPaths.size()];
+        for (int i = 0; i < playerSeeds.length; i++) {
+            playerSeeds[i] = seeds.nextLong();
+        }
 
-        for (String path : playerPaths) {
-            makeGameCSV(path);
-            appendRow(path, 0, 0, 1, 0, 1, 2, 1, 0, 0, 1, 0, 0, 1, 0, 0, 0, 0, 0, 0, 5, 0, 1, 2, 0, 0, 12);
-            appendData(path, genRandData(10000000));
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(Math.min(playerPaths.size(), Runtime.getRuntime().availableProcessors()));
+        try {
+            pool.submit(() -> IntStream.range(0, playerPaths.size()).parallel().forEach(i -> {
+                String path = playerPaths.get(i);
+                makeGameCSV(path);
+                appendRow(path, 0, 0, 1, 0, 1, 2, 1, 0, 0, 1, 0, 0, 1, 0, 0, 0, 0, 0, 0, 5, 0, 1, 2, 0, 0, 12);
+                appendRandData(path, rows, playerSeeds[i]);
+            })).join();
+        } finally {
+            pool.shutdown();
         }
+        Logger.info("CSVCreator", String.format("Generated %d rows for %d players in %.2fs",
+                rows, playerPaths.size(), (System.nanoTime() - start) / 1e9));
     }
 
     /**
@@ -81,14 +134,14 @@ public class CSVCreator {
      *
      * @param filename the csv file to append the row to.
      * @param rowData the array of data to add to the file, must have a 
-     *                length of 26 elements. 
+     *                length of {@link #COLUMNS} elements. 
      */
     public static void appendRow(String filename, int... rowData) {
-        assert rowData.length == 26;
+        assert rowData.length == COLUMNS;
 
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename, true))) {
             for (int i = 0; i < rowData.length; i++) {
-                if (i == 25) {
+                if (i == FeatureEncoder.LABEL) {
                     writer.write("" + rowData[i]);
                     break;
                 }
@@ -108,64 +161,178 @@ public class CSVCreator {
      * @param data the data that is to be appended to the csv file.
      */
     public static void appendData(String filename, int[][] data) {
-        assert data[0].length == 26;
+        assert data[0].length == COLUMNS;
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename, true))) {
+        try (OutputStream out = new FileOutputStream(filename, true)) {
+            byte[] buffer = new byte[BUFFER_BYTES];
+            int length = 0;
             for (int i = 0; i < data.length; i++) {
-                for (int j = 0; j < data[i].length; j++) {
-                    if (j == 25) {
-                        writer.write("" + data[i][j]);
-                        continue;
+                if (length + MAX_ROW_BYTES > buffer.length) {
+                    out.write(buffer, 0, length);
+                    length = 0;
+                }
+                length = formatRow(data[i], 0, buffer, length);
+            }
+            out.write(buffer, 0, length);
+        } catch (IOException e) {
+            Logger.error("CSVCreator", String.format("Error writing data to csv file %s: %s", filename, e.getMessage()));
+        }
+    }
+
+    /**
+     * Method to append random data to the csv file without holding it all in memory,
+     * the rows are generated and written a chunk of {@link #CHUNK_ROWS} at a time into
+     * buffers that are reused, so any number of rows can be written in the same memory.
+     * The same seed always writes the same rows.
+     *
+     * @param filename the path to the csv file.
+     * @param rows the number of rows of data to generate.
+     * @param seed the seed of the random data.
+     */
+    public static void appendRandData(String filename, long rows, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] chunk = new int[CHUNK_ROWS * COLUMNS];
+        byte[] buffer = new byte[BUFFER_BYTES];
+
+        try (OutputStream out = new FileOutputStream(filename, true)) {
+            int length = 0;
+            for (long written = 0; written < rows; ) {
+                int count = (int) Math.min(CHUNK_ROWS, rows - written);
+                for (int i = 0; i < count; i++) {
+                    genRandRow(random, chunk, i * COLUMNS);
+                }
+                for (int i = 0; i < count; i++) {
+                    if (length + MAX_ROW_BYTES > buffer.length) {
+                        out.write(buffer, 0, length);
+                        length = 0;
                     }
-                    writer.write(data[i][j] + ", ");
+                    length = formatRow(chunk, i * COLUMNS, buffer, length);
                 }
-                writer.newLine();
+                written += count;
             }
+            out.write(buffer, 0, length);
+            Logger.info("CSVCreator", String.format("Successfully wrote %d rows to csv file %s", rows, filename));
         } catch (IOException e) {
             Logger.error("CSVCreator", String.format("Error writing data to csv file %s: %s", filename, e.getMessage()));
         }
     }
 
+    /**
+     * Method to write a row of data as a line of the csv file into a buffer, in the same
+     * format as {@link #appendRow(String, int...)} without making any strings.
+     *
+     * @param row the array holding the row.
+     * @param offset the index of the first value of the row.
+     * @param buffer the buffer to write into, must have room for the row.
+     * @param position the index in the buffer to write the row at.
+     * @return the index in the buffer after the row.
+     */
+    private static int formatRow(int[] row, int offset, byte[] buffer, int position) {
+        for (int j = 0; j < COLUMNS; j++) {
+            position = formatInt(row[offset + j], buffer, position);
+            if (j < COLUMNS - 1) {
+                buffer[position++] = ',';
+                buffer[position++] = ' ';
+            }
+        }
+        for (byte b : LINE_SEPARATOR) {
+            buffer[position++] = b;
+        }
+        return position;
+    }
+
+    /**
+     * Method to write the decimal digits of a number into a buffer.
+     *
+     * @param value the number to write.
+     * @param buffer the buffer to write into.
+     * @param position the index in the buffer to write the number at.
+     * @return the index in the buffer after the number.
+     */
+    private static int formatInt(int value, byte[] buffer, int position) {
+        long number = value;
+        if (number < 0) {
+            buffer[position++] = '-';
+            number = -number;
+        }
+        int digits = 1;
+        for (long power = 10; power <= number; power *= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + number % 10);
+            number /= 10;
+        }
+        return position + digits;
+    }
+
     /**
      * Method to generate random data for the game data csv in line with the general
-     * rules of what should be contained inside the file.
+     * rules of what should be contained inside the file, with an unseeded random number
+     * generator. Every row is kept in memory, {@link #appendRandData(String, long, long)}
+     * writes any number of rows in the memory of one chunk.
      *
      * @param rows the number of rows of data to generate. 
      * @return the random data that was generated.
      */
     public static int[][] genRandData(int rows) {
-        int[][] generatedRowData = new int[rows][26];
-        Random random = new Random();
+        return genRandData(rows, new SplittableRandom());
+    }
+
+    /**
+     * Method to generate random data for the game data csv in line with the general
+     * rules of what should be contained inside the file, so the same generator state
+     * always gives the same data.
+     *
+     * @param rows the number of rows of data to generate.
+     * @param random the random number generator to generate the rows with.
+     * @return the random data that was generated.
+     */
+    public static int[][] genRandData(int rows, SplittableRandom random) {
+        int[][] generatedRowData = new int[rows][COLUMNS];
 
         for (int i = 0; i < generatedRowData.length; i++) {
-            boolean allZero = true;
-            for (int j = 0; j < generatedRowData[i].length; j++) {
-                switch (j) {
-                    case 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 -> {
-                        generatedRowData[i][j] = random.nextInt(4);
-                        if (generatedRowData[i][j] > 0) {
-                            allZero = false;
-                        }
-                    }
-                    case 13, 14, 15 -> generatedRowData[i][j] = random.nextInt(78);
-                    case 16, 17, 18 -> generatedRowData[i][j] = random.nextInt(31);
-                    case 19 -> generatedRowData[i][j] = random.nextInt(26);
-                    case 20, 21, 22, 23, 24 -> generatedRowData[i][j] = random.nextInt(8);
-                    case 25 -> {
-                        int randomIndex = -1;
-                        if (allZero) {
-                            generatedRowData[i][2] = 1;
-                        }
-                        do {
-                            randomIndex = random.nextInt(13);
-                        } while (generatedRowData[i][randomIndex] == 0);
-                        generatedRowData[i][j] = randomIndex;
-                    }
-                    default -> generatedRowData[i][j] = -1;
-                }
-            }
+            genRandRow(random, generatedRowData[i], 0);
         }
 
         return generatedRowData;
     }
+
+    /**
+     * Method to generate one row of random data in line with the general rules of what
+     * should be contained inside the file: at most three of each card, a colonist path
+     * on the map, up to 25 coins, up to 7 of each good, and a card to play that is in
+     * the hand, which always holds at least one card.
+     *
+     * @param random the random number generator to generate the row with.
+     * @param out the array to write the row into.
+     * @param offset the index of the first value of the row.
+     */
+    public static void genRandRow(SplittableRandom random, int[] out, int offset) {
+        boolean allZero = true;
+        for (int j = 0; j < FeatureEncoder.CARD_COLUMNS; j++) {
+            out[offset + j] = random.nextInt(4);
+            if (out[offset + j] > 0) {
+                allZero = false;
+            }
+        }
+        if (allZero) {
+            out[offset + 2] = 1;
+        }
+        for (int j = 0; j < FeatureEncoder.COLONISTS_PER_TYPE; j++) {
+            out[offset + FeatureEncoder.LAND_PATHS + j] = random.nextInt(78);
+        }
+        for (int j = 0; j < FeatureEncoder.COLONISTS_PER_TYPE; j++) {
+            out[offset + FeatureEncoder.SEA_PATHS + j] = random.nextInt(31);
+        }
+        out[offset + FeatureEncoder.COINS] = random.nextInt(26);
+        for (int j = FeatureEncoder.GOODS; j < FeatureEncoder.FEATURES; j++) {
+            out[offset + j] = random.nextInt(8);
+        }
+        int randomIndex;
+        do {
+            randomIndex = random.nextInt(FeatureEncoder.CARD_COLUMNS);
+        } while (out[offset + randomIndex] == 0);
+        out[offset + FeatureEncoder.LABEL] = randomIndex;
+    }
 }
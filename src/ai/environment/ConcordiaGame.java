@@ -1,9 +1,301 @@
 package src.ai.environment;
 
+//  imports
+import java.util.SplittableRandom;
+
+import src.ai.environment.game.map.Map;
+import src.game.engine.ActionMask;
+import src.game.engine.Agent;
+import src.game.engine.GameEngine;
+import src.game.engine.MctsAgent;
+import src.game.map.MapTopology;
+
 /**
  * A class to represent a basic game of Concordia.
+ * It is also an environment for reinforcement learning: one seat is played through {@link #reset(long)} and
+ * {@link #step(int)} while every other seat is played by the opponent. An action is a bit of
+ * {@link ActionMask}, which has a fixed place for every card type and every choice of the other phases, and
+ * {@link #mask(long[], int)} tells which of them are legal. The reward of a step is how much the projected
+ * score of the seat changed, so the rewards of a game add up to its final score less the projected score it
+ * started with. Decisions of the seat with only one legal action are played without a step.
+ * Observing and stepping never allocate, so many games can be stepped at once by
+ * {@link VectorizedConcordiaGame}. The engine plays on the board of the map of the game, but deals its own
+ * city tokens from the seed of every reset.
  *
  * @author devinlinux
  */
 public class ConcordiaGame {
+
+    /**
+     * The number of players of a game made without giving one.
+     */
+    public static final int DEFAULT_PLAYERS = 4;
+
+    /**
+     * The map this game is played on.
+     */
+    private Map map;
+
+    /**
+     * The agent that plays the opponents in this game.
+     */
+    private Agent opponent;
+
+    /**
+     * The engine the game is played on.
+     */
+    private final GameEngine engine;
+
+    /**
+     * The seat played through {@link #step(int)}.
+     */
+    private final int seat;
+
+    /**
+     * The legal actions of the seat in the current position.
+     */
+    private final int[] actions;
+
+    /**
+     * The number of legal actions in {@link #actions}, 0 once the game is over.
+     */
+    private int numActions;
+
+    /**
+     * The bits of the legal actions of the seat in the current position, cleared once the game is over.
+     */
+    private final long[] legal;
+
+    /**
+     * The projected score of the seat after the last reset or step.
+     */
+    private int score;
+
+    /**
+     * The words of the state of the game, written again for every observation.
+     */
+    private final long[] words;
+
+    /**
+     * The state backed by {@link #words}.
+     */
+    private final GameState state;
+
+    /**
+     * Constructor to make a new game on the imperium map.
+     */
+    public ConcordiaGame() {
+        this(new Map(true));
+    }
+
+    /**
+     * Constructor to make a new game on a map against the default opponent, a Monte Carlo tree search.
+     *
+     * @param map the map this game is played on
+     */
+    public ConcordiaGame(Map map) {
+        this(map, new MctsAgent());
+    }
+
+    /**
+     * Constructor to make a new game on a map against an opponent.
+     *
+     * @param map the map this game is played on
+     * @param opponent the agent that plays the opponents
+     */
+    public ConcordiaGame(Map map, Agent opponent) {
+        this(map, opponent, DEFAULT_PLAYERS, 0);
+    }
+
+    /**
+     * Constructor to make a new game on a map against an opponent with a number of players.
+     *
+     * @param map the map this game is played on
+     * @param opponent the agent that plays the opponents
+     * @param numPlayers the number of players
+     * @param seat the seat played through {@link #step(int)}
+     * @throws IllegalArgumentException if the number of players or the seat is out of range, or the map is
+     *                                  not supported by the engine
+     */
+    public ConcordiaGame(Map map, Agent opponent, int numPlayers, int seat) {
+        if (seat < 0 || seat >= numPlayers) {
+            throw new IllegalArgumentException("Seat " + seat + " is not a seat of a game of " + numPlayers + " players");
+        }
+        this.map = map;
+        this.opponent = opponent;
+        this.engine = new GameEngine(numPlayers, topology(map));
+        this.seat = seat;
+        this.actions = new int[GameEngine.MAX_ACTIONS];
+        this.legal = new long[ActionMask.WORDS];
+        this.words = new long[GameState.size(numPlayers)];
+        this.state = GameState.wrap(this.words);
+    }
+
+    /**
+     * Method to find the board the engine plays a map on.
+     *
+     * @param map the map
+     * @return the board of the map
+     * @throws IllegalArgumentException if the engine does not support the map
+     */
+    private static MapTopology topology(Map map) {
+        return MapTopology.of(map.isImperium() ? src.game.map.Map.IMPERIUM : src.game.map.Map.ITALIA);
+    }
+
+    /**
+     * Method to start a new game and play the opponents until the seat has to choose.
+     *
+     * @param seed the seed of the game, everything random about it and its opponents is derived from it
+     */
+    public void reset(long seed) {
+        this.engine.reset(seed);
+        SplittableRandom seeds = new SplittableRandom(seed).split();
+        this.opponent.startGame(this.engine, (this.seat + 1) % this.engine.numPlayers(), seeds.nextLong());
+        this.score = this.engine.projectedScore(this.seat);
+        advance();
+    }
+
+    /**
+     * Method to play one of the legal actions of the seat and then the opponents until the seat has to
+     * choose again or the game is over.
+     *
+     * @param action the bit of {@link ActionMask} of the action, a card type plays the first unplayed card of
+     *               that type
+     * @return the reward of the step, the change of the projected score of the seat
+     * @throws IllegalStateException if the game is over
+     * @throws IllegalArgumentException if the action is not set in the mask of legal actions
+     */
+    public float step(int action) {
+        if (this.numActions == 0) {
+            throw new IllegalStateException("The game is over, it must be reset");
+        }
+        if (action < 0 || action >= ActionMask.BITS || !ActionMask.isSet(this.legal, 0, action)) {
+            throw new IllegalArgumentException("Action " + action + " is not legal");
+        }
+        this.engine.apply(this.actions[this.engine.findAction(action, this.actions, this.numActions)]);
+        advance();
+        int previous = this.score;
+        this.score = this.engine.projectedScore(this.seat);
+        return this.score - previous;
+    }
+
+    /**
+     * Method to play the opponents and every forced action of the seat, then find the legal actions of
+     * the seat.
+     */
+    private void advance() {
+        while (!this.engine.isOver()) {
+            if (this.engine.currentSeat() == this.seat) {
+                int count = this.engine.legalActions(this.actions, this.legal, 0);
+                if (ActionMask.count(this.legal, 0) > 1) {
+                    this.numActions = count;
+                    return;
+                }
+                this.engine.apply(this.actions[0]);
+            } else {
+                int count = this.engine.legalActions(this.actions);
+                this.engine.apply(this.actions[this.opponent.choose(this.engine, this.actions, count)]);
+            }
+        }
+        this.numActions = 0;
+        ActionMask.clear(this.legal, 0);
+    }
+
+    /**
+     * Method to write what the seat sees into an array, laid out as in {@link FeatureEncoder}.
+     *
+     * @param out the array to write into
+     * @param offset the index of the first feature
+     */
+    public void observe(float[] out, int offset) {
+        GameState.write(this.engine.game(), this.words, 0);
+        FeatureEncoder.encode(this.state, this.seat, out, offset);
+    }
+
+    /**
+     * Method to write the mask of the legal actions of the seat into an array, nothing is set once the game
+     * is over.
+     *
+     * @param out the array to write into
+     * @param offset the index of the first long of the mask, {@link ActionMask#WORDS} longs are written
+     */
+    public void mask(long[] out, int offset) {
+        System.arraycopy(this.legal, 0, out, offset, ActionMask.WORDS);
+    }
+
+    /**
+     * Getter to return whether the game is over.
+     *
+     * @return whether the game is over
+     */
+    public boolean isDone() {
+        return this.engine.isOver();
+    }
+
+    /**
+     * Getter to return the number of legal actions of the seat.
+     *
+     * @return the number of legal actions, 0 once the game is over
+     */
+    public int getNumActions() {
+        return this.numActions;
+    }
+
+    /**
+     * Getter to return one of the legal actions of the seat.
+     *
+     * @param index the index of the action
+     * @return the action encoded as in {@link src.game.engine.Action}
+     */
+    public int getAction(int index) {
+        if (index < 0 || index >= this.numActions) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + this.numActions + " actions");
+        }
+        return this.actions[index];
+    }
+
+    /**
+     * Getter to return the engine the game is played on.
+     *
+     * @return the engine, which must not be changed
+     */
+    public GameEngine getEngine() {
+        return this.engine;
+    }
+
+    /**
+     * Getter to return the seat played through {@link #step(int)}.
+     *
+     * @return the seat
+     */
+    public int getSeat() {
+        return this.seat;
+    }
+
+    /**
+     * Getter to return the map this game is played on.
+     *
+     * @return the map this game is played on
+     */
+    public Map getMap() {
+        return this.map;
+    }
+
+    /**
+     * Getter to return the agent that plays the opponents in this game.
+     *
+     * @return the agent that plays the opponents
+     */
+    public Agent getOpponent() {
+        return this.opponent;
+    }
+
+    /**
+     * Setter to change the agent that plays the opponents in this game, from the next reset.
+     *
+     * @param opponent the agent that plays the opponents
+     */
+    public void setOpponent(Agent opponent) {
+        this.opponent = opponent;
+    }
 }
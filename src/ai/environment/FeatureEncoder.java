@@ -0,0 +1,236 @@
+package src.ai.environment;
+
+//  imports
+import java.nio.FloatBuffer;
+
+import src.game.Good;
+import src.game.cards.CardType;
+import src.game.engine.ActionMask;
+
+import static src.game.Colonist.ColonistType;
+
+/**
+ * A class of library (static) methods to encode what a player sees into the
+ * features of the dataset made by {@code CSVCreator}, so live games and the
+ * model use the same layout. The first {@link #FEATURES} columns are:
+ * the number of unplayed cards of each type in the hand in the order of
+ * {@link ActionMask}, the path of the first three land colonists, the path
+ * of the first three sea colonists, the sestertii, and the number of bricks,
+ * tools, food, wine and cloth. The last column of the dataset,
+ * {@code card_to_play}, is the label and is not part of an observation.
+ * A colonist that is not on a path, because it is in a city or not on the
+ * board, has the path -1.
+ * Every method writes into an array or buffer given by the caller at a fixed
+ * offset and never allocates, so they can run on the inference hot path.
+ *
+ * @author devinlinux
+ */
+public final class FeatureEncoder {
+
+    /**
+     * The number of features of one observation.
+     */
+    public static final int FEATURES = 25;
+
+    /**
+     * The number of columns of a row of the dataset, the features and the label.
+     */
+    public static final int COLUMNS = FEATURES + 1;
+
+    /**
+     * The column of the label, which holds the bit of {@link ActionMask} of the card played.
+     */
+    public static final int LABEL = FEATURES;
+
+    /**
+     * The number of columns counting cards, one per card type.
+     */
+    public static final int CARD_COLUMNS = ActionMask.END - ActionMask.CARDS;
+
+    /**
+     * The column of the path of the first land colonist.
+     */
+    public static final int LAND_PATHS = 13;
+
+    /**
+     * The column of the path of the first sea colonist.
+     */
+    public static final int SEA_PATHS = 16;
+
+    /**
+     * The number of colonists of each type that have a column.
+     */
+    public static final int COLONISTS_PER_TYPE = 3;
+
+    /**
+     * The column of the sestertii.
+     */
+    public static final int COINS = 19;
+
+    /**
+     * The column of the first good, the goods follow the sestertii in the order of {@link #GOOD_COLUMNS}.
+     */
+    public static final int GOODS = COINS + 1;
+
+    /**
+     * The goods in the order of their columns after the sestertii.
+     */
+    private static final Good[] GOOD_COLUMNS = {Good.BRICK, Good.TOOL, Good.FOOD, Good.WINE, Good.CLOTH};
+
+    /**
+     * Constructor that should never be called, this class only has library (static) methods.
+     */
+    private FeatureEncoder() {
+        throw new UnsupportedOperationException("FeatureEncoder cannot be instantiated");
+    }
+
+    /**
+     * Library (static) method to find the column of a card type.
+     *
+     * @param type the card type
+     * @return the column counting the type, which is also the label of playing it
+     */
+    public static int column(CardType type) {
+        return ActionMask.card(type) - ActionMask.CARDS;
+    }
+
+    /**
+     * Library (static) method to find the card type of a column or label.
+     *
+     * @param column the column, between 0 and {@link #CARD_COLUMNS} - 1
+     * @return the card type counted by the column
+     */
+    public static CardType cardType(int column) {
+        return ActionMask.cardType(ActionMask.CARDS + column);
+    }
+
+    /**
+     * Library (static) method to write the features of what a player sees into an array.
+     *
+     * @param state the state the player sees
+     * @param out the array to write into
+     * @param offset the index of the first feature
+     */
+    public static void encode(PlayerGameState state, float[] out, int offset) {
+        encode(state.getState(), state.getSeat(), out, offset);
+    }
+
+    /**
+     * Library (static) method to write the features of a seat of a state into an array. Only what the seat
+     * can see is read, so the state does not have to be hidden.
+     *
+     * @param state the state of the game
+     * @param seat the seat whose features are written
+     * @param out the array to write into
+     * @param offset the index of the first feature
+     */
+    public static void encode(GameState state, int seat, float[] out, int offset) {
+        for (int i = 0; i < CARD_COLUMNS; i++) {
+            out[offset + i] = 0f;
+        }
+        for (int id = 0, cards = state.getNumCards(); id < cards; id++) {
+            if (state.hasCard(seat, id) && !state.isPlayed(seat, id)) {
+                out[offset + column(state.getCardType(id))]++;
+            }
+        }
+        for (int i = 0; i < COLONISTS_PER_TYPE; i++) {
+            out[offset + LAND_PATHS + i] = -1f;
+            out[offset + SEA_PATHS + i] = -1f;
+        }
+        int land = 0;
+        int sea = 0;
+        for (int i = 0, colonists = state.getNumColonists(seat); i < colonists; i++) {
+            float path = state.isColonistOnPath(seat, i) ? state.getColonistLocation(seat, i) : -1f;
+            if (state.getColonistType(seat, i) == ColonistType.LAND) {
+                if (land < COLONISTS_PER_TYPE) {
+                    out[offset + LAND_PATHS + land++] = path;
+                }
+            } else if (sea < COLONISTS_PER_TYPE) {
+                out[offset + SEA_PATHS + sea++] = path;
+            }
+        }
+        out[offset + COINS] = state.getSestertii(seat);
+        for (int i = 0; i < GOOD_COLUMNS.length; i++) {
+            out[offset + GOODS + i] = state.getGoods(seat, GOOD_COLUMNS[i]);
+        }
+    }
+
+    /**
+     * Library (static) method to write the features of what a player sees into a buffer, which may be a
+     * direct buffer shared with native code. The position of the buffer is not changed.
+     *
+     * @param state the state the player sees
+     * @param out the buffer to write into
+     * @param offset the index of the first feature
+     */
+    public static void encode(PlayerGameState state, FloatBuffer out, int offset) {
+        encode(state.getState(), state.getSeat(), out, offset);
+    }
+
+    /**
+     * Library (static) method to write the features of a seat of a state into a buffer, which may be a
+     * direct buffer shared with native code. The position of the buffer is not changed.
+     *
+     * @param state the state of the game
+     * @param seat the seat whose features are written
+     * @param out the buffer to write into
+     * @param offset the index of the first feature
+     */
+    public static void encode(GameState state, int seat, FloatBuffer out, int offset) {
+        for (int i = 0; i < FEATURES; i++) {
+            out.put(offset + i, i < LAND_PATHS || i >= COINS ? 0f : -1f);
+        }
+        for (int id = 0, cards = state.getNumCards(); id < cards; id++) {
+            if (state.hasCard(seat, id) && !state.isPlayed(seat, id)) {
+                int at = offset + column(state.getCardType(id));
+                out.put(at, out.get(at) + 1f);
+            }
+        }
+        int land = 0;
+        int sea = 0;
+        for (int i = 0, colonists = state.getNumColonists(seat); i < colonists; i++) {
+            float path = state.isColonistOnPath(seat, i) ? state.getColonistLocation(seat, i) : -1f;
+            if (state.getColonistType(seat, i) == ColonistType.LAND) {
+                if (land < COLONISTS_PER_TYPE) {
+                    out.put(offset + LAND_PATHS + land++, path);
+                }
+            } else if (sea < COLONISTS_PER_TYPE) {
+                out.put(offset + SEA_PATHS + sea++, path);
+            }
+        }
+        out.put(offset + COINS, state.getSestertii(seat));
+        for (int i = 0; i < GOOD_COLUMNS.length; i++) {
+            out.put(offset + GOODS + i, state.getGoods(seat, GOOD_COLUMNS[i]));
+        }
+    }
+
+    /**
+     * Library (static) method to write the features of many observations into one row-major matrix, row i
+     * starting {@code i * FEATURES} after the offset.
+     *
+     * @param states the states the players see
+     * @param count the number of states to encode from the start of the array
+     * @param out the array to write into, must hold {@code count * FEATURES} floats after the offset
+     * @param offset the index of the first feature of the first row
+     */
+    public static void encodeBatch(PlayerGameState[] states, int count, float[] out, int offset) {
+        for (int i = 0; i < count; i++) {
+            encode(states[i], out, offset + i * FEATURES);
+        }
+    }
+
+    /**
+     * Library (static) method to write the features of many observations into one row-major matrix in a
+     * buffer, row i starting {@code i * FEATURES} after the offset. The position of the buffer is not changed.
+     *
+     * @param states the states the players see
+     * @param count the number of states to encode from the start of the array
+     * @param out the buffer to write into, must hold {@code count * FEATURES} floats after the offset
+     * @param offset the index of the first feature of the first row
+     */
+    public static void encodeBatch(PlayerGameState[] states, int count, FloatBuffer out, int offset) {
+        for (int i = 0; i < count; i++) {
+            encode(states[i], out, offset + i * FEATURES);
+        }
+    }
+}
@@ -1,9 +1,782 @@
 package src.ai.environment;
 
+//  imports
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import src.game.Colonist;
+import src.game.Game;
+import src.game.Good;
+import src.game.cards.CardType;
+import src.game.cards.PersonalityCard;
+import src.game.map.CityNode;
+import src.game.map.Map;
+import src.game.map.MapTopology;
+import src.game.player.Player;
+import src.game.player.StoreHouse;
+
+import static src.game.Colonist.ColonistType;
+
 /**
- * The class that will represent the state of the game.
+ * A class to represent the state of a game as a few {@code long} words with a fixed layout, so that copying a
+ * state is one small array copy and millions of states can be kept for search, replay buffers and datasets.
+ * The words start with {@link #PLAYERS} words about the whole game, followed by {@link #PLAYER_WORDS} words
+ * for each seat. Card ids are the ids the {@code Game} gives its cards, every card id has its
+ * {@code CardType} in the state so the state can be read without the {@code Game}.
+ * A state is made from a {@code Game} with {@link #of(Game)} and made back into one with {@link #toGame()},
+ * which deals a new {@code Game} from the seed so that its cards get the same ids and then overwrites
+ * everything else. The order of the cards in a hand and below the top of a discard pile is not kept, they
+ * are listed by id.
  *
  * @author devinlinux
  */
-public class GameState {
+public final class GameState {
+
+    /**
+     * The word with the number of players, the current seat, the map type, the sizes of the display and the
+     * draw pile, the province sestertii tokens and the number of cards.
+     */
+    public static final int HEADER = 0;
+
+    /**
+     * The word with the seed the game was dealt from.
+     */
+    public static final int SEED = 1;
+
+    /**
+     * The word with the card id in each slot of the display, 7 bits per slot.
+     */
+    public static final int DISPLAY = 2;
+
+    /**
+     * The first of the words with the card ids of the draw pile from the top, 9 cards of 7 bits per word.
+     */
+    public static final int DRAW_PILE = 3;
+
+    /**
+     * The first of the words with the token of each city, 4 bits per city that are 0 for no token or
+     * 1 more than the ordinal of the {@code Good}.
+     */
+    public static final int CITY_GOODS = 7;
+
+    /**
+     * The first of the words with the {@code CardType} ordinal of each card id, 4 bits per card.
+     */
+    public static final int CARD_TYPES = 9;
+
+    /**
+     * The first word of the first seat.
+     */
+    public static final int PLAYERS = 14;
+
+    /**
+     * The word of a seat with its sestertii, victory points, Praefectus Magnus and the counts of its
+     * storehouse, at the offset of the seat.
+     */
+    public static final int RESOURCES = 0;
+
+    /**
+     * The word of a seat with its house mask and the top of its discard pile, at the offset of the seat.
+     */
+    public static final int HOUSES = 1;
+
+    /**
+     * The word of a seat with its colonists on the board, 10 bits per colonist, at the offset of the seat.
+     */
+    public static final int COLONISTS = 2;
+
+    /**
+     * The first of the two words of a seat with a bit set for each card id in its hand, at the offset of
+     * the seat.
+     */
+    public static final int HAND = 3;
+
+    /**
+     * The first of the two words of a seat with a bit set for each card id it has played, at the offset of
+     * the seat.
+     */
+    public static final int PLAYED = 5;
+
+    /**
+     * The number of words of each seat.
+     */
+    public static final int PLAYER_WORDS = 7;
+
+    /**
+     * The most cities a map can have.
+     */
+    public static final int MAX_CITIES = 32;
+
+    /**
+     * The most paths a map can have.
+     */
+    public static final int MAX_PATHS = 128;
+
+    /**
+     * The most cards a game can have.
+     */
+    public static final int MAX_CARDS = 80;
+
+    /**
+     * The most colonists a seat can have on the board.
+     */
+    public static final int MAX_COLONISTS = 6;
+
+    /**
+     * The bits of a card id, a city id or a path id.
+     */
+    private static final int ID_BITS = 7;
+
+    /**
+     * The mask of a card id, a city id or a path id.
+     */
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+
+    /**
+     * The number of card ids in each word of the draw pile.
+     */
+    private static final int IDS_PER_WORD = 9;
+
+    /**
+     * The bits of each colonist on the board.
+     */
+    private static final int COLONIST_BITS = 10;
+
+    /**
+     * The bit of a colonist on the board that is set when it is on a path instead of in a city.
+     */
+    private static final int ON_PATH = 1 << ID_BITS;
+
+    /**
+     * The bit of a colonist on the board that is set when it is a land colonist.
+     */
+    private static final int LAND = 1 << (ID_BITS + 1);
+
+    /**
+     * The bit of a colonist on the board that is set when the colonist exists.
+     */
+    private static final int PRESENT = 1 << (ID_BITS + 2);
+
+    /**
+     * The bit of the header that is set when the draw pile and the seed are hidden.
+     */
+    private static final long HIDDEN = 1L << 8;
+
+    /**
+     * The goods in the order of their ordinals.
+     */
+    private static final Good[] GOODS = Good.values();
+
+    /**
+     * The card types in the order of their ordinals.
+     */
+    private static final CardType[] CARD_TYPE_VALUES = CardType.values();
+
+    /**
+     * The words of this state.
+     */
+    private final long[] words;
+
+    /**
+     * Constructor to make a state from its words.
+     *
+     * @param words the words of the state, they are not copied
+     */
+    GameState(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Library (static) method to read words written by {@link #write(Game, long[], int)} as a state without
+     * copying them, so a buffer can be written and read again for every position without allocating more
+     * than the view.
+     *
+     * @param words the words of the state, they are not copied
+     * @return the state backed by the words
+     */
+    public static GameState wrap(long[] words) {
+        return new GameState(words);
+    }
+
+    /**
+     * Library (static) method to find the number of words of the state of a game.
+     *
+     * @param numPlayers the number of players of the game
+     * @return the number of words
+     */
+    public static int size(int numPlayers) {
+        return PLAYERS + PLAYER_WORDS * numPlayers;
+    }
+
+    /**
+     * Library (static) method to encode the state of a game.
+     *
+     * @param game the game to encode, it must be on a built in map
+     * @return the state of the game
+     */
+    public static GameState of(Game game) {
+        long[] words = new long[size(game.players().size())];
+        write(game, words, 0);
+        return new GameState(words);
+    }
+
+    /**
+     * Library (static) method to encode the state of a game into an array, for example into a slot of a
+     * replay buffer, without allocating.
+     *
+     * @param game the game to encode, it must be on a built in map
+     * @param out the array to write the words into
+     * @param offset the index of the first word to write
+     * @throws IllegalArgumentException if the game does not fit in the layout
+     */
+    public static void write(Game game, long[] out, int offset) {
+        List<Player> players = game.players();
+        Map map = game.map();
+        if (map.cities().size() > MAX_CITIES || map.paths().size() > MAX_PATHS) {
+            throw new IllegalArgumentException("The map has too many cities or paths to be encoded");
+        }
+        Arrays.fill(out, offset, offset + size(players.size()), 0L);
+        int numCards = 0;
+        List<PersonalityCard> display = game.display();
+        for (int slot = 0; slot < display.size(); slot++) {
+            numCards = Math.max(numCards, writeType(out, offset, display.get(slot)));
+            out[offset + DISPLAY] |= (long) display.get(slot).getId() << (slot * ID_BITS);
+        }
+        List<PersonalityCard> drawPile = game.drawPile();
+        for (int i = 0; i < drawPile.size(); i++) {
+            numCards = Math.max(numCards, writeType(out, offset, drawPile.get(i)));
+            out[offset + DRAW_PILE + i / IDS_PER_WORD] |= (long) drawPile.get(i).getId() << (i % IDS_PER_WORD * ID_BITS);
+        }
+        List<CityNode> cities = map.cities();
+        for (int i = 0; i < cities.size(); i++) {
+            CityNode city = cities.get(i);
+            if (city.good() != null) {
+                out[offset + CITY_GOODS + city.id() / 16] |= (long) (city.good().ordinal() + 1) << (city.id() % 16 * 4);
+            }
+        }
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            int at = offset + PLAYERS + seat * PLAYER_WORDS;
+            StoreHouse storeHouse = player.storeHouse();
+            long resources = (player.sestertii() & 0xFFFFL) | (long) (player.victoryPoints() & 0xFFF) << 16;
+            if (player.hasPraefectusMagnus()) {
+                resources |= 1L << 28;
+            }
+            for (Good good : GOODS) {
+                resources |= (long) storeHouse.count(good) << (29 + good.ordinal() * 4);
+            }
+            resources |= (long) storeHouse.count(ColonistType.SEA) << 49 | (long) storeHouse.count(ColonistType.LAND) << 53;
+            out[at + RESOURCES] = resources;
+            out[at + HOUSES] = player.houseMask() & 0xFFFFFFFFL;
+            if (!player.discard().isEmpty()) {
+                out[at + HOUSES] |= (long) player.discard().get(0).getId() << 32 | 1L << 39;
+            }
+            List<Colonist> colonists = player.boardColonists();
+            for (int i = 0; i < colonists.size(); i++) {
+                Colonist colonist = colonists.get(i);
+                long bits = PRESENT | (colonist.isLand() ? LAND : 0);
+                bits |= colonist.path() != null ? ON_PATH | colonist.path().id() : colonist.city().id();
+                out[at + COLONISTS] |= bits << (i * COLONIST_BITS);
+            }
+            List<PersonalityCard> cards = player.cards();
+            for (int i = 0; i < cards.size(); i++) {
+                PersonalityCard card = cards.get(i);
+                numCards = Math.max(numCards, writeType(out, offset, card));
+                out[at + HAND + card.getId() / 64] |= 1L << card.getId();
+                if (card.getPlayed()) {
+                    out[at + PLAYED + card.getId() / 64] |= 1L << card.getId();
+                }
+            }
+        }
+        int current = players.indexOf(game.currentPlayer());
+        out[offset + HEADER] = players.size()
+                | (long) Math.max(current, 0) << 3
+                | (long) map.topology().type() << 6
+                | (long) display.size() << 12
+                | (long) drawPile.size() << 15
+                | (long) game.provinceChart().sestertiiMask() << 21
+                | (long) numCards << 37;
+        out[offset + SEED] = game.seed();
+    }
+
+    /**
+     * Library (static) method to write the type of a card into the words of a state.
+     *
+     * @param out the array the state is written into
+     * @param offset the index of the first word of the state
+     * @param card the card
+     * @return the number of card ids up to and including the id of the card
+     * @throws IllegalArgumentException if the id of the card does not fit in the layout
+     */
+    private static int writeType(long[] out, int offset, PersonalityCard card) {
+        int id = card.getId();
+        if (id < 0 || id >= MAX_CARDS) {
+            throw new IllegalArgumentException("Card id " + id + " cannot be encoded");
+        }
+        out[offset + CARD_TYPES + id / 16] |= (long) card.type().ordinal() << (id % 16 * 4);
+        return id + 1;
+    }
+
+    /**
+     * Method to make a new game in this state. The game is dealt from the seed like a {@code GameEngine}
+     * deals it, so that its cards get the ids of this state, and then every part of the state is overwritten
+     * and the Zobrist hash of the game is computed again.
+     *
+     * @return the new game
+     * @throws IllegalStateException if the draw pile of this state is hidden
+     */
+    public Game toGame() {
+        if ((this.words[HEADER] & HIDDEN) != 0) {
+            throw new IllegalStateException("The draw pile of this state is hidden");
+        }
+        int numPlayers = getNumPlayers();
+        long seed = getSeed();
+        List<Player> players = new ArrayList<>(numPlayers);
+        for (int i = 0; i < numPlayers; i++) {
+            players.add(new Player("Player " + (i + 1)));
+        }
+        Game game = new Game(new Map(MapTopology.of(getMapType()), new SplittableRandom(seed)), players, seed);
+        Map map = game.map();
+        PersonalityCard[] cards = new PersonalityCard[MAX_CARDS];
+        collect(cards, game.drawPile());
+        collect(cards, game.display());
+        for (Player player : players) {
+            collect(cards, player.cards());
+            player.cards().clear();
+        }
+        game.drawPile().clear();
+        game.display().clear();
+        for (int i = 0; i < getDrawPileSize(); i++) {
+            game.drawPile().add(place(cards[getDrawPileCard(i)], null, false));
+        }
+        for (int slot = 0; slot < getDisplaySize(); slot++) {
+            game.display().add(place(cards[getDisplayCard(slot)], null, false));
+        }
+        for (CityNode city : map.cities()) {
+            city.setGood(getCityGood(city.id()));
+        }
+        for (int seat = 0; seat < numPlayers; seat++) {
+            Player player = players.get(seat);
+            player.setSestertii(getSestertii(seat));
+            player.setVictoryPoints(getVictoryPoints(seat));
+            player.setPraefectusMagnus(hasPraefectusMagnus(seat));
+            StoreHouse storeHouse = player.storeHouse();
+            for (Good good : GOODS) {
+                storeHouse.removeGoods(good, storeHouse.count(good));
+            }
+            for (ColonistType type : ColonistType.values()) {
+                while (storeHouse.count(type) > 0) {
+                    storeHouse.removeColonist(type);
+                }
+            }
+            for (Good good : GOODS) {
+                storeHouse.addGoods(good, getGoods(seat, good));
+            }
+            for (ColonistType type : ColonistType.values()) {
+                for (int i = getStoredColonists(seat, type); i > 0; i--) {
+                    storeHouse.addColonist(new Colonist(player, type));
+                }
+            }
+            int houses = getHouseMask(seat);
+            for (CityNode city : map.cities()) {
+                if ((houses & 1 << city.id()) != 0) {
+                    player.buildHouse(city);
+                }
+            }
+            for (int i = 0; i < getNumColonists(seat); i++) {
+                Colonist colonist = new Colonist(player, getColonistType(seat, i));
+                if (isColonistOnPath(seat, i)) {
+                    colonist.moveTo(map.paths().get(getColonistLocation(seat, i)), map.moves());
+                } else {
+                    CityNode city = map.city(getColonistLocation(seat, i));
+                    colonist.setCity(city);
+                    city.addColonist(colonist);
+                }
+                player.placeColonist(colonist);
+            }
+            int top = getTopDiscard(seat);
+            if (top >= 0) {
+                player.discard().add(cards[top]);
+            }
+            for (int id = 0; id < getNumCards(); id++) {
+                if (hasCard(seat, id)) {
+                    boolean played = isPlayed(seat, id);
+                    player.cards().add(place(cards[id], player, played));
+                    if (played && id != top) {
+                        player.discard().add(cards[id]);
+                    }
+                }
+            }
+        }
+        game.provinceChart().restoreSestertiiMask(getProvinceSestertiiMask());
+        game.setCurrentPlayer(players.get(getCurrentSeat()));
+        game.rehash();
+        return game;
+    }
+
+    /**
+     * Library (static) method to index cards by their ids.
+     *
+     * @param byId the cards indexed by id
+     * @param cards the cards to add
+     */
+    private static void collect(PersonalityCard[] byId, List<PersonalityCard> cards) {
+        for (PersonalityCard card : cards) {
+            byId[card.getId()] = card;
+        }
+    }
+
+    /**
+     * Library (static) method to give a card its owner and whether it is played.
+     *
+     * @param card the card
+     * @param player the player who owns the card, or null
+     * @param played whether the card is played
+     * @return the card
+     */
+    private static PersonalityCard place(PersonalityCard card, Player player, boolean played) {
+        card.setMyPlayer(player);
+        card.setPlayed(played);
+        return card;
+    }
+
+    /**
+     * Method to copy this state.
+     *
+     * @return a state with a copy of the words of this state
+     */
+    public GameState copy() {
+        return new GameState(this.words.clone());
+    }
+
+    /**
+     * Method to copy this state with the draw pile and the seed hidden, as a player sees it.
+     *
+     * @return the copy without the order of the draw pile or the seed
+     */
+    GameState hidden() {
+        long[] hidden = this.words.clone();
+        Arrays.fill(hidden, DRAW_PILE, CITY_GOODS, 0L);
+        hidden[SEED] = 0L;
+        hidden[HEADER] |= HIDDEN;
+        return new GameState(hidden);
+    }
+
+    /**
+     * Getter to return the words of this state, must not be modified.
+     *
+     * @return the words
+     */
+    public long[] getWords() {
+        return this.words;
+    }
+
+    /**
+     * Getter to return the number of players.
+     *
+     * @return the number of players
+     */
+    public int getNumPlayers() {
+        return (int) (this.words[HEADER] & 0x7);
+    }
+
+    /**
+     * Getter to return the seat whose turn it is.
+     *
+     * @return the current seat
+     */
+    public int getCurrentSeat() {
+        return (int) (this.words[HEADER] >>> 3 & 0x7);
+    }
+
+    /**
+     * Getter to return the type of the map.
+     *
+     * @return one of the map types of {@code Map}
+     */
+    public byte getMapType() {
+        return (byte) (this.words[HEADER] >>> 6 & 0x3);
+    }
+
+    /**
+     * Getter to return the number of cards in the display.
+     *
+     * @return the size of the display
+     */
+    public int getDisplaySize() {
+        return (int) (this.words[HEADER] >>> 12 & 0x7);
+    }
+
+    /**
+     * Getter to return the number of cards left in the draw pile.
+     *
+     * @return the size of the draw pile
+     */
+    public int getDrawPileSize() {
+        return (int) (this.words[HEADER] >>> 15 & 0x3F);
+    }
+
+    /**
+     * Getter to return the provinces whose token shows sestertii.
+     *
+     * @return the bitmask of the provinces, bit i is set for province i
+     */
+    public int getProvinceSestertiiMask() {
+        return (int) (this.words[HEADER] >>> 21 & 0xFFFF);
+    }
+
+    /**
+     * Getter to return the number of card ids of the game.
+     *
+     * @return one more than the largest card id
+     */
+    public int getNumCards() {
+        return (int) (this.words[HEADER] >>> 37 & 0x7F);
+    }
+
+    /**
+     * Getter to return the seed the game was dealt from.
+     *
+     * @return the seed, 0 if it is hidden
+     */
+    public long getSeed() {
+        return this.words[SEED];
+    }
+
+    /**
+     * Getter to return the card in a slot of the display.
+     *
+     * @param slot the slot
+     * @return the card id
+     */
+    public int getDisplayCard(int slot) {
+        return (int) (this.words[DISPLAY] >>> (slot * ID_BITS) & ID_MASK);
+    }
+
+    /**
+     * Getter to return a card of the draw pile.
+     *
+     * @param index the index of the card from the top of the draw pile
+     * @return the card id, 0 if the draw pile is hidden
+     */
+    public int getDrawPileCard(int index) {
+        return (int) (this.words[DRAW_PILE + index / IDS_PER_WORD] >>> (index % IDS_PER_WORD * ID_BITS) & ID_MASK);
+    }
+
+    /**
+     * Getter to return the token of a city.
+     *
+     * @param city the id of the city
+     * @return the good of the token, or null if the city has none
+     */
+    public Good getCityGood(int city) {
+        int good = (int) (this.words[CITY_GOODS + city / 16] >>> (city % 16 * 4) & 0xF);
+        return good == 0 ? null : GOODS[good - 1];
+    }
+
+    /**
+     * Getter to return the type of a card.
+     *
+     * @param id the card id
+     * @return the type of the card
+     */
+    public CardType getCardType(int id) {
+        return CARD_TYPE_VALUES[(int) (this.words[CARD_TYPES + id / 16] >>> (id % 16 * 4) & 0xF)];
+    }
+
+    /**
+     * Getter to return the number of sestertii of a seat.
+     *
+     * @param seat the seat
+     * @return the sestertii
+     */
+    public int getSestertii(int seat) {
+        return (int) (resources(seat) & 0xFFFF);
+    }
+
+    /**
+     * Getter to return the victory points of a seat.
+     *
+     * @param seat the seat
+     * @return the victory points
+     */
+    public int getVictoryPoints(int seat) {
+        return (int) (resources(seat) >>> 16 & 0xFFF);
+    }
+
+    /**
+     * Getter to return whether a seat has the Praefectus Magnus.
+     *
+     * @param seat the seat
+     * @return whether the seat has the Praefectus Magnus
+     */
+    public boolean hasPraefectusMagnus(int seat) {
+        return (resources(seat) & 1L << 28) != 0;
+    }
+
+    /**
+     * Getter to return the number of a good in the storehouse of a seat.
+     *
+     * @param seat the seat
+     * @param good the good
+     * @return the number of the good
+     */
+    public int getGoods(int seat, Good good) {
+        return (int) (resources(seat) >>> (29 + good.ordinal() * 4) & 0xF);
+    }
+
+    /**
+     * Getter to return the number of colonists of a type in the storehouse of a seat.
+     *
+     * @param seat the seat
+     * @param type the type of colonist
+     * @return the number of colonists
+     */
+    public int getStoredColonists(int seat, ColonistType type) {
+        return (int) (resources(seat) >>> (type == ColonistType.SEA ? 49 : 53) & 0xF);
+    }
+
+    /**
+     * Getter to return the cities a seat has built houses in.
+     *
+     * @param seat the seat
+     * @return the bitmask of the cities, bit i is set for city i
+     */
+    public int getHouseMask(int seat) {
+        return (int) this.words[PLAYERS + seat * PLAYER_WORDS + HOUSES];
+    }
+
+    /**
+     * Getter to return the card on top of the discard pile of a seat.
+     *
+     * @param seat the seat
+     * @return the card id, or -1 if the seat has not played a card
+     */
+    public int getTopDiscard(int seat) {
+        long houses = this.words[PLAYERS + seat * PLAYER_WORDS + HOUSES];
+        return (houses & 1L << 39) == 0 ? -1 : (int) (houses >>> 32 & ID_MASK);
+    }
+
+    /**
+     * Getter to return the number of colonists of a seat on the board.
+     *
+     * @param seat the seat
+     * @return the number of colonists on the board
+     */
+    public int getNumColonists(int seat) {
+        int count = 0;
+        while (count < MAX_COLONISTS && (colonist(seat, count) & PRESENT) != 0) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Getter to return whether a colonist of a seat is on a path instead of in a city.
+     *
+     * @param seat the seat
+     * @param index the index of the colonist on the board
+     * @return whether the colonist is on a path
+     */
+    public boolean isColonistOnPath(int seat, int index) {
+        return (colonist(seat, index) & ON_PATH) != 0;
+    }
+
+    /**
+     * Getter to return where a colonist of a seat is.
+     *
+     * @param seat the seat
+     * @param index the index of the colonist on the board
+     * @return the id of its path if it is on a path, or else the id of its city
+     */
+    public int getColonistLocation(int seat, int index) {
+        return (int) (colonist(seat, index) & ID_MASK);
+    }
+
+    /**
+     * Getter to return the type of a colonist of a seat.
+     *
+     * @param seat the seat
+     * @param index the index of the colonist on the board
+     * @return the type of the colonist
+     */
+    public ColonistType getColonistType(int seat, int index) {
+        return (colonist(seat, index) & LAND) != 0 ? ColonistType.LAND : ColonistType.SEA;
+    }
+
+    /**
+     * Getter to return whether a card is in the hand of a seat.
+     *
+     * @param seat the seat
+     * @param id the card id
+     * @return whether the seat owns the card
+     */
+    public boolean hasCard(int seat, int id) {
+        return (this.words[PLAYERS + seat * PLAYER_WORDS + HAND + id / 64] & 1L << id) != 0;
+    }
+
+    /**
+     * Getter to return whether a seat has played a card.
+     *
+     * @param seat the seat
+     * @param id the card id
+     * @return whether the card is in the discard pile of the seat
+     */
+    public boolean isPlayed(int seat, int id) {
+        return (this.words[PLAYERS + seat * PLAYER_WORDS + PLAYED + id / 64] & 1L << id) != 0;
+    }
+
+    /**
+     * Getter to return whether the draw pile and the seed of this state are hidden.
+     *
+     * @return whether this state is what a player sees
+     */
+    public boolean isHidden() {
+        return (this.words[HEADER] & HIDDEN) != 0;
+    }
+
+    /**
+     * Method to read the resources word of a seat.
+     *
+     * @param seat the seat
+     * @return the resources word
+     */
+    private long resources(int seat) {
+        return this.words[PLAYERS + seat * PLAYER_WORDS + RESOURCES];
+    }
+
+    /**
+     * Method to read the bits of a colonist of a seat on the board.
+     *
+     * @param seat the seat
+     * @param index the index of the colonist on the board
+     * @return the bits of the colonist
+     */
+    private int colonist(int seat, int index) {
+        long colonists = this.words[PLAYERS + seat * PLAYER_WORDS + COLONISTS];
+        return (int) (colonists >>> (index * COLONIST_BITS)) & ((1 << COLONIST_BITS) - 1);
+    }
+
+    /**
+     * Method to check whether an object is a state with the same words.
+     *
+     * @param o the object
+     * @return whether the object is an equal state
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof GameState other && Arrays.equals(this.words, other.words);
+    }
+
+    /**
+     * Method to return the hash code of this state.
+     *
+     * @return the hash code of the words
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.words);
+    }
 }
@@ -1,13 +1,120 @@
 package src.ai.environment;
 
+//  imports
+import src.game.Game;
+
 /**
  * A class to represent the game state of a certain {@code Player}. This class
- * will represent all the data that a {@code Player} would gave available
- * to them when playing the game. 
+ * will represent all the data that a {@code Player} would have available
+ * to them when playing the game: a {@link GameState} without the order of the
+ * draw pile or the seed it was dealt from, and the seat it is seen from.
+ * Copying it is one small array copy like copying a {@link GameState}.
  *
  * @author devinlinux
- */ 
-public class PlayerGameState {
+ */
+public final class PlayerGameState {
+
+    /**
+     * The state of the game with the hidden information removed.
+     */
+    private final GameState state;
+
+    /**
+     * The seat this state is seen from.
+     */
+    private final int seat;
+
+    /**
+     * Constructor to make the state of a seat from a state that is already hidden.
+     *
+     * @param state the hidden state of the game
+     * @param seat the seat the state is seen from
+     */
+    private PlayerGameState(GameState state, int seat) {
+        this.state = state;
+        this.seat = seat;
+    }
+
+    /**
+     * Library (static) method to make the state a seat sees of a game.
+     *
+     * @param game the game
+     * @param seat the seat the state is seen from
+     * @return the state the seat sees
+     */
+    public static PlayerGameState of(Game game, int seat) {
+        return of(GameState.of(game), seat);
+    }
+
+    /**
+     * Library (static) method to make the state a seat sees from the whole state of a game.
+     *
+     * @param state the state of the game, it is not changed
+     * @param seat the seat the state is seen from
+     * @return the state the seat sees
+     * @throws IllegalArgumentException if the game has no such seat
+     */
+    public static PlayerGameState of(GameState state, int seat) {
+        if (seat < 0 || seat >= state.getNumPlayers()) {
+            throw new IllegalArgumentException("The game has no seat " + seat);
+        }
+        return new PlayerGameState(state.isHidden() ? state : state.hidden(), seat);
+    }
+
+    /**
+     * Method to copy this state.
+     *
+     * @return a state with a copy of the words of this state
+     */
+    public PlayerGameState copy() {
+        return new PlayerGameState(this.state.copy(), this.seat);
+    }
+
+    /**
+     * Getter to return the state of the game as the seat sees it, its draw pile and seed are hidden.
+     *
+     * @return the hidden state of the game
+     */
+    public GameState getState() {
+        return this.state;
+    }
+
+    /**
+     * Getter to return the seat this state is seen from.
+     *
+     * @return the seat
+     */
+    public int getSeat() {
+        return this.seat;
+    }
+
+    /**
+     * Getter to return whether it is the turn of the seat this state is seen from.
+     *
+     * @return whether the seat is the current seat
+     */
+    public boolean isToMove() {
+        return this.state.getCurrentSeat() == this.seat;
+    }
+
+    /**
+     * Method to check whether an object is the same state seen from the same seat.
+     *
+     * @param o the object
+     * @return whether the object is an equal state
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PlayerGameState other && this.seat == other.seat && this.state.equals(other.state);
+    }
 
-    
+    /**
+     * Method to return the hash code of this state.
+     *
+     * @return the hash code of the words and the seat
+     */
+    @Override
+    public int hashCode() {
+        return 31 * this.state.hashCode() + this.seat;
+    }
 }
@@ -0,0 +1,308 @@
+package src.ai.environment;
+
+//  imports
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import src.ai.environment.game.map.Map;
+import src.game.engine.ActionMask;
+import src.game.engine.Agent;
+import src.game.engine.RandomAgent;
+
+/**
+ * A class to step many independent games of Concordia in lockstep, so one call of a model can choose the
+ * actions of every game at once.
+ * The observations, rewards, whether each game ended and the legal actions of every game are written into
+ * batch buffers that are made once and overwritten by every {@link #reset(long)} and {@link #step(int[])},
+ * game i owning row i of each buffer. A game that ends is started again with the next seed of its own
+ * sequence within the same step, so its row holds the reward and end of the old game and the observation
+ * and legal actions of the new one.
+ * The games are split into chunks of consecutive games that are stepped in parallel on a pool. Every game
+ * has its own opponent and seeds, so the results do not depend on the number of threads.
+ *
+ * @author devinlinux
+ */
+public class VectorizedConcordiaGame {
+
+    /**
+     * The games stepped by this environment.
+     */
+    private final ConcordiaGame[] games;
+
+    /**
+     * The seeds of the games each game plays, one sequence per game.
+     */
+    private final SplittableRandom[] seeds;
+
+    /**
+     * The pool the chunks are stepped on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The number of games in a chunk.
+     */
+    private final int chunkSize;
+
+    /**
+     * The observation of every game, {@link FeatureEncoder#FEATURES} floats per game.
+     */
+    private final float[] observations;
+
+    /**
+     * The reward of every game for the last step.
+     */
+    private final float[] rewards;
+
+    /**
+     * Whether every game ended in the last step.
+     */
+    private final boolean[] dones;
+
+    /**
+     * The mask of the legal actions of every game, {@link ActionMask#WORDS} longs per game.
+     */
+    private final long[] masks;
+
+    /**
+     * Constructor to make a new environment of games on the imperium map against random opponents on the
+     * common pool, with chunks sized to give every thread of the pool a few of them.
+     *
+     * @param numGames the number of games
+     * @param numPlayers the number of players of every game
+     */
+    public VectorizedConcordiaGame(int numGames, int numPlayers) {
+        this(numGames, numPlayers, new Map(true), RandomAgent::new, ForkJoinPool.commonPool(),
+                Math.max(1, numGames / (4 * ForkJoinPool.commonPool().getParallelism())));
+    }
+
+    /**
+     * Constructor to make a new environment of games, seat 0 of every game is played through
+     * {@link #step(int[])}.
+     *
+     * @param numGames the number of games
+     * @param numPlayers the number of players of every game
+     * @param map the map every game is played on
+     * @param opponents makes the opponent of each game, agents are not shared between games as they are
+     *                  stepped at the same time
+     * @param pool the pool the chunks are stepped on
+     * @param chunkSize the number of games in a chunk
+     * @throws IllegalArgumentException if there are no games, the chunks are empty or the map is not
+     *                                  supported by the engine
+     */
+    public VectorizedConcordiaGame(int numGames, int numPlayers, Map map, Supplier<? extends Agent> opponents,
+                                   ForkJoinPool pool, int chunkSize) {
+        if (numGames < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("An environment needs at least one game and one game per chunk");
+        }
+        this.games = new ConcordiaGame[numGames];
+        this.seeds = new SplittableRandom[numGames];
+        for (int i = 0; i < numGames; i++) {
+            this.games[i] = new ConcordiaGame(map, opponents.get(), numPlayers, 0);
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.observations = new float[numGames * FeatureEncoder.FEATURES];
+        this.rewards = new float[numGames];
+        this.dones = new boolean[numGames];
+        this.masks = new long[numGames * ActionMask.WORDS];
+    }
+
+    /**
+     * Method to start every game again, game i playing the games of the i-th sequence of seeds derived
+     * from the seed.
+     *
+     * @param seed the seed of every game played from now on
+     */
+    public void reset(long seed) {
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int i = 0; i < this.games.length; i++) {
+            this.seeds[i] = root.split();
+        }
+        forEachChunk(this::resetChunk);
+    }
+
+    /**
+     * Method to play one action in every game.
+     *
+     * @param actions the bit of {@link ActionMask} of the action of each game
+     * @throws IllegalArgumentException if there is not one action per game
+     */
+    public void step(int[] actions) {
+        if (actions.length != this.games.length) {
+            throw new IllegalArgumentException("Expected " + this.games.length + " actions but got " + actions.length);
+        }
+        forEachChunk(chunk -> stepChunk(chunk, actions));
+    }
+
+    /**
+     * Method to run a task on every chunk, in parallel on the pool when there is more than one chunk.
+     *
+     * @param task the task, given the index of a chunk
+     */
+    private void forEachChunk(IntConsumer task) {
+        int chunks = (this.games.length + this.chunkSize - 1) / this.chunkSize;
+        if (chunks == 1) {
+            task.accept(0);
+        } else {
+            this.pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(task)).join();
+        }
+    }
+
+    /**
+     * Method to start every game of a chunk again and write its row of the buffers.
+     *
+     * @param chunk the index of the chunk
+     */
+    private void resetChunk(int chunk) {
+        for (int i = chunk * this.chunkSize, end = Math.min(this.games.length, i + this.chunkSize); i < end; i++) {
+            start(i);
+            this.rewards[i] = 0f;
+            this.dones[i] = false;
+            write(i);
+        }
+    }
+
+    /**
+     * Method to play one action in every game of a chunk and write its row of the buffers.
+     *
+     * @param chunk the index of the chunk
+     * @param actions the bit of {@link ActionMask} of the action of each game
+     */
+    private void stepChunk(int chunk, int[] actions) {
+        for (int i = chunk * this.chunkSize, end = Math.min(this.games.length, i + this.chunkSize); i < end; i++) {
+            ConcordiaGame game = this.games[i];
+            this.rewards[i] = game.step(actions[i]);
+            this.dones[i] = game.isDone();
+            if (this.dones[i]) {
+                start(i);
+            }
+            write(i);
+        }
+    }
+
+    /**
+     * Method to start a game with the next seed of its sequence, games that end without the seat ever
+     * choosing are started again.
+     *
+     * @param game the index of the game
+     */
+    private void start(int game) {
+        do {
+            this.games[game].reset(this.seeds[game].nextLong());
+        } while (this.games[game].isDone());
+    }
+
+    /**
+     * Method to write the observation and legal actions of a game into its rows.
+     *
+     * @param game the index of the game
+     */
+    private void write(int game) {
+        this.games[game].observe(this.observations, game * FeatureEncoder.FEATURES);
+        this.games[game].mask(this.masks, game * ActionMask.WORDS);
+    }
+
+    /**
+     * Getter to return the observation of every game, row i starting at {@code i * FeatureEncoder.FEATURES}.
+     *
+     * @return the observations, overwritten by every reset and step
+     */
+    public float[] getObservations() {
+        return this.observations;
+    }
+
+    /**
+     * Getter to return the reward of every game for the last step.
+     *
+     * @return the rewards, overwritten by every reset and step
+     */
+    public float[] getRewards() {
+        return this.rewards;
+    }
+
+    /**
+     * Getter to return whether every game ended in the last step.
+     *
+     * @return the ends, overwritten by every reset and step
+     */
+    public boolean[] getDones() {
+        return this.dones;
+    }
+
+    /**
+     * Getter to return the mask of the legal actions of every game, the mask of game i starting at
+     * {@code i * ActionMask.WORDS}.
+     *
+     * @return the masks, overwritten by every reset and step
+     */
+    public long[] getMasks() {
+        return this.masks;
+    }
+
+    /**
+     * Getter to return one of the games.
+     *
+     * @param index the index of the game
+     * @return the game, which must not be stepped directly
+     */
+    public ConcordiaGame getGame(int index) {
+        return this.games[index];
+    }
+
+    /**
+     * Getter to return the number of games.
+     *
+     * @return the number of games
+     */
+    public int getNumGames() {
+        return this.games.length;
+    }
+
+    /**
+     * Steps games with random legal actions of their masks against random opponents and prints how many
+     * steps were taken per second.
+     * {@code [games] [steps] [players]}
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        int numGames = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int steps = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : ConcordiaGame.DEFAULT_PLAYERS;
+        VectorizedConcordiaGame env = new VectorizedConcordiaGame(numGames, players);
+        SplittableRandom random = new SplittableRandom(0L);
+        int[] actions = new int[numGames];
+        int episodes = 0;
+        double returns = 0.0;
+        env.reset(0L);
+        long start = System.nanoTime();
+        for (int s = 0; s < steps; s++) {
+            for (int i = 0; i < numGames; i++) {
+                long[] masks = env.getMasks();
+                int choice = random.nextInt(ActionMask.count(masks, i * ActionMask.WORDS));
+                int bit = -1;
+                while (choice >= 0) {
+                    if (ActionMask.isSet(masks, i * ActionMask.WORDS, ++bit)) {
+                        choice--;
+                    }
+                }
+                actions[i] = bit;
+            }
+            env.step(actions);
+            for (int i = 0; i < numGames; i++) {
+                returns += env.getRewards()[i];
+                if (env.getDones()[i]) {
+                    episodes++;
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d steps of %d games in %.2fs, %.0f steps/s, %d games ended%n",
+                steps, numGames, seconds, steps * (double) numGames / seconds, episodes);
+        System.out.printf("%.2f reward per step%n", returns / ((double) steps * numGames));
+    }
+}
@@ -31,12 +31,19 @@ public class House {
     }
 
     /**
-     * Method to set the {@code City} where this house has been placed.
+     * Method to set the {@code City} where this house has been placed, keeping
+     * the house bitmask of its player up to date.
      *
-     * @param city the city where this house has been placed.
+     * @param city the city where this house has been placed, or {@code null} to take it off the map.
      */
     public void setCity(City city) {
+        if (this.city != null) {
+            this.player.removeHouseFrom(this.city);
+        }
         this.city = city;
+        if (city != null) {
+            this.player.addHouseTo(city);
+        }
     }
 
     /**
@@ -22,8 +22,7 @@ public class Jupiter extends RomanGodType {
      */
     @Override
     public int calculateScore(Player player, ConcordiaGame game) {
-        return Math.min((int) player.getCitiesWithHouses().stream()
-                .filter(city -> city.getGood() != Good.BRICK)
-                .count(), 15);
+        int houses = player.getHouseMask() & ~game.getMap().getGoodMask(Good.BRICK);
+        return Math.min(Integer.bitCount(houses), 15);
     }
 }
@@ -3,7 +3,8 @@ package src.ai.environment.game.cards.godtypes;
 //  imports
 import src.ai.environment.ConcordiaGame;
 import src.ai.environment.game.player.Player;
-import src.ai.environment.game.map.City;
+import src.ai.environment.game.map.Map;
+import src.ai.environment.game.Good;
 
 /**
  * A basic class to represent the Roman god Mercury.
@@ -22,11 +23,15 @@ public class Mercury extends RomanGodType {
      */
     @Override
     public int calculateScore(Player player, ConcordiaGame game) {
-        return Math.min(
-                (int) player.getCitiesWithHouses().stream()
-                        .map(City::getGood)
-                        .distinct()
-                        .count() * 2, 10);
+        Map map = game.getMap();
+        int houses = player.getHouseMask();
+        int goods = 0;
+        for (Good good : Good.values()) {
+            if ((houses & map.getGoodMask(good)) != 0) {
+                goods++;
+            }
+        }
+        return Math.min(goods * 2, 10);
     }
 
 }
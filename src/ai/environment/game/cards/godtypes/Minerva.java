@@ -4,6 +4,7 @@ package src.ai.environment.game.cards.godtypes;
 import src.ai.environment.ConcordiaGame;
 import src.ai.environment.game.player.Player;
 import src.ai.environment.game.Good;
+import src.ai.environment.game.cards.PersonalityCard;
 
 /**
  * A basic class to represent the Roman god Minerva.
@@ -49,10 +50,13 @@ public class Minerva extends RomanGodType {
      */
     @Override
     public int calculateScore(Player player, ConcordiaGame game) {
-        return player.getCitiesWithHouses().stream()
-                .flatMapToInt(city -> player.getCards().stream()
-                        .filter(card -> card instanceof Minerva && ((Minerva) card).good == city.getGood())
-                        .mapToInt(card -> ((Minerva) card).goodValue))
-                .sum();
+        int houses = player.getHouseMask();
+        int score = 0;
+        for (PersonalityCard card : player.getCards()) {
+            if (card instanceof Minerva minerva) {
+                score += Integer.bitCount(houses & game.getMap().getGoodMask(minerva.good)) * minerva.goodValue;
+            }
+        }
+        return score;
     }
 }
@@ -76,6 +76,16 @@ public class City {
         return this.id;
     }
 
+    /**
+     * Getter to return the bit of this City in a city bitmask, bit {@code i} of a
+     * city bitmask is set when the city with id {@code i} is in the set.
+     *
+     * @return the bit of this City.
+     */
+    public int getMask() {
+        return 1 << this.id;
+    }
+
     /**
      * Getter to return the {@code Good} produced by this City.
      *
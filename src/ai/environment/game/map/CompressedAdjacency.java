@@ -0,0 +1,71 @@
+package src.ai.environment.game.map;
+
+//  imports
+import java.util.List;
+
+/**
+ * A basic class to represent a frozen adjacency list in compressed sparse row form.
+ * The neighbors of node {@code u} are stored in {@code neighbors[offsets[u]]} up to
+ * but excluding {@code neighbors[offsets[u + 1]]}.
+ *
+ * @author devinlinux
+ */
+public final class CompressedAdjacency {
+
+    /**
+     * The start index of the neighbors of each node followed by the total number of neighbors.
+     */
+    private final int[] offsets;
+
+    /**
+     * The neighbors of every node laid out one node after the other.
+     */
+    private final int[] neighbors;
+
+    /**
+     * Constructor to freeze an adjacency list into compressed sparse row form.
+     *
+     * @param adjList the adjacency list to freeze, the order of the neighbors is kept
+     */
+    public CompressedAdjacency(List<List<Integer>> adjList) {
+        int numNodes = adjList.size();
+        this.offsets = new int[numNodes + 1];
+        for (int u = 0; u < numNodes; u++) {
+            this.offsets[u + 1] = this.offsets[u] + adjList.get(u).size();
+        }
+        this.neighbors = new int[this.offsets[numNodes]];
+        for (int u = 0; u < numNodes; u++) {
+            int i = this.offsets[u];
+            for (int v : adjList.get(u)) {
+                this.neighbors[i++] = v;
+            }
+        }
+    }
+
+    /**
+     * Getter to return the number of nodes.
+     *
+     * @return the number of nodes
+     */
+    public int getNumNodes() {
+        return this.offsets.length - 1;
+    }
+
+    /**
+     * Getter to return the offsets array, must not be modified.
+     *
+     * @return the start index of the neighbors of each node followed by the total number of neighbors
+     */
+    public int[] getOffsets() {
+        return this.offsets;
+    }
+
+    /**
+     * Getter to return the neighbors array, must not be modified.
+     *
+     * @return the neighbors of every node laid out one node after the other
+     */
+    public int[] getNeighbors() {
+        return this.neighbors;
+    }
+}
@@ -4,7 +4,7 @@ package src.ai.environment.game.map;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import src.ai.environment.game.Good;
 
@@ -47,18 +47,35 @@ public class Map {
     private List<Good> cityTokens;
 
     /**
-     * The random number generator for this class
+     * The cities that produce each {@code Good} as city bitmasks, indexed
+     * by {@code Good.ordinal()}.
      */
-    Random random;
+    private int[] goodMasks;
 
     /**
-     * Constructor to make a new Map
+     * The random number generator the city tokens of this map are drawn with.
+     */
+    SplittableRandom random;
+
+    /**
+     * Constructor to make a new Map with randomly drawn city tokens.
      *
      * @param imperium whether it is the imperium map
      */
     public Map(boolean imperium) {
+        this(imperium, new SplittableRandom());
+    }
+
+    /**
+     * Constructor to make a new Map with city tokens drawn from a random number generator, so
+     * a game seeded the same way always gets the same map.
+     *
+     * @param imperium whether it is the imperium map
+     * @param random the random number generator to draw the city tokens with
+     */
+    public Map(boolean imperium, SplittableRandom random) {
         this.imperium = imperium;
-        this.random = new Random();
+        this.random = random;
         init();
     }
 
@@ -221,6 +238,23 @@ public class Map {
             network.connect(28, 29, true);
 
             this.paths = network.getPaths();
+            initGoodMasks();
+        }
+    }
+
+    /**
+     * Method to build the city bitmask of the cities that produce each {@code Good}.
+     * Every city bitmask fits in an {@code int} because the map has at most 32 cities.
+     */
+    private void initGoodMasks() {
+        if (this.cities.size() > Integer.SIZE) {
+            throw new IllegalStateException("A city bitmask can hold at most " + Integer.SIZE + " cities");
+        }
+        this.goodMasks = new int[Good.values().length];
+        for (City city : this.cities) {
+            if (city.getGood() != null) {
+                this.goodMasks[city.getGood().ordinal()] |= city.getMask();
+            }
         }
     }
 
@@ -251,6 +285,25 @@ public class Map {
         return paths;
     }
 
+    /**
+     * Getter to return whether this is the imperium map.
+     *
+     * @return whether this is the imperium map
+     */
+    public boolean isImperium() {
+        return imperium;
+    }
+
+    /**
+     * Getter to return the cities that produce a {@code Good} as a city bitmask.
+     *
+     * @param good the good
+     * @return the city bitmask of the cities that produce the good
+     */
+    public int getGoodMask(Good good) {
+        return this.goodMasks[good.ordinal()];
+    }
+
     public static void main(String[] args) {
         Map map = new Map(true);
         System.out.println(map.paths.size());
@@ -4,8 +4,6 @@ package src.ai.environment.game.map;
 import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Queue;
-import java.util.LinkedList;
 
 /**
  * A basic class to represent a network of cities and paths.
@@ -20,15 +18,29 @@ public class Network {
     private final int numNodes;
 
     /**
-     * The adjacency matrix of the network for land.
+     * The adjacency list of the network for land, only used to record calls
+     * to {@code connect}, traversals use the frozen compressed form.
      */
     private final List<List<Integer>> adjListLand;
 
     /**
-     * The adjacency matrix of the network for sea.
+     * The adjacency list of the network for sea, only used to record calls
+     * to {@code connect}, traversals use the frozen compressed form.
      */
     private final List<List<Integer>> adjListSea;
 
+    /**
+     * The frozen compressed form of the land adjacency list, built lazily and
+     * discarded whenever a path is added.
+     */
+    private CompressedAdjacency landAdjacency;
+
+    /**
+     * The frozen compressed form of the sea adjacency list, built lazily and
+     * discarded whenever a path is added.
+     */
+    private CompressedAdjacency seaAdjacency;
+
     /**
      * The list of paths in the network.
      */
@@ -69,6 +81,8 @@ public class Network {
             this.adjListSea.get(u).add(v);
             this.adjListSea.get(v).add(u);
         }
+        this.landAdjacency = null;
+        this.seaAdjacency = null;
 
         if (this.cities != null) {
             if (this.paths == null) {
@@ -109,42 +123,52 @@ public class Network {
         int start = Math.min(start1, start2);
         int end = Math.min(end1, end2);
 
-        boolean[] visited = new boolean[this.numNodes];
+        CompressedAdjacency adjacency = this.getAdjacency(land1);
+        int[] offsets = adjacency.getOffsets();
+        int[] neighbors = adjacency.getNeighbors();
         int[] dist = new int[this.numNodes];
         Arrays.fill(dist, -1);
-        Queue<Integer> queue = new LinkedList<>();
-        queue.add(start);
-        visited[start] = true;
+        int[] queue = new int[this.numNodes];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
         dist[start] = 0;
-        while (!queue.isEmpty()) {
-            int curr = queue.poll();
-            if (land1) {
-                for (int neighbor : adjListLand.get(curr)) {
-                    if (!visited[neighbor]) {
-                        visited[neighbor] = true;
-                        dist[neighbor] = dist[curr] + 1;
-                        queue.add(neighbor);
-                    }
-                    if (neighbor == end) {
-                        return dist[neighbor];
-                    }
+        while (head < tail) {
+            int curr = queue[head++];
+            for (int i = offsets[curr]; i < offsets[curr + 1]; i++) {
+                int neighbor = neighbors[i];
+                if (dist[neighbor] == -1) {
+                    dist[neighbor] = dist[curr] + 1;
+                    queue[tail++] = neighbor;
                 }
-            } else {
-                for (int neighbor : adjListSea.get(curr)) {
-                    if (!visited[neighbor]) {
-                        visited[neighbor] = true;
-                        dist[neighbor] = dist[curr] + 1;
-                        queue.add(neighbor);
-                    }
-                    if (neighbor == end) {
-                        return dist[neighbor];
-                    }
+                if (neighbor == end) {
+                    return dist[neighbor];
                 }
             }
         }
         return -1;
     }
 
+    /**
+     * Getter to return the frozen compressed adjacency of land or sea paths,
+     * rebuilding it if a path has been added since it was last built.
+     *
+     * @param land whether to return the adjacency of the land paths
+     * @return the compressed adjacency of the land or sea paths
+     */
+    public CompressedAdjacency getAdjacency(boolean land) {
+        if (land) {
+            if (this.landAdjacency == null) {
+                this.landAdjacency = new CompressedAdjacency(this.adjListLand);
+            }
+            return this.landAdjacency;
+        }
+        if (this.seaAdjacency == null) {
+            this.seaAdjacency = new CompressedAdjacency(this.adjListSea);
+        }
+        return this.seaAdjacency;
+    }
+
     /**
      * Method to compute the distance between a start path and an end path
      * using the {@code Path} class.
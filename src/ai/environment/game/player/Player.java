@@ -3,7 +3,6 @@ package src.ai.environment.game.player;
 //  imports
 import java.util.List;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
 
 import src.ai.environment.game.cards.PersonalityCard;
 import src.ai.environment.game.cards.*;
@@ -39,6 +38,12 @@ public class Player {
      */
     protected List<House> houses;
 
+    /**
+     * The cities where this player has a house as a city bitmask, a player has
+     * at most one house in each city.
+     */
+    protected int houseMask;
+
     /**
      * The storehouse of the player
      */
@@ -63,6 +68,7 @@ public class Player {
         this.colonists = new ArrayList<>();
         this.houses = new ArrayList<>();
         this.storeHouse = new StoreHouse(this);
+        this.houseMask = 0;
         this.sestertii = 0;
         this.victoryPoints = 0;
         this.init();
@@ -108,15 +114,58 @@ public class Player {
     }
 
     /**
-     * Method to get the cities where the player has houses.
+     * Method to get the cities where the player has houses, in the order
+     * their houses were given.
      *
      * @return the cities where the player has houses
      */
     public List<City> getCitiesWithHouses() {
-        return this.houses.stream()
-                .map(House::getCity)
-                .distinct()
-                .collect(Collectors.toList());
+        List<City> cities = new ArrayList<>(Integer.bitCount(this.houseMask));
+        int remaining = this.houseMask;
+        for (House house : this.houses) {
+            City city = house.getCity();
+            if (city != null && (remaining & city.getMask()) != 0) {
+                cities.add(city);
+                remaining &= ~city.getMask();
+            }
+        }
+        return cities;
+    }
+
+    /**
+     * Method to get the cities where the player has houses as a city bitmask.
+     *
+     * @return the city bitmask of the cities where the player has houses
+     */
+    public int getHouseMask() {
+        return this.houseMask;
+    }
+
+    /**
+     * Method to get the number of cities where the player has houses.
+     *
+     * @return the number of cities where the player has houses
+     */
+    public int getNumCitiesWithHouses() {
+        return Integer.bitCount(this.houseMask);
+    }
+
+    /**
+     * Method to record that a house of this player was placed in a city.
+     *
+     * @param city the city the house was placed in
+     */
+    public void addHouseTo(City city) {
+        this.houseMask |= city.getMask();
+    }
+
+    /**
+     * Method to record that a house of this player was taken out of a city.
+     *
+     * @param city the city the house was taken out of
+     */
+    public void removeHouseFrom(City city) {
+        this.houseMask &= ~city.getMask();
     }
 
     /**
@@ -6,7 +6,7 @@ package src.game;
  */
 
  import java.util.ArrayList;
- import java.util.Random;
+ import java.util.SplittableRandom;
  import java.awt.Graphics;
  import java.awt.Color;
 
@@ -48,15 +48,22 @@ package src.game;
  public class BonusBox extends ArrayList<ProvinceBonus> {
  
      private int capacity;
+
+     // the random number generator of the game this box belongs to
+     private SplittableRandom random;
      
      public BonusBox (int c) {
+         this(c, new SplittableRandom());
+     }
+
+     public BonusBox (int c, SplittableRandom random) {
          super(c);
          capacity = c;
+         this.random = random;
      }
      
      public Good randomGood() {
-       Random math = new Random();
-       int goodValue = (math.nextInt()*5) + 3;
+       int goodValue = random.nextInt(5) + 3;
        
        switch (goodValue) {
           case 3:
@@ -81,9 +88,8 @@ package src.game;
      }
      
      public void fillBox() {
-     Random math = new Random();
         for (int i = 0; i < capacity; i++) {
-            this.add(new ProvinceBonus(randomGood(), (math.nextInt()*3) +1));
+            this.add(new ProvinceBonus(randomGood(), random.nextInt(3) + 1));
         }
      }
  
@@ -1,9 +1,13 @@
 package src.game;
 
 //  imports
+import src.game.map.CityNode;
+import src.game.map.MoveGenerator;
 import src.game.map.PathNode;
 import src.game.player.Player;
 
+import static src.game.map.PathNode.PathType;
+
 import static src.game.Colonist.ColonistType.SEA;
 import static src.game.Colonist.ColonistType.LAND;
 
@@ -25,6 +29,11 @@ public class Colonist {
 	 */
 	private PathNode path;
 
+	/**
+	 * The city that the colonist was placed in, only set until the colonist first moves onto a path
+	 */
+	private CityNode city;
+
 	/**
 	 * The type of colonist that this colonist is
 	 */
@@ -76,22 +85,122 @@ public class Colonist {
 		return this.TYPE == SEA;
 	}
 
+	/**
+	 * Getter to return the city that this colonist was placed in
+	 */
+	public CityNode city() {
+		return this.city;
+	}
+
 	/**
 	 * Method to determine if this colonist can move to a PathNode
+	 * A colonist may pass through occupied paths but may not end on one
 	 * @param node the PathNode to move to
+	 * @param budget the number of steps this colonist may take
+	 * @param moves the MoveGenerator of the map this colonist is on
 	 */
-	public boolean canMoveTo(PathNode node) {
+	public boolean canMoveTo(PathNode node, int budget, MoveGenerator moves) {
+		if (this.path != null) {
+			return moves.canMove(this.path.id(), node.id(), budget);
+		}
+		if (this.city != null) {
+			return moves.canMoveFromCity(this.city.id(), pathType(), node.id(), budget);
+		}
 		return false;
 	}
 
+	/**
+	 * Method to write the ids of every PathNode this colonist can legally end on into an array
+	 * @param budget the number of steps this colonist may take
+	 * @param moves the MoveGenerator of the map this colonist is on
+	 * @param out the array to write the ids into, must be able to hold every PathNode of the map
+	 * @return the number of ids written
+	 */
+	public int legalMoves(int budget, MoveGenerator moves, int[] out) {
+		if (this.path != null) {
+			return moves.legalMoves(this.path.id(), budget, out);
+		}
+		if (this.city != null) {
+			return moves.legalMovesFromCity(this.city.id(), pathType(), budget, out);
+		}
+		return 0;
+	}
+
+	/**
+	 * Method to find the number of steps this colonist needs to get to a PathNode
+	 * @param node the PathNode to move to
+	 * @param moves the MoveGenerator of the map this colonist is on
+	 * @return the number of steps, or -1 if this colonist cannot reach the PathNode
+	 */
+	public int stepsTo(PathNode node, MoveGenerator moves) {
+		if (this.path != null) {
+			return moves.lineGraph().distance(this.path.id(), node.id());
+		}
+		if (this.city != null && moves.lineGraph().type(node.id()) == pathType()) {
+			return moves.lineGraph().distanceFromCity(this.city.id(), node.id());
+		}
+		return -1;
+	}
+
+	/**
+	 * Method to move this colonist to a PathNode, updating which paths are occupied
+	 * @param node the PathNode to move to
+	 * @param moves the MoveGenerator of the map this colonist is on
+	 */
+	public void moveTo(PathNode node, MoveGenerator moves) {
+		if (this.path != null) {
+			moves.move(this.path.id(), node.id());
+		} else {
+			moves.occupy(node.id());
+		}
+		hashPath(this.path, node);
+		this.path = node;
+		this.city = null;
+	}
+
+	/**
+	 * Method to hash this colonist leaving one path and ending on another in the Zobrist hash of its player's Game
+	 * @param from the PathNode it leaves, or null if it was not on one
+	 * @param to the PathNode it ends on, or null if it is not on one
+	 */
+	private void hashPath(PathNode from, PathNode to) {
+		int seat = this.PLAYER.seat();
+		long key = 0L;
+		if (from != null) {
+			key ^= Zobrist.pathColonist(seat, from.id());
+		}
+		if (to != null) {
+			key ^= Zobrist.pathColonist(seat, to.id());
+		}
+		this.PLAYER.toggleHash(key);
+	}
+
+	/**
+	 * Method to return the PathType of the paths this colonist may move on
+	 */
+	public PathType pathType() {
+		return this.TYPE == LAND ? PathType.LAND : PathType.SEA;
+	}
+
 	/**
 	 * Setter method to set the PathNode of this Colonist
 	 * @param path the PathNode this Colonist is on
 	 */
 	public void setPathNode(PathNode path) {
+		hashPath(this.path, path);
 		this.path = path;
 	}
 
+	/**
+	 * Setter method to place this Colonist in a city, taking it off its PathNode
+	 * @param city the CityNode this Colonist is placed in
+	 */
+	public void setCity(CityNode city) {
+		hashPath(this.path, null);
+		this.city = city;
+		this.path = null;
+	}
+
 	/**
 	 * An enum to represent the type of colonist that a colonist is
 	 */
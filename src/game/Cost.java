@@ -0,0 +1,274 @@
+package src.game;
+
+/**
+ * A class to represent an immutable cost in sestertii and Goods, such as the price of a personality
+ * card or of building a House
+ * The whole cost is packed into a single long so it can be stored and compared without allocating,
+ * the lowest 16 bits hold the sestertii and each Good has 8 bits starting at bit
+ * {@code 16 + 8 * good.ordinal()}
+ * @author devinlinux
+ */
+public final class Cost {
+
+    /**
+     * The number of bits used for the sestertii
+     */
+    private static final int SESTERTII_BITS = 16;
+
+    /**
+     * The number of bits used for each Good
+     */
+    private static final int GOOD_BITS = 8;
+
+    /**
+     * The largest number of sestertii a Cost can hold
+     */
+    public static final int MAX_SESTERTII = (1 << SESTERTII_BITS) - 1;
+
+    /**
+     * The largest number of one Good a Cost can hold
+     */
+    public static final int MAX_GOODS = (1 << GOOD_BITS) - 1;
+
+    /**
+     * The Goods in the order of their ordinals
+     */
+    private static final Good[] GOODS = Good.values();
+
+    /**
+     * The Cost of nothing
+     */
+    public static final Cost FREE = new Cost(0L);
+
+    /**
+     * The packed sestertii and Goods of this Cost
+     */
+    private final long packed;
+
+    /**
+     * Constructor to make a new Cost from its packed form
+     * @param packed the packed sestertii and Goods
+     */
+    private Cost(long packed) {
+        this.packed = packed;
+    }
+
+    /**
+     * Library (static) method to make a new Cost
+     * @param sestertii the number of sestertii
+     * @param brick the number of bricks
+     * @param food the number of food
+     * @param tool the number of tools
+     * @param wine the number of wine
+     * @param cloth the number of cloth
+     * @return the Cost
+     */
+    public static Cost of(int sestertii, int brick, int food, int tool, int wine, int cloth) {
+        long packed = packSestertii(sestertii)
+                | packGood(Good.BRICK, brick)
+                | packGood(Good.FOOD, food)
+                | packGood(Good.TOOL, tool)
+                | packGood(Good.WINE, wine)
+                | packGood(Good.CLOTH, cloth);
+        return packed == 0L ? FREE : new Cost(packed);
+    }
+
+    /**
+     * Library (static) method to make a new Cost of only sestertii
+     * @param sestertii the number of sestertii
+     * @return the Cost
+     */
+    public static Cost ofSestertii(int sestertii) {
+        return fromPacked(packSestertii(sestertii));
+    }
+
+    /**
+     * Library (static) method to make a new Cost of a number of one Good
+     * @param good the Good
+     * @param count the number of the Good
+     * @return the Cost
+     */
+    public static Cost ofGood(Good good, int count) {
+        return fromPacked(packGood(good, count));
+    }
+
+    /**
+     * Library (static) method to make a Cost from its packed form
+     * @param packed the packed sestertii and Goods, as returned by {@link #pack()}
+     * @return the Cost
+     */
+    public static Cost fromPacked(long packed) {
+        return packed == 0L ? FREE : new Cost(packed);
+    }
+
+    /**
+     * Library (static) method to pack a number of sestertii
+     * @param sestertii the number of sestertii
+     * @return the sestertii in packed form
+     */
+    private static long packSestertii(int sestertii) {
+        if (sestertii < 0 || sestertii > MAX_SESTERTII) {
+            throw new IllegalArgumentException("Sestertii must be between 0 and " + MAX_SESTERTII);
+        }
+        return sestertii;
+    }
+
+    /**
+     * Library (static) method to pack a number of one Good
+     * @param good the Good
+     * @param count the number of the Good
+     * @return the Good in packed form
+     */
+    private static long packGood(Good good, int count) {
+        if (count < 0 || count > MAX_GOODS) {
+            throw new IllegalArgumentException("Number of " + good + " must be between 0 and " + MAX_GOODS);
+        }
+        return (long) count << shift(good);
+    }
+
+    /**
+     * Library (static) method to find the first bit of a Good in the packed form
+     * @param good the Good
+     * @return the index of the lowest bit of the Good
+     */
+    private static int shift(Good good) {
+        return SESTERTII_BITS + GOOD_BITS * good.ordinal();
+    }
+
+    /**
+     * Library (static) method to read the sestertii of a packed Cost
+     * @param packed the packed Cost
+     * @return the number of sestertii
+     */
+    public static int sestertii(long packed) {
+        return (int) (packed & MAX_SESTERTII);
+    }
+
+    /**
+     * Library (static) method to read the number of one Good of a packed Cost
+     * @param packed the packed Cost
+     * @param good the Good
+     * @return the number of the Good
+     */
+    public static int count(long packed, Good good) {
+        return (int) (packed >>> shift(good)) & MAX_GOODS;
+    }
+
+    /**
+     * Library (static) method to find which Goods a packed Cost has any of
+     * @param packed the packed Cost
+     * @return the Goods as a bitmask, bit i is set if the Cost has any of the Good with ordinal i
+     */
+    public static int goods(long packed) {
+        int goods = 0;
+        for (int i = 0; i < GOODS.length; i++) {
+            if ((packed >>> (SESTERTII_BITS + GOOD_BITS * i) & MAX_GOODS) != 0) {
+                goods |= 1 << i;
+            }
+        }
+        return goods;
+    }
+
+    /**
+     * Getter to return the number of sestertii of this Cost
+     * @return the number of sestertii
+     */
+    public int sestertii() {
+        return sestertii(this.packed);
+    }
+
+    /**
+     * Getter to return the number of one Good of this Cost
+     * @param good the Good
+     * @return the number of the Good
+     */
+    public int count(Good good) {
+        return count(this.packed, good);
+    }
+
+    /**
+     * Getter to return the total number of Goods of this Cost
+     * @return the number of Goods of every kind added together
+     */
+    public int numGoods() {
+        int total = 0;
+        for (Good good : GOODS) {
+            total += count(good);
+        }
+        return total;
+    }
+
+    /**
+     * Getter to return this Cost in packed form
+     * @return the packed sestertii and Goods
+     */
+    public long pack() {
+        return this.packed;
+    }
+
+    /**
+     * Getter to return whether this Cost is nothing
+     * @return whether this Cost has no sestertii and no Goods
+     */
+    public boolean isFree() {
+        return this.packed == 0L;
+    }
+
+    /**
+     * Method to add another Cost to this Cost
+     * @param other the Cost to add
+     * @return a new Cost holding both Costs
+     */
+    public Cost plus(Cost other) {
+        int sestertii = sestertii() + other.sestertii();
+        long packed = packSestertii(sestertii);
+        for (Good good : GOODS) {
+            packed |= packGood(good, count(good) + other.count(good));
+        }
+        return fromPacked(packed);
+    }
+
+    /**
+     * Method to add sestertii to this Cost
+     * @param sestertii the number of sestertii to add
+     * @return a new Cost with the extra sestertii
+     */
+    public Cost plusSestertii(int sestertii) {
+        return fromPacked((this.packed & ~(long) MAX_SESTERTII) | packSestertii(sestertii() + sestertii));
+    }
+
+    /**
+     * equals method to check whether this Cost is the same as another object
+     * @param obj the object to compare to
+     * @return whether the object is a Cost with the same sestertii and Goods
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Cost cost && cost.packed == this.packed;
+    }
+
+    /**
+     * hashCode method to return a hash code of this Cost
+     * @return the hash code of this Cost
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.packed);
+    }
+
+    /**
+     * toString method to return a String representation of a Cost
+     * @return a String representation of this Cost
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(sestertii()).append(" sestertii");
+        for (Good good : GOODS) {
+            if (count(good) > 0) {
+                builder.append(", ").append(count(good)).append(' ').append(good.name().toLowerCase());
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -4,6 +4,8 @@ package src.game;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 import resources.default_data.SaveLoader;
@@ -14,8 +16,21 @@ import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
 
+import src.game.map.CityNode;
 import src.game.map.Map;
+import src.game.cards.Architect;
+import src.game.cards.CardStack;
+import src.game.cards.Colonist;
+import src.game.cards.Consul;
+import src.game.cards.Diplomat;
+import src.game.cards.Farmer;
+import src.game.cards.Mason;
+import src.game.cards.Mercator;
 import src.game.cards.PersonalityCard;
+import src.game.cards.Prefect;
+import src.game.cards.Smith;
+import src.game.cards.Vintner;
+import src.game.cards.Weaver;
 import src.game.player.Player;
 
 /**
@@ -37,15 +52,65 @@ public class Game {
     private boolean lastTurn;
     private int totalTurnsPlayed;
     private String path;
+    private final long seed;
+    private final SplittableRandom random;
+    private List<PersonalityCard> display;
+    private ProvinceChart provinceChart;
+
+    /**
+     * The Zobrist hash of the whole state of this Game, kept up to date by every part of the state as it changes
+     */
+    private final Zobrist zobrist;
+
+    /**
+     * The id after the last card of each era, the cards are numbered from the top of the draw pile and
+     * era I is on top
+     */
+    private int[] eraEnds;
+
+    /**
+     * The number of cards shown in the display that can be bought
+     */
+    public static final int DISPLAY_SIZE = 7;
+
+    /**
+     * The sestertii added to the price of the card in each slot of the display, the cards that have
+     * been in the display the longest are the cheapest
+     */
+    private static final int[] DISPLAY_SURCHARGE = {0, 1, 1, 2, 2, 3, 3};
 
     public static Game initGame(String name, Map map, List<Player> players, List<Color> colors, Player firstPlayer) {
+        return initGame(name, map, players, colors, firstPlayer, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Library (static) method to make a new Game that can be replayed exactly from its seed
+     * @param name the name of the Game
+     * @param map the map that the Game will use, its city tokens are drawn again from the seed
+     * @param players the players who will be playing the game
+     * @param colors the colors of the players who will be playing the Game
+     * @param firstPlayer the Player who will play first
+     * @param seed the seed every random decision of the Game is derived from
+     * @return the new Game, or null if the name is not one of the existing save names
+     */
+    public static Game initGame(String name, Map map, List<Player> players, List<Color> colors, Player firstPlayer, long seed) {
         if (SaveLoader.existingNames().contains(name))
-            return new Game(name, map, players, colors, firstPlayer);
+            return new Game(name, map, players, colors, firstPlayer, seed);
         return null;
     }
 
     public static Game DO_NOT_USE___SAVE_LOADER_GAME_INITIALIZER(String name, Map map, List<Player> players, List<Color> colors, Player firstPlayer) {
-        return new Game(name, map, players, colors, firstPlayer);
+        return new Game(name, map, players, colors, firstPlayer, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Constructor to make a new Game without a save name or colors, for games that are played headless
+     * @param map the map that this Game will use, its city tokens are drawn again from the seed
+     * @param players the players in the order they play, the first one plays first
+     * @param seed the seed every random decision of this Game is derived from
+     */
+    public Game(Map map, List<Player> players, long seed) {
+        this(null, map, players, null, players.get(0), seed);
     }
 
     /**
@@ -55,19 +120,76 @@ public class Game {
      * @param players the players who will be playing the game
      * @param colors the colors of the players who will be playing this Game
      * @param firstPlayer the Player who will play first
+     * @param seed the seed every random decision of this Game is derived from
      */
-    private Game(String name, Map map, List<Player> players, List<Color> colors, Player firstPlayer) {
+    private Game(String name, Map map, List<Player> players, List<Color> colors, Player firstPlayer, long seed) {
+        this.seed = seed;
+        this.zobrist = new Zobrist();
+        this.random = new SplittableRandom(seed);
         this.name = name;
         this.map = map;
         this.players = players;
         this.colors = colors;
         this.currentPlayer = firstPlayer;
-        this.bonusBox = new BonusBox(12);
+        if (this.map != null) {
+            this.map.dealCityTokens(this.random.split());
+        }
+        this.bonusBox = new BonusBox(12, this.random.split());
         this.lastTurn = false;
         this.drawPile = initDrawPile();
+        numberCards();
+        this.display = new ArrayList<>(DISPLAY_SIZE);
+        refillDisplay();
+        this.provinceChart = this.map != null ? new ProvinceChart(this.map) : null;
         this.topFacingDiscardedCards = new ArrayList<>(players.size());
         this.totalTurnsPlayed = 0;
-        this.path = String.format("resources%ssaves%s%s.gam", SEP, this.name);
+        this.path = this.name != null ? String.format("resources%ssaves%s%s.gam", SEP, SEP, this.name) : null;
+        initHash();
+    }
+
+    /**
+     * Method to give every card of this Game its id, the cards of the draw pile from the top and then the
+     * cards of each Player in the order they play
+     */
+    private void numberCards() {
+        int id = 0;
+        for (PersonalityCard card : this.drawPile) {
+            card.setId(id++);
+        }
+        for (Player player : this.players) {
+            for (PersonalityCard card : player.cards()) {
+                card.setId(id++);
+            }
+        }
+    }
+
+    /**
+     * Method to hash the whole state of this Game and to hand its Zobrist hash to every part of the state,
+     * which toggle their changes into it from then on
+     */
+    private void initHash() {
+        for (int i = 0; i < this.players.size(); i++) {
+            this.players.get(i).joinGame(i, this.zobrist);
+        }
+        if (this.map != null) {
+            for (CityNode city : this.map.cities()) {
+                city.setZobrist(this.zobrist);
+            }
+        }
+        if (this.provinceChart != null) {
+            for (int i = 0; i < this.provinceChart.numProvinces(); i++) {
+                this.provinceChart.getProvince(i).setZobrist(this.zobrist, i);
+            }
+        }
+        this.zobrist.set(Zobrist.compute(this));
+    }
+
+    /**
+     * Method to compute the Zobrist hash of this Game again from its whole state, for code that changes the
+     * state without going through the methods that hash it, such as decoding a saved state into a new Game
+     */
+    public void rehash() {
+        this.zobrist.set(Zobrist.compute(this));
     }
 
     /**
@@ -75,7 +197,145 @@ public class Game {
      * @return the draw pile that will be used for this Game
      */
     private List<PersonalityCard> initDrawPile() {
-        return null;  //  TODO: information on number and types of cards
+        List<PersonalityCard> drawPile = new ArrayList<>(30);
+        PersonalityCard[][] eras = eras();
+        this.eraEnds = new int[eras.length];
+        for (int i = 0; i < eras.length; i++) {
+            CardStack stack = new CardStack(this.random);
+            stack.addToTop(eras[i]);
+            stack.shuffle();
+            drawPile.addAll(stack.getCards());
+            this.eraEnds[i] = drawPile.size();
+        }
+        return drawPile;
+    }
+
+    /**
+     * Method to shuffle every card left in the draw pile among the cards of its own era, which gives a draw
+     * pile that a Player who cannot see it cannot tell apart from the real one
+     * The draw pile is not part of the Zobrist hash, so the hash does not change
+     * @param random the random number generator to shuffle with
+     */
+    public void shuffleDrawPile(SplittableRandom random) {
+        int size = this.drawPile.size();
+        int start = 0;
+        while (start < size) {
+            int era = era(this.drawPile.get(start));
+            int end = start + 1;
+            while (end < size && era(this.drawPile.get(end)) == era) {
+                end++;
+            }
+            for (int i = end - 1; i > start; i--) {
+                int j = start + random.nextInt(i - start + 1);
+                this.drawPile.set(j, this.drawPile.set(i, this.drawPile.get(j)));
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Method to find the era of a card of the draw pile from its id
+     * @param card the card
+     * @return the index of the era, 0 for era I
+     */
+    private int era(PersonalityCard card) {
+        int era = 0;
+        while (era < this.eraEnds.length - 1 && card.getId() >= this.eraEnds[era]) {
+            era++;
+        }
+        return era;
+    }
+
+    /**
+     * Library (static) method to make the cards that can be bought, grouped by era
+     * The cards of each era are shuffled on their own and era I is on top of the draw pile
+     * @return the cards of eras I to V, they have no Player until they are bought
+     */
+    private static PersonalityCard[][] eras() {
+        return new PersonalityCard[][] {
+                {
+                    new Mason(null), new Smith(null), new Mercator(null, false), new Colonist(null),
+                    new Diplomat(null, 0, 0, 1, 0, 0, "Satvrnvs"), new Farmer(null),
+                    new Architect(null, false), new Prefect(null, false)
+                },
+                {
+                    new Mercator(null, false), new Prefect(null, false), new Colonist(null), new Weaver(null),
+                    new Architect(null, false), new Consul(null, false), new Vintner(null)
+                },
+                {
+                    new Consul(null, false), new Architect(null, false), new Colonist(null),
+                    new Diplomat(null, 0, 1, 0, 0, 0, "Satvrnvs"), new Mercator(null, false), new Prefect(null, false)
+                },
+                {
+                    new Consul(null, false), new Prefect(null, false), new Colonist(null),
+                    new Diplomat(null, 0, 0, 0, 0, 1, "Mercvrivs"), new Architect(null, false)
+                },
+                {
+                    new Consul(null, false), new Mercator(null, false), new Prefect(null, false),
+                    new Diplomat(null, 0, 0, 0, 1, 0, "Mars")
+                }
+        };
+    }
+
+    /**
+     * Method to fill the empty slots at the end of the display from the top of the draw pile
+     */
+    private void refillDisplay() {
+        while (this.display.size() < DISPLAY_SIZE && !this.drawPile.isEmpty()) {
+            PersonalityCard card = this.drawPile.remove(0);
+            this.zobrist.toggle(Zobrist.display(this.display.size(), card.getId()));
+            this.display.add(card);
+        }
+    }
+
+    /**
+     * Method to toggle the keys of the cards in the display from a slot to the end
+     * @param from the first slot to toggle
+     */
+    private void hashDisplay(int from) {
+        for (int slot = from; slot < this.display.size(); slot++) {
+            this.zobrist.toggle(Zobrist.display(slot, this.display.get(slot).getId()));
+        }
+    }
+
+    /**
+     * Method to take a card out of the display, the cards after it slide down and the display is refilled
+     * @param slot the slot of the display the card is in
+     * @return the card that was taken
+     */
+    public PersonalityCard takeFromDisplay(int slot) {
+        hashDisplay(slot);
+        PersonalityCard card = this.display.remove(slot);
+        hashDisplay(slot);
+        refillDisplay();
+        return card;
+    }
+
+    /**
+     * Method to put a card taken out of the display back in its slot, undoing {@link #takeFromDisplay(int)}
+     * The cards the display was refilled with go back on top of the draw pile
+     * @param slot the slot of the display the card was in
+     * @param card the card that was taken
+     * @param drawPileSize the number of cards of the draw pile before the card was taken
+     */
+    public void returnToDisplay(int slot, PersonalityCard card, int drawPileSize) {
+        while (this.drawPile.size() < drawPileSize) {
+            int last = this.display.size() - 1;
+            this.zobrist.toggle(Zobrist.display(last, this.display.get(last).getId()));
+            this.drawPile.add(0, this.display.remove(last));
+        }
+        hashDisplay(slot);
+        this.display.add(slot, card);
+        hashDisplay(slot);
+    }
+
+    /**
+     * Method to return the price of the card in a slot of the display, including the surcharge of the slot
+     * @param slot the slot of the display the card is in
+     * @return the price in the packed form of {@link Cost#pack()}
+     */
+    public long displayPrice(int slot) {
+        return this.display.get(slot).getPrice().pack() + DISPLAY_SURCHARGE[slot];
     }
 
     /**
@@ -93,9 +353,16 @@ public class Game {
      * Method to check if a Player has ended the game, thus making it the last turn of this Game
      * @return whether a Player has ended this Game
      */
-    private boolean endedGame() {
-        return this.drawPile.isEmpty()
-                || players.stream().anyMatch(player -> player.numHouses() == 0);
+    public boolean endedGame() {
+        if (this.drawPile.isEmpty()) {
+            return true;
+        }
+        for (int i = 0; i < this.players.size(); i++) {
+            if (this.players.get(i).numHouses() == 0) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -103,7 +370,7 @@ public class Game {
      */
     public void play() {
         while (!lastTurn) {
-            this.currentPlayer = this.players.get(totalTurnsPlayed % players.size());
+            setCurrentPlayer(this.players.get(totalTurnsPlayed % players.size()));
             /* TODO: Graphics interoperability */
             updateTopFacingDiscardedCards();
             this.lastTurn = endedGame();
@@ -112,7 +379,7 @@ public class Game {
         this.currentPlayer.addVictoryPoints(7);
         this.endingPlayer = this.currentPlayer;
         do {
-            currentPlayer = this.players.get(totalTurnsPlayed % players.size());
+            setCurrentPlayer(this.players.get(totalTurnsPlayed % players.size()));
             /* TODO: Graphics interoperability */
             updateTopFacingDiscardedCards();
         } while (this.currentPlayer != this.endingPlayer);
@@ -138,6 +405,30 @@ public class Game {
         this.path = path;
     }
 
+    /**
+     * Setter to set the Player whose turn it is
+     * @param player the current Player, one of the Players of this Game
+     */
+    public void setCurrentPlayer(Player player) {
+        if (player == this.currentPlayer) {
+            return;
+        }
+        if (this.currentPlayer != null) {
+            this.zobrist.toggle(Zobrist.currentSeat(this.currentPlayer.seat()));
+        }
+        this.zobrist.toggle(Zobrist.currentSeat(player.seat()));
+        this.currentPlayer = player;
+    }
+
+    /**
+     * Getter to get the Zobrist hash of the whole state of this Game, it is kept up to date as the state
+     * changes through the methods of the Players, StoreHouses, CityNodes, Colonists and Provinces of this Game
+     * @return the 64 bit hash of the state of this Game
+     */
+    public long hash() {
+        return this.zobrist.hash();
+    }
+
     /**
      * Getter to get the current Player
      * @return the current Player
@@ -146,6 +437,63 @@ public class Game {
         return this.currentPlayer;
     }
 
+    /**
+     * Getter to get the seed every random decision of this Game is derived from
+     * @return the seed of this Game
+     */
+    public long seed() {
+        return this.seed;
+    }
+
+    /**
+     * Getter to get the random number generator of this Game, every random decision of this Game
+     * must be made with it (or a generator split from it) so that the Game can be replayed from its seed
+     * @return the random number generator of this Game
+     */
+    public SplittableRandom random() {
+        return this.random;
+    }
+
+    /**
+     * Getter to get the map of this Game
+     * @return the map of this Game
+     */
+    public Map map() {
+        return this.map;
+    }
+
+    /**
+     * Getter to get the players of this Game in the order they play
+     * @return the players of this Game
+     */
+    public List<Player> players() {
+        return this.players;
+    }
+
+    /**
+     * Getter to get the cards that have not been drawn into the display yet, the top card is first
+     * @return the draw pile of this Game
+     */
+    public List<PersonalityCard> drawPile() {
+        return this.drawPile;
+    }
+
+    /**
+     * Getter to get the cards that can be bought, the card that has been shown the longest is first
+     * @return the display of this Game
+     */
+    public List<PersonalityCard> display() {
+        return this.display;
+    }
+
+    /**
+     * Getter to get the province chart of this Game
+     * @return the province chart of this Game
+     */
+    public ProvinceChart provinceChart() {
+        return this.provinceChart;
+    }
+
     public List<PersonalityCard> getTopFacingDiscardedCards() {
         return topFacingDiscardedCards;
     }
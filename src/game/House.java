@@ -25,6 +25,36 @@ public class House {
      */
     private Good good;
 
+    /**
+     * The number of sestertii building a House costs in a city of each Good before it is multiplied,
+     * indexed by {@code Good.ordinal()}
+     */
+    private static final int[] BASE_SESTERTII = new int[Good.values().length];
+
+    /**
+     * The most Houses a city can have before another one is built, one per Player in a five Player game
+     */
+    private static final int MAX_HOUSES_IN_CITY = 4;
+
+    /**
+     * The cost of building a House indexed by {@code Good.ordinal()} and then by the number of Houses
+     * already in the city, precomputed so that looking one up never allocates
+     */
+    private static final Cost[][] BUILD_COSTS = new Cost[Good.values().length][MAX_HOUSES_IN_CITY + 1];
+
+    static {
+        BASE_SESTERTII[Good.BRICK.ordinal()] = 1;
+        BASE_SESTERTII[Good.FOOD.ordinal()] = 2;
+        BASE_SESTERTII[Good.TOOL.ordinal()] = 3;
+        BASE_SESTERTII[Good.WINE.ordinal()] = 4;
+        BASE_SESTERTII[Good.CLOTH.ordinal()] = 5;
+        for (Good good : Good.values()) {
+            for (int houses = 0; houses <= MAX_HOUSES_IN_CITY; houses++) {
+                BUILD_COSTS[good.ordinal()][houses] = computeBuildCost(good, houses);
+            }
+        }
+    }
+
     /**
      * Constructor to make a new House
      * @param PLAYER the Player associated with this House
@@ -43,6 +73,44 @@ public class House {
         this.good = city.good();
     }
 
+    /**
+     * Library (static) method to return the cost of building a House in a city
+     * A brick city costs a food, any other city costs a brick and the Good of the city, and the
+     * sestertii grow with the number of Houses already in the city
+     * @param good the Good that the city produces
+     * @param housesInCity the number of Houses already in the city
+     * @return the cost of building the House
+     */
+    public static Cost buildCost(Good good, int housesInCity) {
+        if (housesInCity <= MAX_HOUSES_IN_CITY) {
+            return BUILD_COSTS[good.ordinal()][housesInCity];
+        }
+        return computeBuildCost(good, housesInCity);
+    }
+
+    /**
+     * Library (static) method to return the cost of building a House in a CityNode (city)
+     * @param city the CityNode (city) to build in
+     * @return the cost of building the House
+     */
+    public static Cost buildCost(CityNode city) {
+        return buildCost(city.good(), city.houses().size());
+    }
+
+    /**
+     * Library (static) method to compute the cost of building a House in a city
+     * @param good the Good that the city produces
+     * @param housesInCity the number of Houses already in the city
+     * @return the cost of building the House
+     */
+    private static Cost computeBuildCost(Good good, int housesInCity) {
+        int sestertii = BASE_SESTERTII[good.ordinal()] * (housesInCity + 1);
+        if (good == Good.BRICK) {
+            return Cost.of(sestertii, 0, 1, 0, 0, 0);
+        }
+        return Cost.ofSestertii(sestertii).plus(Cost.ofGood(Good.BRICK, 1)).plus(Cost.ofGood(good, 1));
+    }
+
     /**
      * Getter to return the Player associated with this House
      * @return the Player associated with this House
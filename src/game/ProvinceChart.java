@@ -8,24 +8,26 @@ package src.game;
 
 import java.util.ArrayList;
 import src.game.map.CityNode;
+import src.game.map.Map;
+import src.game.map.MapTopology;
 import src.game.map.Province;
 import src.game.player.Player;
 
 public class ProvinceChart {
-   private static ProvinceChart provinceChartInstance = null;
-   private ArrayList<Province> provinceList = new ArrayList<Province>();
+   private final ArrayList<Province> provinceList = new ArrayList<Province>(); //owned by one game, never shared
    
-   private ProvinceChart() {
-      addProvinces();
-   }
-   
-   //method ensures only one instance of ProvinceChart can be created
-   public static ProvinceChart getInstance() {
-      if(provinceChartInstance == null) {
-         provinceChartInstance = new ProvinceChart();
+   //makes the chart for one game, filling each province with the cities of the map so that
+   //every game has its own province tokens
+   public ProvinceChart(Map map) {
+      MapTopology topology = map.topology();
+      for(int i = 0; i < topology.numProvinces(); i ++) {
+         int mask = topology.provinceMask(i);
+         ArrayList<CityNode> cities = new ArrayList<CityNode>(Integer.bitCount(mask));
+         for(; mask != 0; mask &= mask - 1) {
+            cities.add(map.city(Integer.numberOfTrailingZeros(mask)));
+         }
+         provinceList.add(new Province(topology.provinceName(i), cities));
       }
-      
-      return provinceChartInstance;
    }
    
                                              //METHODS
@@ -37,30 +39,72 @@ public class ProvinceChart {
     * @param: boolean - false if the card played is Prefect, true if Praefectus Magnus
     */
    public void collect(String provinceName, Player player, boolean isMagnus) {
-      Province province = findProvince(provinceName);
+      collect(provinceList.indexOf(findProvince(provinceName)), player, isMagnus);
+   }
+   
+   /**
+    * Collect goods or sestertii when Prefect or Praefectus Magnus are used
+    * On the goods side the player takes the province good (twice with Praefectus Magnus) and every
+    * house in the province produces for its owner, otherwise the player takes the sestertii of every
+    * province that has already produced
+    * @param: int - the index of the province
+    * @param: Player - the player who played the card
+    * @param: boolean - false if the card played is Prefect, true if Praefectus Magnus
+    */
+   public void collect(int provinceIndex, Player player, boolean isMagnus) {
+      Province province = provinceList.get(provinceIndex);
       
       if(province.getStatus() == Province.ResourceStatus.GOODS) {
-         ArrayList<Good> goods = province.collectGoods(player);
-         
-         for(Good good : goods) {
-            player.storeHouse().add(good);
-         }
-
-         if(isMagnus) {
-            player.storeHouse().add(goods.get(0));
+         int bonus = isMagnus ? 2 : 1;
+         for(int i = 0; i < bonus && player.storeHouse().hasRoom(1); i ++) {
+            player.storeHouse().addGood(province.getGood());
          }
+         province.produce();
       }
       else {
-         int sestertii = 0;
-         
-         for(Province currentProvince : provinceList) {
-            if(currentProvince.getStatus() == Province.ResourceStatus.SESTERCII) {
-               sestertii += currentProvince.collectSestercii();
-            }
+         player.addSestertii(collectSestertii());
+      }
+   }
+   
+   //takes the sestertii of every province that has already produced, turning them back to goods
+   public int collectSestertii() {
+      int sestertii = 0;
+      
+      for(Province currentProvince : provinceList) {
+         if(currentProvince.getStatus() == Province.ResourceStatus.SESTERCII) {
+            sestertii += currentProvince.collectSestercii();
          }
-
-         player.addSestertii(sestertii);
       }
+      
+      return sestertii;
+   }
+   
+   //the provinces whose token is on its sestertii side as a bitmask, bit i is set for province i
+   public int sestertiiMask() {
+      int mask = 0;
+      
+      for(int i = 0; i < provinceList.size(); i ++) {
+         if(provinceList.get(i).getStatus() == Province.ResourceStatus.SESTERCII) {
+            mask |= 1 << i;
+         }
+      }
+      
+      return mask;
+   }
+   
+   //turns every province token to the side given by a mask from sestertiiMask, to undo a prefect
+   public void restoreSestertiiMask(int mask) {
+      for(int i = 0; i < provinceList.size(); i ++) {
+         provinceList.get(i).setStatus((mask & (1 << i)) != 0 ? Province.ResourceStatus.SESTERCII : Province.ResourceStatus.GOODS);
+      }
+   }
+   
+   public Province getProvince(int provinceIndex) {
+      return provinceList.get(provinceIndex);
+   }
+   
+   public int numProvinces() {
+      return provinceList.size();
    }
    
    //takes the province name and finds the corresponding Province object
@@ -73,20 +117,4 @@ public class ProvinceChart {
       
       return null;
    }
-   
-   //TODO: add cities, either in this class or passed from another
-   private void addProvinces() {
-      provinceList.add(new Province("Britania", new ArrayList<CityNode>(2)));
-      provinceList.add(new Province("Gallia", new ArrayList<CityNode>(3)));
-      provinceList.add(new Province("Hispania", new ArrayList<CityNode>(3)));
-      provinceList.add(new Province("Germania", new ArrayList<CityNode>(2)));
-      provinceList.add(new Province("Dacia", new ArrayList<CityNode>(3)));
-      provinceList.add(new Province("Italia", new ArrayList<CityNode>(3)));
-      provinceList.add(new Province("Hellas", new ArrayList<CityNode>(2)));
-      provinceList.add(new Province("Asia", new ArrayList<CityNode>(3)));
-      provinceList.add(new Province("Syria", new ArrayList<CityNode>(2)));
-      provinceList.add(new Province("Aegyptus", new ArrayList<CityNode>(3)));
-      provinceList.add(new Province("Lybia", new ArrayList<CityNode>(2)));
-      provinceList.add(new Province("Mauretania", new ArrayList<CityNode>(2)));
-   }
 }
\ No newline at end of file
@@ -0,0 +1,502 @@
+package src.game;
+
+//  imports
+import java.util.List;
+
+import src.game.cards.PersonalityCard;
+import src.game.map.CityNode;
+import src.game.map.Province;
+import src.game.player.Player;
+import src.game.player.StoreHouse;
+
+import static src.game.Colonist.ColonistType;
+
+/**
+ * A class to keep the 64 bit Zobrist hash of the whole state of one Game
+ * Every part of the state (a city token, a House, a Colonist on a path or in a city, the Goods and Colonists
+ * of a StoreHouse, sestertii, victory points, the cards in a hand, a discard pile and the display, the
+ * Praefectus Magnus, the side of each province token and the current Player) has its own random key and
+ * the hash is the XOR of the keys of the state, so every change of the state is hashed in O(1) by toggling
+ * the key of what it was and the key of what it becomes
+ * The keys are made by mixing the feature with its arguments, so there is no limit to the ids, seats or amounts
+ * that can be hashed, and every key is the same in every Game. The keys of the arguments a Game has are
+ * mixed once into tables, as they are toggled for almost every action
+ * Counts always have the key 0 when they are 0, so absent things never have to be hashed
+ * The Players, StoreHouses, CityNodes, Colonists and Provinces of a Game toggle their keys into the Zobrist
+ * of their Game as they change, {@link #compute(Game)} hashes the whole state again from scratch to check them
+ * @author devinlinux
+ */
+public final class Zobrist {
+
+    /**
+     * The feature of the Good of a city token, by city id and Good
+     */
+    private static final int CITY_GOOD = 1;
+
+    /**
+     * The feature of a House in a city, by seat and city id
+     */
+    private static final int HOUSE = 2;
+
+    /**
+     * The feature of a Colonist on a path, by seat and path id
+     */
+    private static final int PATH_COLONIST = 3;
+
+    /**
+     * The feature of the number of Colonists of a type in a city, by seat, city id, type and count
+     */
+    private static final int CITY_COLONISTS = 4;
+
+    /**
+     * The feature of the number of a Good in a StoreHouse, by seat, Good and count
+     */
+    private static final int STORED_GOODS = 5;
+
+    /**
+     * The feature of the number of Colonists of a type in a StoreHouse, by seat, type and count
+     */
+    private static final int STORED_COLONISTS = 6;
+
+    /**
+     * The feature of the sestertii of a Player, by seat and amount
+     */
+    private static final int SESTERTII = 7;
+
+    /**
+     * The feature of the victory points of a Player, by seat and amount
+     */
+    private static final int VICTORY_POINTS = 8;
+
+    /**
+     * The feature of a card in the hand of a Player, by seat and card id
+     */
+    private static final int HAND = 9;
+
+    /**
+     * The feature of a card in the discard pile of a Player, by seat and card id
+     */
+    private static final int DISCARD = 10;
+
+    /**
+     * The feature of the top card of the discard pile of a Player, by seat and card id
+     */
+    private static final int TOP_DISCARD = 11;
+
+    /**
+     * The feature of a card in a slot of the display, by slot and card id
+     */
+    private static final int DISPLAY = 12;
+
+    /**
+     * The feature of the Praefectus Magnus, by seat
+     */
+    private static final int MAGNUS = 13;
+
+    /**
+     * The feature of a province token on its sestertii side, by province index
+     */
+    private static final int PROVINCE_SESTERTII = 14;
+
+    /**
+     * The feature of the current Player, by seat
+     */
+    private static final int CURRENT_SEAT = 15;
+
+    /**
+     * The feature of the state of the turn being played, by phase and the details of the phase
+     */
+    private static final int TURN = 16;
+
+    /**
+     * The seed every key is mixed with
+     */
+    private static final long SEED = 0x5DEECE66DL;
+
+    /**
+     * The number of values of each argument of each feature whose keys are kept in {@link #KEYS}, indexed by
+     * feature and then argument, features without a table have no values
+     */
+    private static final int[][] CACHED = {
+            {0, 0, 0},
+            {32, 8, 1},     //  CITY_GOOD
+            {8, 32, 1},     //  HOUSE
+            {8, 128, 1},    //  PATH_COLONIST
+            {8, 64, 8},     //  CITY_COLONISTS
+            {8, 8, 16},     //  STORED_GOODS
+            {8, 2, 16},     //  STORED_COLONISTS
+            {8, 1, 128},    //  SESTERTII
+            {8, 1, 128},    //  VICTORY_POINTS
+            {8, 128, 1},    //  HAND
+            {8, 128, 1},    //  DISCARD
+            {8, 128, 1},    //  TOP_DISCARD
+            {8, 128, 1},    //  DISPLAY
+            {8, 1, 1},      //  MAGNUS
+            {16, 1, 1},     //  PROVINCE_SESTERTII
+            {8, 1, 1},      //  CURRENT_SEAT
+            {0, 0, 0}       //  TURN
+    };
+
+    /**
+     * The keys of the small arguments of each feature, indexed by feature and then by
+     * {@code (a * CACHED[feature][1] + b) * CACHED[feature][2] + c}
+     */
+    private static final long[][] KEYS = new long[CACHED.length][];
+
+    static {
+        for (int feature = 0; feature < CACHED.length; feature++) {
+            int[] sizes = CACHED[feature];
+            KEYS[feature] = new long[sizes[0] * sizes[1] * sizes[2]];
+            for (int a = 0; a < sizes[0]; a++) {
+                for (int b = 0; b < sizes[1]; b++) {
+                    for (int c = 0; c < sizes[2]; c++) {
+                        KEYS[feature][(a * sizes[1] + b) * sizes[2] + c] = mix(feature, a, b, c);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The hash of the state as it is now
+     */
+    private long hash;
+
+    /**
+     * Constructor to make a new Zobrist with the hash of an empty state
+     */
+    public Zobrist() {
+        this.hash = 0L;
+    }
+
+    /**
+     * Method to add a key to the hash if it is not in it, or to take it out if it is
+     * @param key the key to toggle
+     */
+    public void toggle(long key) {
+        this.hash ^= key;
+    }
+
+    /**
+     * Setter to set the hash, for when the whole state has been hashed again or is restored
+     * @param hash the hash of the state
+     */
+    public void set(long hash) {
+        this.hash = hash;
+    }
+
+    /**
+     * Getter to return the hash of the state as it is now
+     * @return the 64 bit hash
+     */
+    public long hash() {
+        return this.hash;
+    }
+
+    /**
+     * Library (static) method to return the key of the Good of a city token
+     * @param city the id of the CityNode
+     * @param good the Good of its token, or null if it has none
+     * @return the key, 0 if the city has no Good
+     */
+    public static long cityGood(int city, Good good) {
+        return good == null ? 0L : key(CITY_GOOD, city, good.ordinal(), 0);
+    }
+
+    /**
+     * Library (static) method to return the key of a House in a city
+     * @param seat the seat of the Player who owns the House
+     * @param city the id of the CityNode
+     * @return the key
+     */
+    public static long house(int seat, int city) {
+        return key(HOUSE, seat, city, 0);
+    }
+
+    /**
+     * Library (static) method to return the key of a Colonist on a path, at most one Colonist ends on a path
+     * @param seat the seat of the Player who owns the Colonist
+     * @param path the id of the PathNode
+     * @return the key
+     */
+    public static long pathColonist(int seat, int path) {
+        return key(PATH_COLONIST, seat, path, 0);
+    }
+
+    /**
+     * Library (static) method to return the key of the number of Colonists of a type one Player has in a city
+     * @param seat the seat of the Player who owns the Colonists
+     * @param city the id of the CityNode
+     * @param type the type of the Colonists
+     * @param count the number of Colonists
+     * @return the key, 0 if the count is 0
+     */
+    public static long cityColonists(int seat, int city, ColonistType type, int count) {
+        return count == 0 ? 0L : key(CITY_COLONISTS, seat, city << 1 | type.ordinal(), count);
+    }
+
+    /**
+     * Library (static) method to return the key of the number of a Good in a StoreHouse
+     * @param seat the seat of the Player who owns the StoreHouse
+     * @param good the Good
+     * @param count the number of the Good
+     * @return the key, 0 if the count is 0
+     */
+    public static long storedGoods(int seat, Good good, int count) {
+        return count == 0 ? 0L : key(STORED_GOODS, seat, good.ordinal(), count);
+    }
+
+    /**
+     * Library (static) method to return the key of the number of Colonists of a type in a StoreHouse
+     * @param seat the seat of the Player who owns the StoreHouse
+     * @param type the type of the Colonists
+     * @param count the number of Colonists
+     * @return the key, 0 if the count is 0
+     */
+    public static long storedColonists(int seat, ColonistType type, int count) {
+        return count == 0 ? 0L : key(STORED_COLONISTS, seat, type.ordinal(), count);
+    }
+
+    /**
+     * Library (static) method to return the key of the sestertii of a Player
+     * @param seat the seat of the Player
+     * @param sestertii the number of sestertii
+     * @return the key, 0 if the Player has no sestertii
+     */
+    public static long sestertii(int seat, int sestertii) {
+        return sestertii == 0 ? 0L : key(SESTERTII, seat, 0, sestertii);
+    }
+
+    /**
+     * Library (static) method to return the key of the victory points of a Player
+     * @param seat the seat of the Player
+     * @param victoryPoints the number of victory points
+     * @return the key, 0 if the Player has no victory points
+     */
+    public static long victoryPoints(int seat, int victoryPoints) {
+        return victoryPoints == 0 ? 0L : key(VICTORY_POINTS, seat, 0, victoryPoints);
+    }
+
+    /**
+     * Library (static) method to return the key of a card in the hand of a Player
+     * @param seat the seat of the Player
+     * @param card the id of the card
+     * @return the key
+     */
+    public static long hand(int seat, int card) {
+        return key(HAND, seat, card, 0);
+    }
+
+    /**
+     * Library (static) method to return the key of a card in the discard pile of a Player
+     * @param seat the seat of the Player
+     * @param card the id of the card
+     * @return the key
+     */
+    public static long discard(int seat, int card) {
+        return key(DISCARD, seat, card, 0);
+    }
+
+    /**
+     * Library (static) method to return the key of the top card of the discard pile of a Player, which is
+     * the card a Diplomat can copy
+     * @param seat the seat of the Player
+     * @param card the id of the card
+     * @return the key
+     */
+    public static long topDiscard(int seat, int card) {
+        return key(TOP_DISCARD, seat, card, 0);
+    }
+
+    /**
+     * Library (static) method to return the key of a card in a slot of the display
+     * @param slot the slot of the display
+     * @param card the id of the card
+     * @return the key
+     */
+    public static long display(int slot, int card) {
+        return key(DISPLAY, slot, card, 0);
+    }
+
+    /**
+     * Library (static) method to return the key of the Praefectus Magnus
+     * @param seat the seat of the Player who has it
+     * @return the key
+     */
+    public static long magnus(int seat) {
+        return key(MAGNUS, seat, 0, 0);
+    }
+
+    /**
+     * Library (static) method to return the key of a province token on its sestertii side
+     * @param province the index of the province
+     * @return the key
+     */
+    public static long provinceSestertii(int province) {
+        return key(PROVINCE_SESTERTII, province, 0, 0);
+    }
+
+    /**
+     * Library (static) method to return the key of the current Player
+     * @param seat the seat of the current Player
+     * @return the key
+     */
+    public static long currentSeat(int seat) {
+        return key(CURRENT_SEAT, seat, 0, 0);
+    }
+
+    /**
+     * Library (static) method to return the key of the state of the turn being played, for positions in the
+     * middle of the action of a card
+     * @param phase the phase of the turn
+     * @param details what is left of the action in the phase, such as the steps or purchases left, packed
+     *                into an int
+     * @return the key
+     */
+    public static long turn(int phase, int details) {
+        return key(TURN, phase, 0, details);
+    }
+
+    /**
+     * Library (static) method to make the key of a feature with its arguments, from the table of the feature
+     * if it has the arguments
+     * @param feature the feature
+     * @param a the first argument, a seat, slot or id
+     * @param b the second argument, an id, Good or type
+     * @param c the third argument, a count or amount
+     * @return the key
+     */
+    private static long key(int feature, int a, int b, int c) {
+        int[] sizes = CACHED[feature];
+        if (a >= 0 && a < sizes[0] && b >= 0 && b < sizes[1] && c >= 0 && c < sizes[2]) {
+            return KEYS[feature][(a * sizes[1] + b) * sizes[2] + c];
+        }
+        return mix(feature, a, b, c);
+    }
+
+    /**
+     * Library (static) method to mix a feature with its arguments into a key
+     * @param feature the feature
+     * @param a the first argument
+     * @param b the second argument
+     * @param c the third argument
+     * @return the key
+     */
+    private static long mix(int feature, int a, int b, int c) {
+        long z = SEED + ((long) feature << 56 | (long) (a & 0xFF) << 48 | (long) (b & 0xFFFF) << 32 | (c & 0xFFFFFFFFL));
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Library (static) method to hash the whole state of a Game from scratch, without the hashes the parts of
+     * the Game keep as they change, so that the two can be checked against each other
+     * @param game the Game to hash
+     * @return the hash of the state of the Game
+     */
+    public static long compute(Game game) {
+        long hash = 0L;
+        List<Player> players = game.players();
+        for (int seat = 0; seat < players.size(); seat++) {
+            hash ^= hashPlayer(players.get(seat), seat);
+        }
+        if (game.map() != null) {
+            for (CityNode city : game.map().cities()) {
+                hash ^= hashCity(city, players);
+            }
+        }
+        List<PersonalityCard> display = game.display();
+        for (int slot = 0; slot < display.size(); slot++) {
+            hash ^= display(slot, display.get(slot).getId());
+        }
+        if (game.provinceChart() != null) {
+            for (int i = 0; i < game.provinceChart().numProvinces(); i++) {
+                if (game.provinceChart().getProvince(i).getStatus() == Province.ResourceStatus.SESTERCII) {
+                    hash ^= provinceSestertii(i);
+                }
+            }
+        }
+        int current = players.indexOf(game.currentPlayer());
+        if (current >= 0) {
+            hash ^= currentSeat(current);
+        }
+        return hash;
+    }
+
+    /**
+     * Library (static) method to hash everything a Player owns that is not on the map
+     * @param player the Player
+     * @param seat the seat of the Player
+     * @return the hash of the Player
+     */
+    private static long hashPlayer(Player player, int seat) {
+        long hash = sestertii(seat, player.sestertii()) ^ victoryPoints(seat, player.victoryPoints());
+        if (player.hasPraefectusMagnus()) {
+            hash ^= magnus(seat);
+        }
+        StoreHouse storeHouse = player.storeHouse();
+        for (Good good : Good.values()) {
+            hash ^= storedGoods(seat, good, storeHouse.count(good));
+        }
+        for (ColonistType type : ColonistType.values()) {
+            hash ^= storedColonists(seat, type, storeHouse.count(type));
+        }
+        for (PersonalityCard card : player.cards()) {
+            hash ^= hand(seat, card.getId());
+        }
+        for (PersonalityCard card : player.discard()) {
+            hash ^= discard(seat, card.getId());
+        }
+        if (!player.discard().isEmpty()) {
+            hash ^= topDiscard(seat, player.discard().get(0).getId());
+        }
+        for (Colonist colonist : player.boardColonists()) {
+            if (colonist.path() != null) {
+                hash ^= pathColonist(seat, colonist.path().id());
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Library (static) method to hash the token, Houses and Colonists of a city
+     * @param city the CityNode
+     * @param players the Players of the Game in the order of their seats
+     * @return the hash of the city
+     */
+    private static long hashCity(CityNode city, List<Player> players) {
+        long hash = cityGood(city.id(), city.good());
+        for (House house : city.houses()) {
+            hash ^= house(players.indexOf(house.player()), city.id());
+        }
+        for (Colonist colonist : city.colonists()) {
+            if (!firstOfGroup(city, colonist)) {
+                continue;
+            }
+            int count = 0;
+            for (Colonist other : city.colonists()) {
+                if (other.player() == colonist.player() && other.type() == colonist.type()) {
+                    count++;
+                }
+            }
+            hash ^= cityColonists(players.indexOf(colonist.player()), city.id(), colonist.type(), count);
+        }
+        return hash;
+    }
+
+    /**
+     * Library (static) method to check whether a Colonist is the first in a city of its Player and type
+     * @param city the CityNode
+     * @param colonist the Colonist in the city
+     * @return whether no earlier Colonist of the city has the same Player and type
+     */
+    private static boolean firstOfGroup(CityNode city, Colonist colonist) {
+        for (Colonist other : city.colonists()) {
+            if (other.player() == colonist.player() && other.type() == colonist.type()) {
+                return other == colonist;
+            }
+        }
+        return false;
+    }
+}
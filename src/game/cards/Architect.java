@@ -39,6 +39,11 @@ public class Architect extends PersonalityCard implements Jvpiter {
       
    }
 
+   @Override
+   public CardType type() {
+      return CardType.ARCHITECT;
+   }
+   
    @Override
    public Player getPlayer() {
       return super.getMyPlayer();
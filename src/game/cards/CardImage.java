@@ -49,14 +49,23 @@ public enum CardImage {
     BACK_IV("boughtcards" + File.separator + "backIV.png"),
     BACK_V("boughtcards" + File.separator + "backV.png");
 
-    public BufferedImage cardImage;
+    private final String cardImageFileName;
+    private BufferedImage cardImage; //loaded the first time it is drawn so headless games never touch the images
 
     private CardImage(String cardImageFileName) {
-        try {
-            cardImage = ImageIO.read(new File(String.format("resources%simages%s"+cardImageFileName, File.separator, File.separator, File.separator)));
-        }
-        catch(IOException e) {
-            System.out.println("Failed to load image");
+        this.cardImageFileName = cardImageFileName;
+    }
+
+    //returns the image of the card, reading it from disk the first time it is needed
+    public synchronized BufferedImage image() {
+        if(cardImage == null) {
+            try {
+                cardImage = ImageIO.read(new File(String.format("resources%simages%s"+cardImageFileName, File.separator, File.separator, File.separator)));
+            }
+            catch(IOException e) {
+                System.out.println("Failed to load image");
+            }
         }
+        return cardImage;
     }
 }
\ No newline at end of file
@@ -5,13 +5,23 @@ package src.game.cards;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.SplittableRandom;
 
 public class CardStack {
    
    private ArrayList<PersonalityCard> stack;
+
+   // the random number generator of the game this stack belongs to
+   private SplittableRandom random;
    
    public CardStack() {
+      this(new SplittableRandom());
+   }
+
+   // makes a stack whose random decisions all come from the given generator
+   public CardStack(SplittableRandom random) {
       stack = new ArrayList<PersonalityCard>();
+      this.random = random;
    }
    
    // adds cards to the top of the pile in order
@@ -26,7 +36,7 @@ public class CardStack {
    
    // randomly adds cards to the pile
    public void addRandomly(PersonalityCard... o) {
-      for (PersonalityCard obj : o) stack.add((int) (Math.random() * stack.size()), obj);
+      for (PersonalityCard obj : o) stack.add(random.nextInt(stack.size() + 1), obj);
    }
       
    // pass an instance of the card you want to check if the stack contains
@@ -44,9 +54,9 @@ public class CardStack {
       return total;
    }
    
-   // shuffles the card stack
+   // shuffles the card stack (Fisher-Yates so that the same seed gives the same order)
    public void shuffle() {
-      Collections.shuffle(stack);
+      for (int i = stack.size() - 1; i > 0; i--) Collections.swap(stack, i, random.nextInt(i + 1));
    }
    
    // returns the amount of cards in the stack
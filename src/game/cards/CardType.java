@@ -0,0 +1,22 @@
+package src.game.cards;
+
+/*
+ * CardType: enum naming each kind of personality card, so that a card can be
+ * told apart without instanceof checks and used as an index into arrays
+*/
+
+public enum CardType {
+   TRIBUNE,
+   ARCHITECT,
+   PREFECT,
+   MERCATOR,
+   SENATOR,
+   CONSUL,
+   COLONIST,
+   DIPLOMAT,
+   FARMER,
+   MASON,
+   SMITH,
+   VINTNER,
+   WEAVER
+}
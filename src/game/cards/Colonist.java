@@ -37,6 +37,11 @@ public class Colonist extends PersonalityCard implements Mars {
       
    }
    
+   @Override
+   public CardType type() {
+      return CardType.COLONIST;
+   }
+   
    @Override
    public Player getPlayer() {
       return super.getMyPlayer();
@@ -35,6 +35,11 @@ public class Consul extends PersonalityCard implements Jvpiter {
       
    }
    
+   @Override
+   public CardType type() {
+      return CardType.CONSUL;
+   }
+   
    @Override
    public Player getPlayer() {
       return super.getMyPlayer();
@@ -95,6 +95,11 @@ public class Diplomat extends PersonalityCard implements Satvrnvs, Mars, Mercvri
       
    }
    
+   @Override
+   public CardType type() {
+      return CardType.DIPLOMAT;
+   }
+   
    @Override
    public Player getPlayer() {
       return super.getMyPlayer();
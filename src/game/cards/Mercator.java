@@ -40,6 +40,11 @@ public class Mercator extends PersonalityCard implements Mercvrivs {
       
    }
    
+   @Override
+   public CardType type() {
+      return CardType.MERCATOR;
+   }
+   
    @Override
    public Player getPlayer() {
       return super.getMyPlayer();
@@ -1,22 +1,21 @@
 package src.game.cards;
 
 import java.awt.Graphics;
+import src.game.Cost;
+import src.game.Good;
 import src.game.player.Player;
 
 public abstract class PersonalityCard {
-   private int winePrice, toolPrice, foodPrice, brickPrice, clothPrice; //The amount of each item that this card costs to buy it
+   private final Cost price; //The goods that this card costs to buy it
    private int victoryMultiplier; //The mutiplier for the card's victory points
    private boolean played; //Whether this card has been played already
    private Player myPlayer;
+   private int id = -1; //The index of this card among the cards of its game, used to hash the card
    public final CardImage IMAGE = null;
    
    public PersonalityCard(Player myPlayer, int brickPrice, int foodPrice, int toolPrice, int winePrice, int clothPrice, int victoryMultiplier) {
       this.myPlayer = myPlayer;
-      this.brickPrice = brickPrice;
-      this.foodPrice = foodPrice;
-      this.toolPrice = toolPrice;
-      this.winePrice = winePrice;
-      this.clothPrice = clothPrice;
+      this.price = Cost.of(0, brickPrice, foodPrice, toolPrice, winePrice, clothPrice);
       this.victoryMultiplier = victoryMultiplier;
    }
    
@@ -24,6 +23,7 @@ public abstract class PersonalityCard {
    public abstract int calculatePoints();
    public abstract void update();
    public abstract void draw(Graphics g);
+   public abstract CardType type(); //The kind of card this is
    
    /*
    For use with Tribune ability; returns the card to the player's hand 
@@ -38,14 +38,18 @@ public abstract class PersonalityCard {
    
    /**GETTERS**/
    public Player getMyPlayer() {return this.myPlayer;}
-   public int getWinePrice() {return this.winePrice;}
-   public int getToolPrice() {return this.toolPrice;}
-   public int getFoodPrice() {return this.foodPrice;}
-   public int getBrickPrice() {return this.brickPrice;}
-   public int getClothPrice() {return this.clothPrice;}
+   public Cost getPrice() {return this.price;}
+   public int getWinePrice() {return this.price.count(Good.WINE);}
+   public int getToolPrice() {return this.price.count(Good.TOOL);}
+   public int getFoodPrice() {return this.price.count(Good.FOOD);}
+   public int getBrickPrice() {return this.price.count(Good.BRICK);}
+   public int getClothPrice() {return this.price.count(Good.CLOTH);}
    public int getVictoryMultiplier() {return this.victoryMultiplier;}
    public boolean getPlayed() {return this.played;}
+   public int getId() {return this.id;}
 
    /**SETTERS**/
    public void setPlayed(boolean played) {this.played = played;}
+   public void setMyPlayer(Player myPlayer) {this.myPlayer = myPlayer;} //For cards bought from the display
+   public void setId(int id) {this.id = id;} //Set by the game the card belongs to
 }
\ No newline at end of file
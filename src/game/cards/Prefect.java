@@ -41,6 +41,11 @@ public class Prefect extends PersonalityCard implements Satvrnvs {
       
    }
    
+   @Override
+   public CardType type() {
+      return CardType.PREFECT;
+   }
+   
    @Override
    public Player getPlayer() {
       return super.getMyPlayer();
@@ -35,6 +35,11 @@ public class Senator extends PersonalityCard implements Vesta {
       
    }
    
+   @Override
+   public CardType type() {
+      return CardType.SENATOR;
+   }
+   
    @Override
    public Player getPlayer() {
       return super.getMyPlayer();
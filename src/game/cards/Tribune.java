@@ -43,6 +43,11 @@ public class Tribune extends PersonalityCard implements Mars {
       
    }
    
+   @Override
+   public CardType type() {
+      return CardType.TRIBUNE;
+   }
+   
    @Override
    public Player getPlayer() {
       return super.getMyPlayer();
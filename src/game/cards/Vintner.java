@@ -22,7 +22,7 @@ public class Vintner extends PersonalityCard implements Minerva {
       //All owned cities of specified type produce
       Player p = getMyPlayer();
       for(House h : p.houses()) {
-         if(h.good() == GOOD) {
+         if(h.good() == GOOD && p.storeHouse().hasRoom(1)) {
             p.storeHouse().add(GOOD);
          }
       }
@@ -44,6 +44,11 @@ public class Vintner extends PersonalityCard implements Minerva {
       
    }
    
+   @Override
+   public CardType type() {
+      return CardType.VINTNER;
+   }
+   
    @Override
    public Player getPlayer() {
       return super.getMyPlayer();
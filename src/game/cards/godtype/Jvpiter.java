@@ -2,13 +2,14 @@ package src.game.cards.godtype;
 
 //Imports:
 import src.game.player.Player;
+import src.game.Good;
 
 public interface Jvpiter {
    
    Player getPlayer(); // Method to get the card's player
    default int jvpiterScorePoints() {
-      //Player gets 1 point for each non-brick city
-      //Return points
-      return 0;
+      //Player gets 1 point for each non-brick city (max. 15)
+      Player p = getPlayer();
+      return Math.min(15, p.houses().size() - p.numHousesWith(Good.BRICK));
    }
 }
\ No newline at end of file
@@ -8,7 +8,7 @@ public interface Mars {
    Player getPlayer();
    default int marsScorePoints() {
       //For each owned colonist on the board, the player gets 2 points
-      //Return points
-      return 0;
+      //The multiplier of the card doubles the count
+      return getPlayer().boardColonists().size();
    }
 }
\ No newline at end of file
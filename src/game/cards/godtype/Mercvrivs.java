@@ -8,7 +8,7 @@ public interface Mercvrivs {
    Player getPlayer();
    default int mercvrivsScorePoints() {
       //For each TYPE of good that the player can produce with houses, they get 2 points (max. 10)
-      //Return points
-      return 0;
+      //The multiplier of the card doubles the count
+      return getPlayer().numGoodsProduced();
    }
 }
\ No newline at end of file
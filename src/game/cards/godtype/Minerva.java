@@ -9,9 +9,8 @@ public interface Minerva {
    Player getPlayer();
    Good specialistType();
    default int minervaScorePoints() {
-      //Good good = specialistType();
       //Player gets 1 point for each city of the type of good that they own
-      //Return points
-      return 0;
+      //The multiplier of the card gives the points for each city
+      return getPlayer().numHousesWith(specialistType());
    }
 }
\ No newline at end of file
@@ -8,7 +8,6 @@ public interface Satvrnvs {
    Player getPlayer();
    default int satvrnvsScorePoints() {
       //Player gets one point for each province they have a city in
-      //Return points
-      return 0;
+      return Integer.bitCount(getPlayer().provinceMask());
    }
 }
\ No newline at end of file
@@ -2,16 +2,19 @@ package src.game.cards.godtype;
 
 //Imports:
 import src.game.player.Player;
+import src.game.Good;
 
 public interface Vesta {
    
    Player getPlayer();
    default int vestaScorePoints() {
-      //First, need to add the value of all goods in the storehouse to the sestertii
-      //However, this can only happen once for ALL vesta cards (no continuously adding sestertii)
-      //This might be best included in a universal gameEnd() method somewhere else
-      
-      //Return points
-      return getPlayer().sestertii() / 10;
+      //The value of all goods in the storehouse is added to the sestertii, without selling them
+      //so that every vesta card counts the same total
+      Player p = getPlayer();
+      int total = p.sestertii();
+      for(Good good : Good.values()) {
+         total += p.storeHouse().count(good) * good.price();
+      }
+      return total / 10;
    }
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package src.game.engine;
+
+//  imports
+import src.game.Good;
+
+import static src.game.Colonist.ColonistType;
+
+/**
+ * A class of library (static) methods to encode the actions of a GameEngine as ints, so that the legal
+ * actions of a position can be written into an int array without allocating
+ * The highest 8 bits hold the type of the action, the next 12 bits its first argument and the lowest
+ * 12 bits its second argument
+ * @author devinlinux
+ */
+public final class Action {
+
+    /**
+     * Ends the current card, or the turn when nothing else can be done with it
+     */
+    public static final int END = 0;
+
+    /**
+     * Plays the card at an index of the cards of the current Player
+     */
+    public static final int PLAY_CARD = 1;
+
+    /**
+     * Moves the Colonist at an index of the board colonists of the current Player onto a PathNode (Architect)
+     */
+    public static final int MOVE = 2;
+
+    /**
+     * Builds a House in a CityNode (Architect)
+     */
+    public static final int BUILD = 3;
+
+    /**
+     * Lets a province produce (Prefect)
+     */
+    public static final int PROVINCE = 4;
+
+    /**
+     * Collects the sestertii of every province that has produced (Prefect)
+     */
+    public static final int PREFECT_CASH = 5;
+
+    /**
+     * Buys one of a Good from the market (Mercator)
+     */
+    public static final int BUY_GOOD = 6;
+
+    /**
+     * Sells one of a Good to the market (Mercator)
+     */
+    public static final int SELL_GOOD = 7;
+
+    /**
+     * Buys the card in a slot of the display (Senator and Consul)
+     */
+    public static final int BUY_CARD = 8;
+
+    /**
+     * Copies the top discarded card of another Player (Diplomat)
+     */
+    public static final int COPY = 9;
+
+    /**
+     * Places a Colonist of a type from the StoreHouse in a CityNode (Colonist)
+     */
+    public static final int PLACE_COLONIST = 10;
+
+    /**
+     * Takes 5 sestertii and 1 more for each Colonist on the board instead of placing Colonists (Colonist)
+     */
+    public static final int COLONIST_CASH = 11;
+
+    /**
+     * Buys a new Colonist of a type into the StoreHouse (Tribune)
+     */
+    public static final int NEW_COLONIST = 12;
+
+    /**
+     * The number of types of actions
+     */
+    public static final int NUM_TYPES = 13;
+
+    /**
+     * The number of bits of each argument
+     */
+    private static final int ARG_BITS = 12;
+
+    /**
+     * The mask of the bits of one argument
+     */
+    private static final int ARG_MASK = (1 << ARG_BITS) - 1;
+
+    /**
+     * The names of the types of actions, indexed by type
+     */
+    private static final String[] NAMES = {
+            "END", "PLAY_CARD", "MOVE", "BUILD", "PROVINCE", "PREFECT_CASH", "BUY_GOOD", "SELL_GOOD",
+            "BUY_CARD", "COPY", "PLACE_COLONIST", "COLONIST_CASH", "NEW_COLONIST"
+    };
+
+    /**
+     * Constructor that should never be called, this class only has library (static) methods
+     */
+    private Action() {
+        throw new UnsupportedOperationException("Action cannot be instantiated");
+    }
+
+    /**
+     * Library (static) method to encode an action without arguments
+     * @param type the type of the action
+     * @return the encoded action
+     */
+    public static int of(int type) {
+        return of(type, 0, 0);
+    }
+
+    /**
+     * Library (static) method to encode an action with one argument
+     * @param type the type of the action
+     * @param arg1 the first argument
+     * @return the encoded action
+     */
+    public static int of(int type, int arg1) {
+        return of(type, arg1, 0);
+    }
+
+    /**
+     * Library (static) method to encode an action with two arguments
+     * @param type the type of the action
+     * @param arg1 the first argument
+     * @param arg2 the second argument
+     * @return the encoded action
+     */
+    public static int of(int type, int arg1, int arg2) {
+        return (type << (2 * ARG_BITS)) | ((arg1 & ARG_MASK) << ARG_BITS) | (arg2 & ARG_MASK);
+    }
+
+    /**
+     * Library (static) method to decode the type of an action
+     * @param action the encoded action
+     * @return the type of the action
+     */
+    public static int type(int action) {
+        return action >>> (2 * ARG_BITS);
+    }
+
+    /**
+     * Library (static) method to decode the first argument of an action
+     * @param action the encoded action
+     * @return the first argument
+     */
+    public static int arg1(int action) {
+        return (action >>> ARG_BITS) & ARG_MASK;
+    }
+
+    /**
+     * Library (static) method to decode the second argument of an action
+     * @param action the encoded action
+     * @return the second argument
+     */
+    public static int arg2(int action) {
+        return action & ARG_MASK;
+    }
+
+    /**
+     * Library (static) method to return a String representation of an action
+     * @param action the encoded action
+     * @return a String representation of the action
+     */
+    public static String toString(int action) {
+        int type = type(action);
+        if (type >= NUM_TYPES) {
+            return "UNKNOWN(" + action + ")";
+        }
+        return switch (type) {
+            case END, PREFECT_CASH, COLONIST_CASH -> NAMES[type];
+            case BUY_GOOD, SELL_GOOD -> NAMES[type] + "(" + Good.values()[arg1(action)] + ")";
+            case NEW_COLONIST -> NAMES[type] + "(" + ColonistType.values()[arg1(action)] + ")";
+            case PLACE_COLONIST -> NAMES[type] + "(" + arg1(action) + ", " + ColonistType.values()[arg2(action)] + ")";
+            case MOVE -> NAMES[type] + "(" + arg1(action) + ", " + arg2(action) + ")";
+            default -> NAMES[type] + "(" + arg1(action) + ")";
+        };
+    }
+}
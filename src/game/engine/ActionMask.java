@@ -0,0 +1,232 @@
+package src.game.engine;
+
+//  imports
+import src.game.cards.CardType;
+
+/**
+ * A class of library (static) methods for masks of legal actions, so a model with one output per action
+ * can be told which of its outputs are legal without a list of actions being built
+ * Every action a GameEngine can play has a fixed bit of a bitset of {@link #WORDS} longs: playing a card
+ * has one bit per card type, in the order of the card columns of the dataset so the label of a row is also
+ * the bit of the card it played, and every other type of action has a block of bits indexed by its
+ * arguments. Cards of the same type in a hand share a bit, as playing either of them is the same choice
+ * @author devinlinux
+ */
+public final class ActionMask {
+
+    /**
+     * The most Colonists a Player can have on the board
+     */
+    public static final int MAX_COLONISTS = 6;
+
+    /**
+     * The most PathNodes a map can have
+     */
+    public static final int MAX_PATHS = 128;
+
+    /**
+     * The most CityNodes a map can have, as houses and buildable cities are int bitmasks
+     */
+    public static final int MAX_CITIES = 32;
+
+    /**
+     * The most provinces a map can have
+     */
+    public static final int MAX_PROVINCES = 16;
+
+    /**
+     * The first bit of {@link Action#PLAY_CARD}, one per card type
+     */
+    public static final int CARDS = 0;
+
+    /**
+     * The bit of {@link Action#END}
+     */
+    public static final int END = CARDS + 13;
+
+    /**
+     * The first bit of {@link Action#MOVE}, one per PathNode for each Colonist on the board
+     */
+    public static final int MOVES = END + 1;
+
+    /**
+     * The first bit of {@link Action#BUILD}, one per CityNode
+     */
+    public static final int BUILDS = MOVES + MAX_COLONISTS * MAX_PATHS;
+
+    /**
+     * The first bit of {@link Action#PROVINCE}, one per province
+     */
+    public static final int PROVINCES = BUILDS + MAX_CITIES;
+
+    /**
+     * The bit of {@link Action#PREFECT_CASH}
+     */
+    public static final int PREFECT_CASH = PROVINCES + MAX_PROVINCES;
+
+    /**
+     * The first bit of {@link Action#BUY_GOOD}, one per Good
+     */
+    public static final int BUY_GOODS = PREFECT_CASH + 1;
+
+    /**
+     * The first bit of {@link Action#SELL_GOOD}, one per Good
+     */
+    public static final int SELL_GOODS = BUY_GOODS + 5;
+
+    /**
+     * The first bit of {@link Action#BUY_CARD}, one per slot of the display
+     */
+    public static final int BUY_CARDS = SELL_GOODS + 5;
+
+    /**
+     * The first bit of {@link Action#COPY}, one per seat
+     */
+    public static final int COPIES = BUY_CARDS + 7;
+
+    /**
+     * The first bit of {@link Action#PLACE_COLONIST}, one per CityNode for each type of Colonist
+     */
+    public static final int PLACES = COPIES + GameEngine.MAX_PLAYERS;
+
+    /**
+     * The bit of {@link Action#COLONIST_CASH}
+     */
+    public static final int COLONIST_CASH = PLACES + 2 * MAX_CITIES;
+
+    /**
+     * The first bit of {@link Action#NEW_COLONIST}, one per type of Colonist
+     */
+    public static final int NEW_COLONISTS = COLONIST_CASH + 1;
+
+    /**
+     * The number of bits of a mask
+     */
+    public static final int BITS = NEW_COLONISTS + 2;
+
+    /**
+     * The number of longs of a mask
+     */
+    public static final int WORDS = (BITS + 63) / 64;
+
+    /**
+     * The card types in the order of their bits, which is the order of the card columns of the dataset
+     */
+    private static final CardType[] CARD_ORDER = {
+            CardType.WEAVER, CardType.VINTNER, CardType.TRIBUNE, CardType.SMITH, CardType.SENATOR,
+            CardType.PREFECT, CardType.MERCATOR, CardType.MASON, CardType.FARMER, CardType.DIPLOMAT,
+            CardType.CONSUL, CardType.COLONIST, CardType.ARCHITECT
+    };
+
+    /**
+     * The bit of each card type indexed by the ordinal of the type
+     */
+    private static final int[] CARD_BITS = new int[CardType.values().length];
+
+    static {
+        for (int i = 0; i < CARD_ORDER.length; i++) {
+            CARD_BITS[CARD_ORDER[i].ordinal()] = CARDS + i;
+        }
+    }
+
+    /**
+     * Constructor that should never be called, this class only has library (static) methods
+     */
+    private ActionMask() {
+        throw new UnsupportedOperationException("ActionMask cannot be instantiated");
+    }
+
+    /**
+     * Library (static) method to find the bit of playing a card of a type
+     * @param type the card type
+     * @return the bit, which is also the index of the card column of the type in the dataset
+     */
+    public static int card(CardType type) {
+        return CARD_BITS[type.ordinal()];
+    }
+
+    /**
+     * Library (static) method to find the card type played by a bit
+     * @param bit the bit, between {@link #CARDS} and {@link #END}
+     * @return the card type
+     */
+    public static CardType cardType(int bit) {
+        return CARD_ORDER[bit - CARDS];
+    }
+
+    /**
+     * Library (static) method to find the bit of an action that does not play a card
+     * @param action the action encoded as in {@link Action}, not {@link Action#PLAY_CARD}
+     * @return the bit of the action
+     * @throws IllegalArgumentException if the action plays a card or its arguments have no bit
+     */
+    public static int bit(int action) {
+        int arg1 = Action.arg1(action);
+        int arg2 = Action.arg2(action);
+        int bit = switch (Action.type(action)) {
+            case Action.END -> END;
+            case Action.MOVE -> arg1 < MAX_COLONISTS && arg2 < MAX_PATHS ? MOVES + arg1 * MAX_PATHS + arg2 : -1;
+            case Action.BUILD -> arg1 < MAX_CITIES ? BUILDS + arg1 : -1;
+            case Action.PROVINCE -> arg1 < MAX_PROVINCES ? PROVINCES + arg1 : -1;
+            case Action.PREFECT_CASH -> PREFECT_CASH;
+            case Action.BUY_GOOD -> BUY_GOODS + arg1;
+            case Action.SELL_GOOD -> SELL_GOODS + arg1;
+            case Action.BUY_CARD -> BUY_CARDS + arg1;
+            case Action.COPY -> COPIES + arg1;
+            case Action.PLACE_COLONIST -> arg1 < MAX_CITIES ? PLACES + arg2 * MAX_CITIES + arg1 : -1;
+            case Action.COLONIST_CASH -> COLONIST_CASH;
+            case Action.NEW_COLONIST -> NEW_COLONISTS + arg1;
+            default -> -1;
+        };
+        if (bit < 0) {
+            throw new IllegalArgumentException("No bit for the action " + Action.toString(action));
+        }
+        return bit;
+    }
+
+    /**
+     * Library (static) method to clear a mask
+     * @param mask the array holding the mask
+     * @param offset the index of the first long of the mask
+     */
+    public static void clear(long[] mask, int offset) {
+        for (int i = 0; i < WORDS; i++) {
+            mask[offset + i] = 0L;
+        }
+    }
+
+    /**
+     * Library (static) method to set a bit of a mask
+     * @param mask the array holding the mask
+     * @param offset the index of the first long of the mask
+     * @param bit the bit
+     */
+    public static void set(long[] mask, int offset, int bit) {
+        mask[offset + (bit >>> 6)] |= 1L << bit;
+    }
+
+    /**
+     * Library (static) method to check whether a bit of a mask is set
+     * @param mask the array holding the mask
+     * @param offset the index of the first long of the mask
+     * @param bit the bit
+     * @return whether the bit is set
+     */
+    public static boolean isSet(long[] mask, int offset, int bit) {
+        return (mask[offset + (bit >>> 6)] & 1L << bit) != 0;
+    }
+
+    /**
+     * Library (static) method to count the bits set in a mask
+     * @param mask the array holding the mask
+     * @param offset the index of the first long of the mask
+     * @return the number of legal choices in the mask
+     */
+    public static int count(long[] mask, int offset) {
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) {
+            count += Long.bitCount(mask[offset + i]);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,27 @@
+package src.game.engine;
+
+/**
+ * An interface for anything that can choose the actions of one seat of a GameEngine
+ * @author devinlinux
+ */
+public interface Agent {
+
+    /**
+     * Method called once before a game starts, an Agent that makes random decisions must seed them
+     * from the seed it is given so that the game can be replayed
+     * @param engine the GameEngine the game is played on
+     * @param seat the seat this Agent plays
+     * @param seed the seed for the random decisions of this Agent in this game
+     */
+    default void startGame(GameEngine engine, int seat, long seed) {
+    }
+
+    /**
+     * Method to choose one of the legal actions of the current position
+     * @param engine the GameEngine the game is played on, must not be changed
+     * @param actions the legal actions encoded as in {@link Action}
+     * @param count the number of legal actions, always at least 1
+     * @return the index of the chosen action in actions
+     */
+    int choose(GameEngine engine, int[] actions, int count);
+}
@@ -0,0 +1,1600 @@
+package src.game.engine;
+
+//  imports
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import src.game.Colonist;
+import src.game.Cost;
+import src.game.Game;
+import src.game.Good;
+import src.game.House;
+import src.game.ProvinceChart;
+import src.game.Zobrist;
+import src.game.cards.CardType;
+import src.game.cards.Mercator;
+import src.game.cards.PersonalityCard;
+import src.game.cards.godtype.Minerva;
+import src.game.map.CityNode;
+import src.game.map.Map;
+import src.game.map.MapTopology;
+import src.game.map.MoveGenerator;
+import src.game.map.PathNode;
+import src.game.map.Province;
+import src.game.player.Player;
+import src.game.player.StoreHouse;
+
+import static src.game.Colonist.ColonistType;
+
+/**
+ * A class to play complete games of Concordia between Agents without any graphics
+ * A game is a sequence of small steps: {@link #legalActions(int[])} writes the actions of the current
+ * position into an int array and {@link #apply(int)} plays one of them, so bots can search the game and
+ * {@link #play(Agent[])} can run a whole game in a loop that does not allocate per step
+ * A search plays actions with {@link #make(int)} instead, which keeps a small undo record of primitives for
+ * every action so that {@link #unmake()} can take it back without the Game ever being copied
+ * A Mercator can also be searched one whole trade at a time with {@link #tradeBundles(long[])}, and the
+ * choices of a card can be looked at before it is played with {@link #cardChoices(int, int[])}
+ * Every random decision comes from the seed given to {@link #reset(long)}, so a seed and the same Agents
+ * always give the same game
+ * Rules that the cards do not specify are kept simple: the display adds sestertii to the price of its later
+ * slots, Tribune buys one new Colonist into the StoreHouse, Goods that do not fit in a StoreHouse are lost,
+ * and a game is stopped after {@link #MAX_TURNS} turns
+ * @author devinlinux
+ */
+public class GameEngine {
+
+    /**
+     * The most legal actions any position can have, an array passed to {@link #legalActions(int[])}
+     * must be at least this long
+     */
+    public static final int MAX_ACTIONS = 512;
+
+    /**
+     * The most whole trades a Mercator can have, an array passed to {@link #tradeBundles(long[])} must be at
+     * least this long: the empty trade, one Good bought or sold up to 12 times, or two Goods each bought or
+     * sold up to 12 times, as a StoreHouse never holds more than 12 elements
+     */
+    public static final int MAX_TRADES = 1 + 5 * 24 + 10 * 24 * 24;
+
+    /**
+     * The number of turns after which a game is stopped even if it has not ended
+     */
+    public static final int MAX_TURNS = 1000;
+
+    /**
+     * The fewest players a game can have
+     */
+    public static final int MIN_PLAYERS = 2;
+
+    /**
+     * The most players a game can have
+     */
+    public static final int MAX_PLAYERS = 5;
+
+    /**
+     * The most Colonists a Player can own on the board and in the StoreHouse together
+     */
+    private static final int MAX_COLONISTS = 6;
+
+    /**
+     * The victory points of the Concordia card for the Player who ends the game
+     */
+    private static final int CONCORDIA_POINTS = 7;
+
+    /**
+     * The cost of a new Colonist, or of placing one with the Colonist card
+     */
+    private static final long COLONIST_COST = Cost.of(0, 0, 1, 1, 0, 0).pack();
+
+    /**
+     * The Goods in the order of their ordinals
+     */
+    private static final Good[] GOODS = Good.values();
+
+    /**
+     * The types of Colonists in the order of their ordinals
+     */
+    private static final ColonistType[] COLONIST_TYPES = ColonistType.values();
+
+    /**
+     * The current Player chooses a card to play
+     */
+    public static final int PHASE_CARD = 0;
+
+    /**
+     * The current Player moves Colonists with an Architect
+     */
+    public static final int PHASE_MOVE = 1;
+
+    /**
+     * The current Player builds Houses with an Architect
+     */
+    public static final int PHASE_BUILD = 2;
+
+    /**
+     * The current Player chooses a province with a Prefect
+     */
+    public static final int PHASE_PREFECT = 3;
+
+    /**
+     * The current Player trades with a Mercator
+     */
+    public static final int PHASE_TRADE = 4;
+
+    /**
+     * The current Player buys cards with a Senator or Consul
+     */
+    public static final int PHASE_BUY = 5;
+
+    /**
+     * The current Player chooses between placing Colonists and taking sestertii with a Colonist card
+     */
+    public static final int PHASE_COLONIST = 6;
+
+    /**
+     * The current Player places more Colonists with a Colonist card
+     */
+    public static final int PHASE_PLACE = 7;
+
+    /**
+     * The current Player chooses a card to copy with a Diplomat
+     */
+    public static final int PHASE_COPY = 8;
+
+    /**
+     * The current Player may buy a new Colonist with a Tribune
+     */
+    public static final int PHASE_TRIBUNE = 9;
+
+    /**
+     * The number of players of every game of this GameEngine
+     */
+    private final int numPlayers;
+
+    /**
+     * The topology of the map every game is played on
+     */
+    private final MapTopology topology;
+
+    /**
+     * The ids of the PathNodes a Colonist can move to, reused by every query
+     */
+    private final int[] moveBuffer;
+
+    /**
+     * The legal actions of the current position, reused by {@link #play(Agent[])}
+     */
+    private final int[] actions;
+
+    /**
+     * The victory points of each seat, filled in when the game ends
+     */
+    private final int[] scores;
+
+    /**
+     * The Game being played
+     */
+    private Game game;
+
+    /**
+     * The Map of the Game being played
+     */
+    private Map map;
+
+    /**
+     * The occupied PathNodes of the Map being played
+     */
+    private MoveGenerator moves;
+
+    /**
+     * The Players of the Game indexed by seat
+     */
+    private Player[] seats;
+
+    /**
+     * The id of the CityNode of Roma
+     */
+    private int roma;
+
+    /**
+     * The seed of the Game being played
+     */
+    private long seed;
+
+    /**
+     * The seat of the current Player
+     */
+    private int seat;
+
+    /**
+     * The phase of the turn of the current Player
+     */
+    private int phase;
+
+    /**
+     * The steps the Colonists may still take with the Architect being played
+     */
+    private int budget;
+
+    /**
+     * The cards that may still be bought with the Senator or Consul being played
+     */
+    private int purchases;
+
+    /**
+     * Whether the cards being bought cost only their price, as with a Consul
+     */
+    private boolean noSurcharge;
+
+    /**
+     * The Goods bought with the Mercator being played as a bitmask, bit i is set for the Good with ordinal i
+     */
+    private int boughtGoods;
+
+    /**
+     * The Goods sold with the Mercator being played as a bitmask, bit i is set for the Good with ordinal i
+     */
+    private int soldGoods;
+
+    /**
+     * The seat of the Player who ended the game, or -1 while nobody has
+     */
+    private int endingSeat;
+
+    /**
+     * The number of turns played so far
+     */
+    private int turns;
+
+    /**
+     * Whether the game is over
+     */
+    private boolean over;
+
+    /**
+     * The victory points of each seat before the game was scored, so that the scoring can be unmade
+     */
+    private final int[] unscoredPoints;
+
+    /**
+     * The undo records of the actions played with {@link #make(int)}, one after another
+     */
+    private long[] undo;
+
+    /**
+     * The number of longs of {@link #undo} in use
+     */
+    private int undoSize;
+
+    /**
+     * Where the undo record of each action that can be unmade starts in {@link #undo}, the last action first
+     * from the end
+     */
+    private int[] undoFrames;
+
+    /**
+     * The number of actions that can be unmade
+     */
+    private int undoDepth;
+
+    /**
+     * Every action played since the game started, in order, so another GameEngine can be brought to the
+     * same position by replaying them
+     */
+    private int[] history;
+
+    /**
+     * The number of actions in {@link #history}
+     */
+    private int historySize;
+
+    /**
+     * Whether the hidden cards were shuffled by {@link #determinize(SplittableRandom)}, so replaying the
+     * history from the seed no longer gives the position of this GameEngine
+     */
+    private boolean determinized;
+
+    /**
+     * Constructor to make a new GameEngine for games on the imperium map
+     * @param numPlayers the number of players of every game
+     */
+    public GameEngine(int numPlayers) {
+        this(numPlayers, MapTopology.of(Map.IMPERIUM));
+    }
+
+    /**
+     * Constructor to make a new GameEngine
+     * @param numPlayers the number of players of every game
+     * @param topology the topology of the map every game is played on
+     */
+    public GameEngine(int numPlayers, MapTopology topology) {
+        if (numPlayers < MIN_PLAYERS || numPlayers > MAX_PLAYERS) {
+            throw new IllegalArgumentException("A game must have between " + MIN_PLAYERS + " and " + MAX_PLAYERS + " players");
+        }
+        this.numPlayers = numPlayers;
+        this.topology = topology;
+        this.moveBuffer = new int[topology.paths().size()];
+        this.actions = new int[MAX_ACTIONS];
+        this.scores = new int[numPlayers];
+        this.unscoredPoints = new int[numPlayers];
+        this.undo = new long[256];
+        this.undoFrames = new int[64];
+        this.history = new int[1024];
+        this.roma = -1;
+        for (CityNode city : topology.cities()) {
+            if (city.name().equals("Roma")) {
+                this.roma = city.id();
+            }
+        }
+        if (this.roma < 0) {
+            throw new IllegalArgumentException("The map has no Roma for the Colonists to start in");
+        }
+    }
+
+    /**
+     * Method to start a new game, everything random about it is derived from the seed
+     * @param seed the seed of the game
+     */
+    public void reset(long seed) {
+        this.seed = seed;
+        List<Player> players = new ArrayList<>(this.numPlayers);
+        for (int i = 0; i < this.numPlayers; i++) {
+            players.add(new Player("Player " + (i + 1)));
+        }
+        this.game = new Game(new Map(this.topology, null), players, seed);
+        this.map = this.game.map();
+        this.moves = this.map.moves();
+        this.seats = players.toArray(new Player[0]);
+
+        CityNode rome = this.map.city(this.roma);
+        for (int i = 0; i < this.numPlayers; i++) {
+            Player player = this.seats[i];
+            player.setSestertii(5 + i);
+            player.setPraefectusMagnus(i == this.numPlayers - 1);
+            for (ColonistType type : COLONIST_TYPES) {
+                Colonist colonist = player.storeHouse().removeColonist(type);
+                colonist.setCity(rome);
+                rome.addColonist(colonist);
+                player.placeColonist(colonist);
+            }
+        }
+
+        this.seat = 0;
+        this.phase = PHASE_CARD;
+        this.endingSeat = -1;
+        this.turns = 0;
+        this.over = false;
+        this.undoSize = 0;
+        this.undoDepth = 0;
+        this.historySize = 0;
+        this.determinized = false;
+    }
+
+    /**
+     * Method to replace what the current Player cannot see with one of the ways it could be, so a search of
+     * the position does not cheat: the cards left in the draw pile are shuffled within their eras
+     * The hands of the Players are not hidden, every Player starts with the same cards and every card bought
+     * comes from the open display, so only the order of the draw pile has to be sampled
+     * @param random the random number generator to sample with
+     */
+    public void determinize(SplittableRandom random) {
+        this.game.shuffleDrawPile(random);
+        this.determinized = true;
+    }
+
+    /**
+     * Method to bring this GameEngine to the position of another one, for example to search a position on
+     * another thread without touching the GameEngine it is played on
+     * Every action played is deterministic given the seed, so when this GameEngine is already at an earlier
+     * position of the same game only the actions since then are applied, otherwise the game is started again
+     * from its seed and every action is replayed, as it is after {@link #determinize(SplittableRandom)}.
+     * Actions of this GameEngine that could be unmade are unmade first. If the other GameEngine was
+     * determinized, the real position of its game is copied
+     * @param other the GameEngine whose position is copied, it must be on the same map with as many players
+     * @return whether this GameEngine was at an earlier position of the same game, so that only the later
+     *         actions were applied
+     * @throws IllegalArgumentException if the other GameEngine plays another map or number of players
+     */
+    public boolean copyFrom(GameEngine other) {
+        if (other.numPlayers != this.numPlayers || other.topology != this.topology) {
+            throw new IllegalArgumentException("Cannot copy a game with another map or number of players");
+        }
+        while (this.undoDepth > 0) {
+            unmake();
+        }
+        boolean prefix = this.game != null && !this.determinized && this.seed == other.seed
+                && this.historySize <= other.historySize;
+        for (int i = 0; prefix && i < this.historySize; i++) {
+            prefix = this.history[i] == other.history[i];
+        }
+        if (!prefix) {
+            reset(other.seed);
+        }
+        while (this.historySize < other.historySize) {
+            apply(other.history[this.historySize]);
+        }
+        return prefix;
+    }
+
+    /**
+     * Method to play a whole game from the current position, the game must have been started with
+     * {@link #reset(long)}
+     * @param agents the Agent of each seat
+     * @return the result of the game
+     */
+    public GameResult play(Agent[] agents) {
+        if (agents.length != this.numPlayers) {
+            throw new IllegalArgumentException("Expected " + this.numPlayers + " agents but got " + agents.length);
+        }
+        SplittableRandom agentSeeds = new SplittableRandom(this.seed).split();
+        for (int i = 0; i < agents.length; i++) {
+            agents[i].startGame(this, i, agentSeeds.nextLong());
+        }
+        while (!this.over) {
+            int count = legalActions(this.actions);
+            int choice = agents[this.seat].choose(this, this.actions, count);
+            apply(this.actions[choice]);
+        }
+        return result();
+    }
+
+    /**
+     * Method to play a whole game from a seed
+     * @param seed the seed of the game
+     * @param agents the Agent of each seat
+     * @return the result of the game
+     */
+    public GameResult play(long seed, Agent[] agents) {
+        reset(seed);
+        return play(agents);
+    }
+
+    /**
+     * Method to write the legal actions of the current position into an array
+     * @param out the array to write the actions into, must hold at least {@link #MAX_ACTIONS} ints
+     * @return the number of actions written, at least 1 unless the game is over
+     */
+    public int legalActions(int[] out) {
+        if (this.over) {
+            return 0;
+        }
+        Player player = this.seats[this.seat];
+        return switch (this.phase) {
+            case PHASE_CARD -> cardActions(player, out);
+            case PHASE_MOVE -> moveActions(player, out);
+            case PHASE_BUILD -> buildActions(player, out);
+            case PHASE_PREFECT -> prefectActions(out);
+            case PHASE_TRADE -> tradeActions(player, out);
+            case PHASE_BUY -> buyActions(player, out);
+            case PHASE_COLONIST, PHASE_PLACE -> colonistActions(player, out);
+            case PHASE_COPY -> copyActions(out);
+            case PHASE_TRIBUNE -> tribuneActions(player, out);
+            default -> throw new IllegalStateException("Unknown phase " + this.phase);
+        };
+    }
+
+    /**
+     * Method to write the legal actions of the current position into an array and set their bits in a mask,
+     * so a model choosing among the bits of {@link ActionMask} can be kept to the legal ones
+     * @param out the array to write the actions into, must hold at least {@link #MAX_ACTIONS} ints
+     * @param mask the array to write the mask into, every bit of the mask is written
+     * @param offset the index of the first long of the mask, the mask takes {@link ActionMask#WORDS} longs
+     * @return the number of actions written, at least 1 unless the game is over
+     */
+    public int legalActions(int[] out, long[] mask, int offset) {
+        int count = legalActions(out);
+        ActionMask.clear(mask, offset);
+        for (int i = 0; i < count; i++) {
+            ActionMask.set(mask, offset, actionBit(out[i]));
+        }
+        return count;
+    }
+
+    /**
+     * Method to find the bit of {@link ActionMask} of an action of the current position, a card is played
+     * by the bit of its type
+     * @param action the action encoded as in {@link Action}
+     * @return the bit of the action
+     */
+    public int actionBit(int action) {
+        if (Action.type(action) == Action.PLAY_CARD) {
+            return ActionMask.card(this.seats[this.seat].cards().get(Action.arg1(action)).type());
+        }
+        return ActionMask.bit(action);
+    }
+
+    /**
+     * Method to find the first of the legal actions of the current position with a bit of {@link ActionMask}
+     * @param bit the bit
+     * @param actions the legal actions of the current position
+     * @param count the number of legal actions
+     * @return the index of the action in actions, or -1 if no legal action has the bit
+     */
+    public int findAction(int bit, int[] actions, int count) {
+        for (int i = 0; i < count; i++) {
+            if (actionBit(actions[i]) == bit) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Method to write the cards the current Player can play
+     * @param player the current Player
+     * @param out the array to write the actions into
+     * @return the number of actions written
+     */
+    private int cardActions(Player player, int[] out) {
+        int count = 0;
+        List<PersonalityCard> cards = player.cards();
+        for (int i = 0; i < cards.size(); i++) {
+            if (!cards.get(i).getPlayed()) {
+                out[count++] = Action.of(Action.PLAY_CARD, i);
+            }
+        }
+        if (count == 0) {
+            out[count++] = Action.of(Action.END);
+        }
+        return count;
+    }
+
+    /**
+     * Method to write the moves the Colonists of the current Player can make with the steps left
+     * @param player the current Player
+     * @param out the array to write the actions into
+     * @return the number of actions written
+     */
+    private int moveActions(Player player, int[] out) {
+        int count = 0;
+        List<Colonist> colonists = player.boardColonists();
+        for (int i = 0; i < colonists.size(); i++) {
+            int found = colonists.get(i).legalMoves(this.budget, this.moves, this.moveBuffer);
+            for (int j = 0; j < found; j++) {
+                out[count++] = Action.of(Action.MOVE, i, this.moveBuffer[j]);
+            }
+        }
+        out[count++] = Action.of(Action.END);
+        return count;
+    }
+
+    /**
+     * Method to write the CityNodes the current Player can build a House in
+     * @param player the current Player
+     * @param out the array to write the actions into
+     * @return the number of actions written
+     */
+    private int buildActions(Player player, int[] out) {
+        int count = 0;
+        if (player.numHouses() > 0) {
+            int cities = buildableCities(player);
+            while (cities != 0) {
+                int city = Integer.numberOfTrailingZeros(cities);
+                cities &= cities - 1;
+                if (player.canAfford(House.buildCost(this.map.city(city)))) {
+                    out[count++] = Action.of(Action.BUILD, city);
+                }
+            }
+        }
+        out[count++] = Action.of(Action.END);
+        return count;
+    }
+
+    /**
+     * Method to find the CityNodes next to the Colonists of a Player that the Player has no House in yet
+     * @param player the Player
+     * @return the CityNodes as a bitmask, bit i is set for CityNode i
+     */
+    private int buildableCities(Player player) {
+        int cities = 0;
+        List<Colonist> colonists = player.boardColonists();
+        for (int i = 0; i < colonists.size(); i++) {
+            Colonist colonist = colonists.get(i);
+            if (colonist.path() != null) {
+                cities |= (1 << colonist.path().node1().id()) | (1 << colonist.path().node2().id());
+            } else if (colonist.city() != null) {
+                cities |= 1 << colonist.city().id();
+            }
+        }
+        cities &= ~player.houseMask();
+        for (int bits = cities; bits != 0; bits &= bits - 1) {
+            int city = Integer.numberOfTrailingZeros(bits);
+            if (this.map.city(city).good() == null) {
+                cities &= ~(1 << city);
+            }
+        }
+        return cities;
+    }
+
+    /**
+     * Method to write the provinces that can produce and the option to collect sestertii
+     * @param out the array to write the actions into
+     * @return the number of actions written
+     */
+    private int prefectActions(int[] out) {
+        int count = 0;
+        boolean produced = false;
+        ProvinceChart chart = this.game.provinceChart();
+        for (int i = 0; i < chart.numProvinces(); i++) {
+            if (chart.getProvince(i).getStatus() == Province.ResourceStatus.GOODS) {
+                out[count++] = Action.of(Action.PROVINCE, i);
+            } else {
+                produced = true;
+            }
+        }
+        if (produced || count == 0) {
+            out[count++] = Action.of(Action.PREFECT_CASH);
+        }
+        return count;
+    }
+
+    /**
+     * Method to write the Goods the current Player can buy or sell, at most two different Goods can be
+     * traded with one Mercator and a Good cannot be both bought and sold
+     * @param player the current Player
+     * @param out the array to write the actions into
+     * @return the number of actions written
+     */
+    private int tradeActions(Player player, int[] out) {
+        int count = 0;
+        int traded = this.boughtGoods | this.soldGoods;
+        boolean newGood = Integer.bitCount(traded) < 2;
+        StoreHouse storeHouse = player.storeHouse();
+        for (Good good : GOODS) {
+            int bit = 1 << good.ordinal();
+            if (!newGood && (traded & bit) == 0) {
+                continue;
+            }
+            if ((this.soldGoods & bit) == 0 && player.sestertii() >= good.price() && storeHouse.hasRoom(1)) {
+                out[count++] = Action.of(Action.BUY_GOOD, good.ordinal());
+            }
+            if ((this.boughtGoods & bit) == 0 && storeHouse.count(good) > 0) {
+                out[count++] = Action.of(Action.SELL_GOOD, good.ordinal());
+            }
+        }
+        out[count++] = Action.of(Action.END);
+        return count;
+    }
+
+    /**
+     * Method to write every whole trade the current Player can still make with a Mercator, so a bot can
+     * choose a trade at once instead of one Good at a time
+     * A trade sells its Goods before it buys, so it is legal if the Player ends up with no fewer than 0
+     * sestertii and no more elements than fit in the StoreHouse, with at most two different Goods traded
+     * in the whole turn and no Good both bought and sold
+     * @param out the array to write the trades into encoded as in {@link Trade}, must hold at least
+     *            {@link #MAX_TRADES} longs
+     * @return the number of trades written, including {@link Trade#NONE}, or 0 if no Mercator is being played
+     */
+    public int tradeBundles(long[] out) {
+        if (this.over || this.phase != PHASE_TRADE) {
+            return 0;
+        }
+        Player player = this.seats[this.seat];
+        int traded = this.boughtGoods | this.soldGoods;
+        int count = 0;
+        out[count++] = Trade.NONE;
+        for (int first = 0; first < GOODS.length; first++) {
+            if (Integer.bitCount(traded | 1 << first) > 2) {
+                continue;
+            }
+            for (int q1 = fewestTraded(player, first); q1 <= mostTraded(player, first); q1++) {
+                if (q1 == 0) {
+                    continue;
+                }
+                if (tradable(player, first, q1, first, 0)) {
+                    out[count++] = Trade.of(GOODS[first], q1);
+                }
+                for (int second = first + 1; second < GOODS.length; second++) {
+                    if (Integer.bitCount(traded | 1 << first | 1 << second) > 2) {
+                        continue;
+                    }
+                    for (int q2 = fewestTraded(player, second); q2 <= mostTraded(player, second); q2++) {
+                        if (q2 != 0 && tradable(player, first, q1, second, q2)) {
+                            out[count++] = Trade.with(Trade.of(GOODS[first], q1), GOODS[second], q2);
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Method to find the most of a Good the current Player can sell in the rest of a trade
+     * @param player the current Player
+     * @param good the ordinal of the Good
+     * @return minus the number of the Good that can be sold, 0 if it was bought this turn
+     */
+    private int fewestTraded(Player player, int good) {
+        return (this.boughtGoods & 1 << good) != 0 ? 0 : -player.storeHouse().count(GOODS[good]);
+    }
+
+    /**
+     * Method to find an upper bound on how many of a Good the current Player can buy in the rest of a trade,
+     * the room every Good could free by being sold included
+     * @param player the current Player
+     * @param good the ordinal of the Good
+     * @return the most of the Good that could be bought, 0 if it was sold this turn
+     */
+    private int mostTraded(Player player, int good) {
+        StoreHouse storeHouse = player.storeHouse();
+        return (this.soldGoods & 1 << good) != 0 ? 0 : storeHouse.capacity() - storeHouse.size() + storeHouse.numGoods();
+    }
+
+    /**
+     * Method to check whether the current Player can afford a trade of up to two Goods and store what it buys
+     * @param player the current Player
+     * @param first the ordinal of the first Good
+     * @param q1 how many of the first Good are bought, negative if they are sold
+     * @param second the ordinal of the second Good
+     * @param q2 how many of the second Good are bought, negative if they are sold
+     * @return whether the trade is legal
+     */
+    private boolean tradable(Player player, int first, int q1, int second, int q2) {
+        int cost = q1 * GOODS[first].price() + q2 * GOODS[second].price();
+        return player.sestertii() >= cost && player.storeHouse().hasRoom(q1 + q2);
+    }
+
+    /**
+     * Method to play a whole trade of the current Player and end the Mercator
+     * @param trade the trade encoded as in {@link Trade}, must be one of the trades of {@link #tradeBundles(long[])}
+     * @throws IllegalArgumentException if no Mercator is being played
+     */
+    public void applyTrade(long trade) {
+        playTrade(trade, false);
+    }
+
+    /**
+     * Method to play a whole trade of the current Player and end the Mercator so that it can be taken back,
+     * every Good bought or sold and the end of the trade is its own action of {@link #make(int)}
+     * @param trade the trade encoded as in {@link Trade}, must be one of the trades of {@link #tradeBundles(long[])}
+     * @return the number of actions played, {@link #unmake()} must be called that many times to take it back
+     * @throws IllegalArgumentException if no Mercator is being played
+     */
+    public int makeTrade(long trade) {
+        return playTrade(trade, true);
+    }
+
+    /**
+     * Method to play a whole trade as actions, the sales first and then the purchases
+     * @param trade the trade encoded as in {@link Trade}
+     * @param undoable whether the actions are played with {@link #make(int)} instead of {@link #apply(int)}
+     * @return the number of actions played
+     */
+    private int playTrade(long trade, boolean undoable) {
+        int end = Action.of(Action.END);
+        if (this.over) {
+            throw new IllegalStateException("The game is over");
+        }
+        expect(PHASE_TRADE, end);
+        int steps = 0;
+        for (int sell = 1; sell >= 0; sell--) {
+            for (Good good : GOODS) {
+                int quantity = Trade.quantity(trade, good);
+                int action = Action.of(sell == 1 ? Action.SELL_GOOD : Action.BUY_GOOD, good.ordinal());
+                for (int i = sell == 1 ? -quantity : quantity; i > 0; i--) {
+                    play(action, undoable);
+                    steps++;
+                }
+            }
+        }
+        play(end, undoable);
+        return steps + 1;
+    }
+
+    /**
+     * Method to play an action with {@link #make(int)} or {@link #apply(int)}
+     * @param action the action encoded as in {@link Action}
+     * @param undoable whether the action is played with {@link #make(int)}
+     */
+    private void play(int action, boolean undoable) {
+        if (undoable) {
+            make(action);
+        } else {
+            apply(action);
+        }
+    }
+
+    /**
+     * Method to write the first choices a card in the hand of the current Player would give, by playing the
+     * card with {@link #make(int)}, writing the legal actions and taking the card back
+     * This covers every PersonalityCard the same way, including the cards a Diplomat could copy
+     * @param card the index of the card in the hand of the current Player, must not be played yet
+     * @param out the array to write the actions into, must hold at least {@link #MAX_ACTIONS} ints
+     * @return the number of actions written, 0 if the card takes its whole action at once
+     * @throws IllegalArgumentException if no card can be played in the current phase
+     */
+    public int cardChoices(int card, int[] out) {
+        make(Action.of(Action.PLAY_CARD, card));
+        try {
+            return this.over || this.phase == PHASE_CARD ? 0 : legalActions(out);
+        } finally {
+            unmake();
+        }
+    }
+
+    /**
+     * Method to write the cards of the display the current Player can afford
+     * @param player the current Player
+     * @param out the array to write the actions into
+     * @return the number of actions written
+     */
+    private int buyActions(Player player, int[] out) {
+        int count = 0;
+        List<PersonalityCard> display = this.game.display();
+        for (int slot = 0; slot < display.size(); slot++) {
+            if (player.canAfford(price(slot))) {
+                out[count++] = Action.of(Action.BUY_CARD, slot);
+            }
+        }
+        out[count++] = Action.of(Action.END);
+        return count;
+    }
+
+    /**
+     * Method to write where the current Player can place Colonists and, before the first one is
+     * placed, the option to take sestertii instead
+     * @param player the current Player
+     * @param out the array to write the actions into
+     * @return the number of actions written
+     */
+    private int colonistActions(Player player, int[] out) {
+        int count = 0;
+        if (player.canAfford(COLONIST_COST)) {
+            int cities = player.houseMask() | (1 << this.roma);
+            for (ColonistType type : COLONIST_TYPES) {
+                if (player.storeHouse().count(type) == 0) {
+                    continue;
+                }
+                for (int bits = cities; bits != 0; bits &= bits - 1) {
+                    out[count++] = Action.of(Action.PLACE_COLONIST, Integer.numberOfTrailingZeros(bits), type.ordinal());
+                }
+            }
+        }
+        if (this.phase == PHASE_COLONIST) {
+            out[count++] = Action.of(Action.COLONIST_CASH);
+        }
+        out[count++] = Action.of(Action.END);
+        return count;
+    }
+
+    /**
+     * Method to write the seats whose top discarded card can be copied
+     * @param out the array to write the actions into
+     * @return the number of actions written
+     */
+    private int copyActions(int[] out) {
+        int count = 0;
+        for (int i = 0; i < this.numPlayers; i++) {
+            if (i != this.seat && copyable(this.seats[i])) {
+                out[count++] = Action.of(Action.COPY, i);
+            }
+        }
+        if (count == 0) {
+            out[count++] = Action.of(Action.END);
+        }
+        return count;
+    }
+
+    /**
+     * Method to check whether the top discarded card of a Player can be copied by a Diplomat
+     * @param player the Player
+     * @return whether the Player has a top discarded card that is not a Diplomat
+     */
+    private boolean copyable(Player player) {
+        return !player.discard().isEmpty() && player.discard().get(0).type() != CardType.DIPLOMAT;
+    }
+
+    /**
+     * Method to write the types of new Colonist the current Player can buy
+     * @param player the current Player
+     * @param out the array to write the actions into
+     * @return the number of actions written
+     */
+    private int tribuneActions(Player player, int[] out) {
+        int count = 0;
+        if (canBuyColonist(player)) {
+            for (ColonistType type : COLONIST_TYPES) {
+                out[count++] = Action.of(Action.NEW_COLONIST, type.ordinal());
+            }
+        }
+        out[count++] = Action.of(Action.END);
+        return count;
+    }
+
+    /**
+     * Method to check whether a Player can buy a new Colonist into its StoreHouse
+     * @param player the Player
+     * @return whether the Player can afford a Colonist, has room for it and owns fewer than the most Colonists
+     */
+    private boolean canBuyColonist(Player player) {
+        StoreHouse storeHouse = player.storeHouse();
+        int owned = player.boardColonists().size() + storeHouse.count(ColonistType.LAND) + storeHouse.count(ColonistType.SEA);
+        return owned < MAX_COLONISTS && storeHouse.hasRoom(1) && player.canAfford(COLONIST_COST);
+    }
+
+    /**
+     * Method to play one of the legal actions of the current position
+     * @param action the action encoded as in {@link Action}, must be one of the legal actions
+     * @throws IllegalStateException if the game is over
+     * @throws IllegalArgumentException if the action cannot be played in the current phase
+     */
+    public void apply(int action) {
+        if (this.over) {
+            throw new IllegalStateException("The game is over");
+        }
+        Player player = this.seats[this.seat];
+        int type = Action.type(action);
+        int arg1 = Action.arg1(action);
+        int arg2 = Action.arg2(action);
+        switch (type) {
+            case Action.END -> end();
+            case Action.PLAY_CARD -> {
+                expect(PHASE_CARD, action);
+                PersonalityCard card = player.cards().get(arg1);
+                player.playCard(card);
+                begin(player, card);
+            }
+            case Action.MOVE -> {
+                expect(PHASE_MOVE, action);
+                Colonist colonist = player.boardColonists().get(arg1);
+                PathNode path = this.map.paths().get(arg2);
+                this.budget -= colonist.stepsTo(path, this.moves);
+                if (colonist.city() != null) {
+                    colonist.city().removeColonist(colonist);
+                }
+                colonist.moveTo(path, this.moves);
+            }
+            case Action.BUILD -> {
+                expect(PHASE_BUILD, action);
+                CityNode city = this.map.city(arg1);
+                player.pay(House.buildCost(city));
+                player.buildHouse(city);
+            }
+            case Action.PROVINCE -> {
+                expect(PHASE_PREFECT, action);
+                boolean magnus = player.hasPraefectusMagnus();
+                this.game.provinceChart().collect(arg1, player, magnus);
+                if (magnus) {
+                    player.setPraefectusMagnus(false);
+                    this.seats[(this.seat + this.numPlayers - 1) % this.numPlayers].setPraefectusMagnus(true);
+                }
+                endTurn();
+            }
+            case Action.PREFECT_CASH -> {
+                expect(PHASE_PREFECT, action);
+                player.addSestertii(this.game.provinceChart().collectSestertii());
+                endTurn();
+            }
+            case Action.BUY_GOOD -> {
+                expect(PHASE_TRADE, action);
+                Good good = GOODS[arg1];
+                player.addSestertii(-good.price());
+                player.storeHouse().addGood(good);
+                this.boughtGoods |= 1 << arg1;
+            }
+            case Action.SELL_GOOD -> {
+                expect(PHASE_TRADE, action);
+                Good good = GOODS[arg1];
+                player.storeHouse().removeGoods(good, 1);
+                player.addSestertii(good.price());
+                this.soldGoods |= 1 << arg1;
+            }
+            case Action.BUY_CARD -> {
+                expect(PHASE_BUY, action);
+                player.pay(price(arg1));
+                PersonalityCard card = this.game.takeFromDisplay(arg1);
+                card.setMyPlayer(player);
+                player.addCard(card);
+                if (--this.purchases == 0) {
+                    endTurn();
+                }
+            }
+            case Action.COPY -> {
+                expect(PHASE_COPY, action);
+                begin(player, this.seats[arg1].discard().get(0));
+            }
+            case Action.PLACE_COLONIST -> {
+                if (this.phase != PHASE_COLONIST) {
+                    expect(PHASE_PLACE, action);
+                }
+                player.pay(COLONIST_COST);
+                Colonist colonist = player.storeHouse().removeColonist(COLONIST_TYPES[arg2]);
+                CityNode city = this.map.city(arg1);
+                colonist.setCity(city);
+                city.addColonist(colonist);
+                player.placeColonist(colonist);
+                this.phase = PHASE_PLACE;
+            }
+            case Action.COLONIST_CASH -> {
+                expect(PHASE_COLONIST, action);
+                player.addSestertii(5 + player.boardColonists().size());
+                endTurn();
+            }
+            case Action.NEW_COLONIST -> {
+                expect(PHASE_TRIBUNE, action);
+                player.pay(COLONIST_COST);
+                player.storeHouse().addColonist(new Colonist(player, COLONIST_TYPES[arg1]));
+                endTurn();
+            }
+            default -> throw new IllegalArgumentException("Unknown action " + Action.toString(action));
+        }
+        if (this.historySize == this.history.length) {
+            this.history = Arrays.copyOf(this.history, this.history.length * 2);
+        }
+        this.history[this.historySize++] = action;
+    }
+
+    /**
+     * Method to play one of the legal actions of the current position so that it can be taken back with
+     * {@link #unmake()}
+     * Before the action is applied the state it changes is written to an undo record of a few longs: what
+     * every action changes (the sestertii of the current Player and the state of the turn) and what only this
+     * action changes, such as the discard pile a Tribune takes back, the province tokens and StoreHouses a
+     * Prefect changes or the colonist a move takes off a city
+     * @param action the action encoded as in {@link Action}, must be one of the legal actions
+     * @throws IllegalStateException if the game is over
+     * @throws IllegalArgumentException if the action cannot be played in the current phase
+     */
+    public void make(int action) {
+        int start = this.undoSize;
+        try {
+            Player player = this.seats[this.seat];
+            int arg1 = Action.arg1(action);
+            push((long) action << 32 | (player.sestertii() & 0xFFFFFFFFL));
+            push(packTurn());
+            switch (Action.type(action)) {
+                case Action.PLAY_CARD -> recordCard(player, player.cards().get(arg1));
+                case Action.COPY -> recordCard(player, this.seats[arg1].discard().get(0));
+                case Action.MOVE -> {
+                    Colonist colonist = player.boardColonists().get(arg1);
+                    CityNode city = colonist.city();
+                    long path = colonist.path() != null ? colonist.path().id() + 1 : 0;
+                    long from = city != null ? city.id() + 1 : 0;
+                    long index = city != null ? city.colonists().indexOf(colonist) : 0;
+                    push(path | from << 16 | index << 32);
+                }
+                case Action.PROVINCE, Action.PREFECT_CASH -> {
+                    long magnus = 0L;
+                    for (int i = 0; i < this.numPlayers; i++) {
+                        if (this.seats[i].hasPraefectusMagnus()) {
+                            magnus |= 1L << i;
+                        }
+                    }
+                    push((this.game.provinceChart().sestertiiMask() & 0xFFFFFFFFL) | magnus << 32);
+                    for (int i = 0; i < this.numPlayers; i++) {
+                        push(packGoods(this.seats[i].storeHouse()));
+                    }
+                }
+                case Action.BUY_CARD -> {
+                    push(price(arg1));
+                    push(this.game.drawPile().size());
+                }
+                default -> { }
+            }
+            if (this.undoDepth == this.undoFrames.length) {
+                this.undoFrames = Arrays.copyOf(this.undoFrames, this.undoFrames.length * 2);
+            }
+            this.undoFrames[this.undoDepth++] = start;
+            apply(action);
+        } catch (RuntimeException e) {
+            if (this.undoDepth > 0 && this.undoFrames[this.undoDepth - 1] == start) {
+                this.undoDepth--;
+            }
+            this.undoSize = start;
+            throw e;
+        }
+    }
+
+    /**
+     * Method to take back the last action played with {@link #make(int)}, restoring the exact state before it
+     * Every change is undone through the same methods that made it, so the Zobrist hash of the Game is
+     * restored along with the state
+     * @throws IllegalStateException if there is no action to take back
+     */
+    public void unmake() {
+        if (this.undoDepth == 0) {
+            throw new IllegalStateException("There is no action to unmake");
+        }
+        int start = this.undoFrames[--this.undoDepth];
+        int action = (int) (this.undo[start] >>> 32);
+        int sestertii = (int) this.undo[start];
+        long turn = this.undo[start + 1];
+        int at = start + 2;
+        int arg1 = Action.arg1(action);
+        int arg2 = Action.arg2(action);
+        Player player = this.seats[(int) (turn & 0xF)];
+        if (this.over && (turn & 1L << 34) == 0) {
+            for (int i = 0; i < this.numPlayers; i++) {
+                this.seats[i].setVictoryPoints(this.unscoredPoints[i]);
+            }
+        }
+        if (this.endingSeat >= 0 && ((turn >>> 31) & 0x7) == 0) {
+            this.seats[this.endingSeat].addVictoryPoints(-CONCORDIA_POINTS);
+        }
+        switch (Action.type(action)) {
+            case Action.PLAY_CARD -> unmakeCard(player, player.cards().get(arg1), true, at);
+            case Action.COPY -> unmakeCard(player, this.seats[arg1].discard().get(0), false, at);
+            case Action.MOVE -> {
+                Colonist colonist = player.boardColonists().get(arg1);
+                long from = this.undo[at];
+                int path = (int) (from & 0xFFFF) - 1;
+                if (path >= 0) {
+                    colonist.moveTo(this.map.paths().get(path), this.moves);
+                } else {
+                    CityNode city = this.map.city((int) (from >>> 16 & 0xFFFF) - 1);
+                    this.moves.vacate(colonist.path().id());
+                    colonist.setCity(city);
+                    city.addColonist((int) (from >>> 32), colonist);
+                }
+            }
+            case Action.BUILD -> {
+                CityNode city = this.map.city(arg1);
+                player.unbuildHouse(city);
+                refundGoods(player, House.buildCost(city).pack());
+            }
+            case Action.PROVINCE, Action.PREFECT_CASH -> {
+                this.game.provinceChart().restoreSestertiiMask((int) this.undo[at]);
+                for (int i = 0; i < this.numPlayers; i++) {
+                    this.seats[i].setPraefectusMagnus((this.undo[at] >>> 32 & 1L << i) != 0);
+                    restoreGoods(this.seats[i].storeHouse(), this.undo[at + 1 + i]);
+                }
+            }
+            case Action.BUY_GOOD -> player.storeHouse().removeGoods(GOODS[arg1], 1);
+            case Action.SELL_GOOD -> player.storeHouse().addGood(GOODS[arg1]);
+            case Action.BUY_CARD -> {
+                PersonalityCard card = player.removeLastCard();
+                card.setMyPlayer(null);
+                this.game.returnToDisplay(arg1, card, (int) this.undo[at + 1]);
+                refundGoods(player, this.undo[at]);
+            }
+            case Action.PLACE_COLONIST -> {
+                Colonist colonist = player.unplaceColonist();
+                colonist.city().removeColonist(colonist);
+                colonist.setCity(null);
+                player.storeHouse().addColonist(colonist);
+                refundGoods(player, COLONIST_COST);
+            }
+            case Action.NEW_COLONIST -> {
+                player.storeHouse().removeColonist(COLONIST_TYPES[arg1]);
+                refundGoods(player, COLONIST_COST);
+            }
+            default -> { }
+        }
+        player.setSestertii(sestertii);
+        restoreTurn(turn);
+        this.undoSize = start;
+        this.historySize--;
+    }
+
+    /**
+     * Method to write what playing or copying a card changes beyond what every action changes: the Goods of
+     * the current Player, which a specialist produces, and for a Tribune the discard pile it takes back
+     * @param player the current Player
+     * @param card the card whose action is taken
+     */
+    private void recordCard(Player player, PersonalityCard card) {
+        push(packGoods(player.storeHouse()));
+        if (card.type() == CardType.TRIBUNE) {
+            List<PersonalityCard> discard = player.discard();
+            push(discard.size());
+            for (int i = 0; i < discard.size(); i++) {
+                push(player.cards().indexOf(discard.get(i)));
+            }
+        }
+    }
+
+    /**
+     * Method to take back playing or copying a card
+     * @param player the current Player
+     * @param card the card whose action was taken
+     * @param played whether the card was played from the hand of the Player instead of copied
+     * @param at where the part of the undo record written by {@link #recordCard(Player, PersonalityCard)} starts
+     */
+    private void unmakeCard(Player player, PersonalityCard card, boolean played, int at) {
+        if (card.type() == CardType.TRIBUNE) {
+            player.takeBackCards();
+            for (int i = (int) this.undo[at + 1]; i > 0; i--) {
+                player.playCard(player.cards().get((int) this.undo[at + 1 + i]));
+            }
+            return;
+        }
+        if (played) {
+            player.unplayCard();
+        }
+        restoreGoods(player.storeHouse(), this.undo[at]);
+    }
+
+    /**
+     * Method to add a long to the end of the undo records, growing them if they are full
+     * @param word the long to add
+     */
+    private void push(long word) {
+        if (this.undoSize == this.undo.length) {
+            this.undo = Arrays.copyOf(this.undo, this.undo.length * 2);
+        }
+        this.undo[this.undoSize++] = word;
+    }
+
+    /**
+     * Method to pack the state of the turn into a long: the seat, phase, steps, purchases, traded Goods, the
+     * seat that ended the game, whether the game is over and the number of turns
+     * @return the packed state of the turn
+     */
+    private long packTurn() {
+        return this.seat
+                | (long) this.phase << 4
+                | (long) (this.budget & 0xFF) << 8
+                | (long) (this.purchases & 0xF) << 16
+                | (this.noSurcharge ? 1L << 20 : 0L)
+                | (long) this.boughtGoods << 21
+                | (long) this.soldGoods << 26
+                | (long) (this.endingSeat + 1) << 31
+                | (this.over ? 1L << 34 : 0L)
+                | (long) this.turns << 35;
+    }
+
+    /**
+     * Method to restore the state of the turn from a long packed by {@link #packTurn()}
+     * @param turn the packed state of the turn
+     */
+    private void restoreTurn(long turn) {
+        this.seat = (int) (turn & 0xF);
+        this.phase = (int) (turn >>> 4 & 0xF);
+        this.budget = (int) (turn >>> 8 & 0xFF);
+        this.purchases = (int) (turn >>> 16 & 0xF);
+        this.noSurcharge = (turn & 1L << 20) != 0;
+        this.boughtGoods = (int) (turn >>> 21 & 0x1F);
+        this.soldGoods = (int) (turn >>> 26 & 0x1F);
+        this.endingSeat = (int) (turn >>> 31 & 0x7) - 1;
+        this.over = (turn & 1L << 34) != 0;
+        this.turns = (int) (turn >>> 35);
+        this.game.setCurrentPlayer(this.seats[this.seat]);
+    }
+
+    /**
+     * Library (static) method to pack the number of each Good in a StoreHouse into a long, 8 bits per Good
+     * starting at bit {@code 8 * good.ordinal()}
+     * @param storeHouse the StoreHouse
+     * @return the packed Goods
+     */
+    private static long packGoods(StoreHouse storeHouse) {
+        long packed = 0L;
+        for (Good good : GOODS) {
+            packed |= (long) storeHouse.count(good) << (8 * good.ordinal());
+        }
+        return packed;
+    }
+
+    /**
+     * Library (static) method to set the number of each Good in a StoreHouse back to a packed count
+     * @param storeHouse the StoreHouse
+     * @param packed the Goods packed by {@link #packGoods(StoreHouse)}
+     */
+    private static void restoreGoods(StoreHouse storeHouse, long packed) {
+        for (Good good : GOODS) {
+            int extra = storeHouse.count(good) - (int) (packed >>> (8 * good.ordinal()) & 0xFF);
+            if (extra > 0) {
+                storeHouse.removeGoods(good, extra);
+            } else if (extra < 0) {
+                storeHouse.addGoods(good, -extra);
+            }
+        }
+    }
+
+    /**
+     * Library (static) method to give a Player back the Goods of a packed cost, the sestertii are restored
+     * separately
+     * @param player the Player
+     * @param cost the cost in the packed form of {@link Cost#pack()}
+     */
+    private static void refundGoods(Player player, long cost) {
+        for (Good good : GOODS) {
+            int count = Cost.count(cost, good);
+            if (count > 0) {
+                player.storeHouse().addGoods(good, count);
+            }
+        }
+    }
+
+    /**
+     * Method to throw if an action is played in the wrong phase
+     * @param phase the phase the action belongs to
+     * @param action the action
+     */
+    private void expect(int phase, int action) {
+        if (this.phase != phase) {
+            throw new IllegalArgumentException(Action.toString(action) + " cannot be played in phase " + this.phase);
+        }
+    }
+
+    /**
+     * Method to start the action of a card for the current Player, the card was either played by the
+     * Player or copied with a Diplomat
+     * @param player the current Player
+     * @param card the card whose action is taken
+     */
+    private void begin(Player player, PersonalityCard card) {
+        switch (card.type()) {
+            case TRIBUNE -> {
+                int played = player.takeBackCards();
+                player.addSestertii(Math.max(0, played - 3));
+                this.phase = PHASE_TRIBUNE;
+            }
+            case ARCHITECT -> {
+                this.budget = player.boardColonists().size();
+                this.phase = PHASE_MOVE;
+            }
+            case PREFECT -> this.phase = PHASE_PREFECT;
+            case MERCATOR -> {
+                player.addSestertii(((Mercator) card).ISSTARTING ? 3 : 5);
+                this.boughtGoods = 0;
+                this.soldGoods = 0;
+                this.phase = PHASE_TRADE;
+            }
+            case SENATOR, CONSUL -> {
+                this.purchases = card.type() == CardType.SENATOR ? 2 : 1;
+                this.noSurcharge = card.type() == CardType.CONSUL;
+                this.phase = PHASE_BUY;
+            }
+            case COLONIST -> this.phase = PHASE_COLONIST;
+            case DIPLOMAT -> this.phase = PHASE_COPY;
+            case FARMER, MASON, SMITH, VINTNER, WEAVER -> {
+                Good good = ((Minerva) card).specialistType();
+                int produced = Math.min(player.numHousesWith(good), player.storeHouse().capacity() - player.storeHouse().size());
+                if (produced > 0) {
+                    player.storeHouse().addGoods(good, produced);
+                }
+                endTurn();
+            }
+        }
+    }
+
+    /**
+     * Method to play the END action, which moves an Architect on to building and ends the turn otherwise
+     */
+    private void end() {
+        if (this.phase == PHASE_MOVE) {
+            this.phase = PHASE_BUILD;
+        } else {
+            endTurn();
+        }
+    }
+
+    /**
+     * Method to return the price of the card in a slot of the display for the card being played
+     * @param slot the slot of the display
+     * @return the price in the packed form of {@link Cost#pack()}
+     */
+    private long price(int slot) {
+        return this.noSurcharge ? this.game.display().get(slot).getPrice().pack() : this.game.displayPrice(slot);
+    }
+
+    /**
+     * Method to end the turn of the current Player, the Player who ends the game gets the Concordia card
+     * and every other Player plays one last turn
+     */
+    private void endTurn() {
+        this.turns++;
+        if (this.endingSeat < 0 && this.game.endedGame()) {
+            this.endingSeat = this.seat;
+            this.seats[this.seat].addVictoryPoints(CONCORDIA_POINTS);
+        }
+        this.seat = (this.seat + 1) % this.numPlayers;
+        this.game.setCurrentPlayer(this.seats[this.seat]);
+        this.phase = PHASE_CARD;
+        if (this.seat == this.endingSeat || this.turns >= MAX_TURNS) {
+            finish();
+        }
+    }
+
+    /**
+     * Method to score every Player once the game is over
+     */
+    private void finish() {
+        this.over = true;
+        for (int i = 0; i < this.numPlayers; i++) {
+            Player player = this.seats[i];
+            int points = player.victoryPoints();
+            this.unscoredPoints[i] = points;
+            for (PersonalityCard card : player.cards()) {
+                points += card.calculatePoints();
+            }
+            player.setVictoryPoints(points);
+            this.scores[i] = points;
+        }
+    }
+
+    /**
+     * Method to return the result of the game, the game must be over
+     * @return the result of the game
+     * @throws IllegalStateException if the game is not over
+     */
+    public GameResult result() {
+        if (!this.over) {
+            throw new IllegalStateException("The game is not over");
+        }
+        int winner = 0;
+        for (int i = 1; i < this.numPlayers; i++) {
+            if (this.scores[i] > this.scores[winner]
+                    || (this.scores[i] == this.scores[winner] && this.seats[i].sestertii() > this.seats[winner].sestertii())) {
+                winner = i;
+            }
+        }
+        return new GameResult(this.seed, this.scores, winner, this.turns, this.endingSeat >= 0);
+    }
+
+    /**
+     * Getter to return the Game being played
+     * @return the Game being played
+     */
+    public Game game() {
+        return this.game;
+    }
+
+    /**
+     * Getter to return the number of players of every game of this GameEngine
+     * @return the number of players
+     */
+    public int numPlayers() {
+        return this.numPlayers;
+    }
+
+    /**
+     * Getter to return the Player in a seat
+     * @param seat the seat
+     * @return the Player in the seat
+     */
+    public Player player(int seat) {
+        return this.seats[seat];
+    }
+
+    /**
+     * Getter to return the seat of the Player whose turn it is
+     * @return the seat of the current Player
+     */
+    public int currentSeat() {
+        return this.seat;
+    }
+
+    /**
+     * Getter to return the phase of the turn of the current Player
+     * @return one of the PHASE constants
+     */
+    public int phase() {
+        return this.phase;
+    }
+
+    /**
+     * Getter to return the number of actions played with {@link #make(int)} that can still be unmade
+     * @return the number of actions that can be unmade
+     */
+    public int undoDepth() {
+        return this.undoDepth;
+    }
+
+    /**
+     * Method to find the victory points a Player would have if the game ended in the current position,
+     * used by searches to judge positions before the end of the game
+     * @param seat the seat of the Player
+     * @return the victory points of the Player with every card scored, or the final score once the game is over
+     */
+    public int projectedScore(int seat) {
+        if (this.over) {
+            return this.scores[seat];
+        }
+        Player player = this.seats[seat];
+        int points = player.victoryPoints();
+        List<PersonalityCard> cards = player.cards();
+        for (int i = 0; i < cards.size(); i++) {
+            points += cards.get(i).calculatePoints();
+        }
+        return points;
+    }
+
+    /**
+     * Getter to return the number of actions played since the game started
+     * @return the number of actions played
+     */
+    public int historySize() {
+        return this.historySize;
+    }
+
+    /**
+     * Getter to return one of the actions played since the game started
+     * @param index the index of the action, 0 for the first action of the game
+     * @return the action encoded as in {@link Action}
+     */
+    public int history(int index) {
+        if (index < 0 || index >= this.historySize) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + this.historySize + " actions");
+        }
+        return this.history[index];
+    }
+
+    /**
+     * Getter to return the topology of the map every game of this GameEngine is played on
+     * @return the topology of the map
+     */
+    public MapTopology topology() {
+        return this.topology;
+    }
+
+    /**
+     * Getter to return the number of turns played so far
+     * @return the number of turns
+     */
+    public int turns() {
+        return this.turns;
+    }
+
+    /**
+     * Getter to return the seed of the game being played
+     * @return the seed of the game
+     */
+    public long seed() {
+        return this.seed;
+    }
+
+    /**
+     * Getter to return the Zobrist hash of the position, which is the hash of the Game combined with what is
+     * left of the turn being played, so positions in the middle of the action of a card are told apart
+     * @return the 64 bit hash of the position
+     */
+    public long hash() {
+        return this.game.hash() ^ Zobrist.turn(this.phase, turnDetails());
+    }
+
+    /**
+     * Method to pack what is left of the action in the current phase into an int, only what matters to the
+     * phase is packed so that the same position always gets the same hash
+     * @return the steps, purchases or traded Goods left in the current phase, 0 in the other phases
+     */
+    private int turnDetails() {
+        return switch (this.phase) {
+            case PHASE_MOVE -> this.budget;
+            case PHASE_BUY -> this.purchases | (this.noSurcharge ? 1 << 4 : 0);
+            case PHASE_TRADE -> this.boughtGoods | this.soldGoods << 8;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Getter to return whether the game is over
+     * @return whether the game is over
+     */
+    public boolean isOver() {
+        return this.over;
+    }
+
+    /**
+     * Plays games between RandomAgents and prints how many games were played per second, the first quarter
+     * of the games are played before the clock starts to warm up the JIT
+     * {@code [players] [games]}
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        GameEngine engine = new GameEngine(players);
+        Agent[] agents = new Agent[players];
+        for (int i = 0; i < players; i++) {
+            agents[i] = new RandomAgent();
+        }
+        for (int i = 0; i < games / 4; i++) {
+            engine.play(i, agents);
+        }
+        long turns = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            turns += engine.play(i, agents).turns();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d games of %d players in %.2fs: %.0f games/s, %.1f turns per game%n",
+                games, players, seconds, games / seconds, (double) turns / games);
+    }
+}
@@ -0,0 +1,144 @@
+package src.game.engine;
+
+//  imports
+import java.util.Arrays;
+
+/**
+ * A class to represent the immutable result of one game played by a GameEngine
+ * @author devinlinux
+ */
+public final class GameResult {
+
+    /**
+     * The seed the game was played from
+     */
+    private final long seed;
+
+    /**
+     * The final victory points of each seat
+     */
+    private final int[] scores;
+
+    /**
+     * The seat with the most victory points, ties go to the seat with the most sestertii and then
+     * to the earlier seat
+     */
+    private final int winner;
+
+    /**
+     * The number of turns played in the game
+     */
+    private final int turns;
+
+    /**
+     * Whether the game reached its end by the rules instead of being stopped at the turn limit
+     */
+    private final boolean finished;
+
+    /**
+     * Constructor to make a new GameResult
+     * @param seed the seed the game was played from
+     * @param scores the final victory points of each seat, copied
+     * @param winner the seat that won the game
+     * @param turns the number of turns played
+     * @param finished whether the game reached its end by the rules
+     */
+    public GameResult(long seed, int[] scores, int winner, int turns, boolean finished) {
+        this.seed = seed;
+        this.scores = scores.clone();
+        this.winner = winner;
+        this.turns = turns;
+        this.finished = finished;
+    }
+
+    /**
+     * Getter to return the seed the game was played from
+     * @return the seed of the game
+     */
+    public long seed() {
+        return this.seed;
+    }
+
+    /**
+     * Getter to return the number of seats of the game
+     * @return the number of players
+     */
+    public int numPlayers() {
+        return this.scores.length;
+    }
+
+    /**
+     * Getter to return the final victory points of a seat
+     * @param seat the seat
+     * @return the victory points of the seat
+     */
+    public int score(int seat) {
+        return this.scores[seat];
+    }
+
+    /**
+     * Getter to return the final victory points of every seat
+     * @return a copy of the victory points indexed by seat
+     */
+    public int[] scores() {
+        return this.scores.clone();
+    }
+
+    /**
+     * Getter to return the seat that won the game
+     * @return the winning seat
+     */
+    public int winner() {
+        return this.winner;
+    }
+
+    /**
+     * Getter to return the number of turns played in the game
+     * @return the number of turns
+     */
+    public int turns() {
+        return this.turns;
+    }
+
+    /**
+     * Getter to return whether the game reached its end by the rules
+     * @return false if the game was stopped at the turn limit
+     */
+    public boolean finished() {
+        return this.finished;
+    }
+
+    /**
+     * equals method to check whether this GameResult is the same as another object
+     * @param obj the object to compare to
+     * @return whether the object is a GameResult of the same game with the same outcome
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof GameResult other
+                && other.seed == this.seed
+                && other.winner == this.winner
+                && other.turns == this.turns
+                && other.finished == this.finished
+                && Arrays.equals(other.scores, this.scores);
+    }
+
+    /**
+     * hashCode method to return a hash code of this GameResult
+     * @return the hash code of this GameResult
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(this.seed) + Arrays.hashCode(this.scores);
+    }
+
+    /**
+     * toString method to return a String representation of a GameResult
+     * @return a String representation of this GameResult
+     */
+    @Override
+    public String toString() {
+        return String.format("GameResult[seed=%d, scores=%s, winner=%d, turns=%d%s]",
+                this.seed, Arrays.toString(this.scores), this.winner, this.turns, this.finished ? "" : ", unfinished");
+    }
+}
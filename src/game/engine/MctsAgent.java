@@ -0,0 +1,445 @@
+package src.game.engine;
+
+//  imports
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * An Agent that chooses its actions with a Monte Carlo tree search over the legal actions of a GameEngine
+ * The search is root parallel: each of its workers has its own GameEngine, SearchTree and random number
+ * generator and searches the position on its own, and the action visited most by all the workers together is
+ * played. A worker brings its GameEngine to the position with {@link GameEngine#copyFrom(GameEngine)} and
+ * plays the search with {@link GameEngine#make(int)} and {@link GameEngine#unmake()}, so the GameEngine of the
+ * game is never touched
+ * Between two moves every worker keeps the subtree of the position it reaches, so what was searched for the
+ * actions the other Players actually chose is reused
+ * Each search stops after an iteration budget shared by the workers, a time budget, or whichever comes first.
+ * A playout plays random actions for at most a number of steps and then rewards every seat by how far its
+ * {@link GameEngine#projectedScore(int)} is ahead of the best other seat
+ * A search is fair by default: every iteration first samples the hidden draw pile again with
+ * {@link GameEngine#determinize(SplittableRandom)}, and the iterations of every sample share one tree, each
+ * only descending through the children whose actions are legal in its sample. A worker is a batch of
+ * determinizations, so the batches run in parallel and their root statistics are summed. A node gets a child
+ * for an action the first time a sample in which it is legal reaches it, and each child counts the samples it
+ * was legal in so actions that are rarely legal are not explored more for being rarely tried
+ * With an iteration budget and no time budget the choices only depend on the seed given to
+ * {@link #startGame(GameEngine, int, long)}, so games with MctsAgents can be replayed
+ * @author devinlinux
+ */
+public final class MctsAgent implements Agent {
+
+    /**
+     * The iteration budget of an MctsAgent made with no arguments
+     */
+    public static final int DEFAULT_ITERATIONS = 2000;
+
+    /**
+     * The most nodes of each SearchTree of an MctsAgent made with no arguments
+     */
+    public static final int DEFAULT_NODES = 1 << 18;
+
+    /**
+     * The most random actions of a playout of an MctsAgent made with no arguments
+     */
+    public static final int DEFAULT_PLAYOUT_STEPS = 256;
+
+    /**
+     * How much unexplored actions are favoured over actions with high rewards
+     */
+    private static final double EXPLORATION = 0.7;
+
+    /**
+     * The number of iterations between two checks of the time budget
+     */
+    private static final int CLOCK_INTERVAL = 32;
+
+    /**
+     * The most iterations of one search, 0 for no iteration budget
+     */
+    private final int iterations;
+
+    /**
+     * The most milliseconds of one search, 0 for no time budget
+     */
+    private final long millis;
+
+    /**
+     * The most nodes of the SearchTree of each worker
+     */
+    private final int nodes;
+
+    /**
+     * The most random actions of a playout
+     */
+    private final int playoutSteps;
+
+    /**
+     * The pool the workers search on when there is more than one
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Whether the hidden draw pile is sampled again for every iteration instead of searched as it really is
+     */
+    private final boolean determinized;
+
+    /**
+     * The workers, made at the start of a game once the map and number of players are known
+     */
+    private final Worker[] workers;
+
+    /**
+     * The number of visits of each legal action summed over the workers, reused by every choice
+     */
+    private final int[] totals;
+
+    /**
+     * Constructor to make a new fair MctsAgent with one worker, {@link #DEFAULT_ITERATIONS} iterations per move
+     * and no time budget
+     */
+    public MctsAgent() {
+        this(1, DEFAULT_ITERATIONS, 0L);
+    }
+
+    /**
+     * Constructor to make a new fair MctsAgent that searches on the common ForkJoinPool
+     * @param threads the number of workers
+     * @param iterations the most iterations of one search shared by the workers, 0 for no iteration budget
+     * @param millis the most milliseconds of one search, 0 for no time budget
+     */
+    public MctsAgent(int threads, int iterations, long millis) {
+        this(threads, iterations, millis, DEFAULT_NODES, DEFAULT_PLAYOUT_STEPS, ForkJoinPool.commonPool(), true);
+    }
+
+    /**
+     * Constructor to make a new MctsAgent
+     * @param threads the number of workers
+     * @param iterations the most iterations of one search shared by the workers, 0 for no iteration budget
+     * @param millis the most milliseconds of one search, 0 for no time budget
+     * @param nodes the most nodes of the SearchTree of each worker
+     * @param playoutSteps the most random actions of a playout
+     * @param pool the pool the workers search on when there is more than one
+     * @param determinized whether the hidden draw pile is sampled again for every iteration, if not the search
+     *                     sees the real draw pile
+     * @throws IllegalArgumentException if there is no worker or neither budget
+     */
+    public MctsAgent(int threads, int iterations, long millis, int nodes, int playoutSteps, ForkJoinPool pool,
+                     boolean determinized) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("An MctsAgent needs at least one worker");
+        }
+        if (iterations <= 0 && millis <= 0) {
+            throw new IllegalArgumentException("An MctsAgent needs an iteration or a time budget");
+        }
+        this.iterations = Math.max(iterations, 0);
+        this.millis = Math.max(millis, 0L);
+        this.nodes = nodes;
+        this.playoutSteps = playoutSteps;
+        this.pool = pool;
+        this.determinized = determinized;
+        this.workers = new Worker[threads];
+        this.totals = new int[GameEngine.MAX_ACTIONS];
+    }
+
+    /**
+     * Method to prepare the workers for a new game, they are only made again if the map or number of
+     * players changed
+     * @param engine the GameEngine the game is played on
+     * @param seat the seat this Agent plays
+     * @param seed the seed for the random decisions of this Agent in this game
+     */
+    @Override
+    public void startGame(GameEngine engine, int seat, long seed) {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int i = 0; i < this.workers.length; i++) {
+            Worker worker = this.workers[i];
+            if (worker == null || worker.engine.numPlayers() != engine.numPlayers() || worker.engine.topology() != engine.topology()) {
+                this.workers[i] = worker = new Worker(engine, this.nodes, this.determinized);
+            }
+            worker.start(seeds.split());
+        }
+    }
+
+    /**
+     * Method to search the current position and choose the action the workers visited most
+     * @param engine the GameEngine the game is played on
+     * @param actions the legal actions
+     * @param count the number of legal actions
+     * @return the index of the chosen action
+     */
+    @Override
+    public int choose(GameEngine engine, int[] actions, int count) {
+        if (count == 1) {
+            return 0;
+        }
+        if (this.workers[0] == null) {
+            startGame(engine, engine.currentSeat(), engine.seed());
+        }
+        long deadline = this.millis > 0 ? System.nanoTime() + this.millis * 1_000_000L : Long.MAX_VALUE;
+        int threads = this.workers.length;
+        if (threads == 1) {
+            this.workers[0].search(engine, this.iterations, deadline, this.playoutSteps);
+        } else {
+            int share = this.iterations == 0 ? 0 : Math.max(1, (this.iterations + threads - 1) / threads);
+            this.pool.submit(() -> IntStream.range(0, threads).parallel().forEach(i ->
+                    this.workers[i].search(engine, share, deadline, this.playoutSteps))).join();
+        }
+        int best = 0;
+        for (int i = 0; i < count; i++) {
+            this.totals[i] = 0;
+            for (Worker worker : this.workers) {
+                int child = worker.tree.child(0, actions[i]);
+                if (child >= 0) {
+                    this.totals[i] += worker.tree.visits(child);
+                }
+            }
+            if (this.totals[i] > this.totals[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Getter to return the SearchTree of a worker, rooted at the position of the last search
+     * @param worker the index of the worker
+     * @return the SearchTree, or null before the first game
+     */
+    public SearchTree tree(int worker) {
+        return this.workers[worker] == null ? null : this.workers[worker].tree;
+    }
+
+    /**
+     * One searcher of an MctsAgent with everything it changes during a search, so workers never share state
+     */
+    private static final class Worker {
+
+        /**
+         * The GameEngine the worker searches on, at the position of the root of its tree between searches
+         */
+        private final GameEngine engine;
+
+        /**
+         * The tree of the worker
+         */
+        private final SearchTree tree;
+
+        /**
+         * The legal actions of a position, reused by every step of the search
+         */
+        private final int[] actions;
+
+        /**
+         * The reward of each seat for the playout being backed up
+         */
+        private final float[] rewards;
+
+        /**
+         * The nodes from the root to the node being searched
+         */
+        private int[] path;
+
+        /**
+         * The random number generator of the playouts and samples
+         */
+        private SplittableRandom random;
+
+        /**
+         * Whether the hidden draw pile is sampled again for every iteration
+         */
+        private final boolean determinized;
+
+        /**
+         * Constructor to make a new Worker for the games of a GameEngine
+         * @param engine the GameEngine the games are played on
+         * @param nodes the most nodes of the tree
+         * @param determinized whether the hidden draw pile is sampled again for every iteration
+         */
+        Worker(GameEngine engine, int nodes, boolean determinized) {
+            this.determinized = determinized;
+            this.engine = new GameEngine(engine.numPlayers(), engine.topology());
+            this.tree = new SearchTree(nodes);
+            this.actions = new int[GameEngine.MAX_ACTIONS];
+            this.rewards = new float[engine.numPlayers()];
+            this.path = new int[256];
+        }
+
+        /**
+         * Method to forget the tree of the last game and seed the playouts of a new one
+         * @param random the random number generator of the playouts
+         */
+        void start(SplittableRandom random) {
+            this.random = random;
+            this.tree.clear();
+        }
+
+        /**
+         * Method to search the position of a GameEngine, keeping the subtree of that position if the root
+         * of the tree is an earlier position of the same game
+         * @param game the GameEngine the game is played on
+         * @param iterations the most iterations, 0 for no iteration budget
+         * @param deadline the value of {@link System#nanoTime()} to stop at
+         * @param playoutSteps the most random actions of a playout
+         */
+        void search(GameEngine game, int iterations, long deadline, int playoutSteps) {
+            int from = this.engine.historySize();
+            int node = from > 0 && from <= game.historySize() && this.engine.seed() == game.seed() ? 0 : -1;
+            for (int i = 0; i < from && node >= 0; i++) {
+                node = this.engine.history(i) == game.history(i) ? 0 : -1;
+            }
+            this.engine.copyFrom(game);
+            for (int i = from; i < game.historySize() && node >= 0; i++) {
+                node = this.tree.child(node, game.history(i));
+            }
+            if (node >= 0) {
+                this.tree.reroot(node);
+            } else {
+                this.tree.clear();
+            }
+            for (int i = 0; iterations == 0 || i < iterations; i++) {
+                if (i % CLOCK_INTERVAL == 0 && System.nanoTime() >= deadline) {
+                    break;
+                }
+                iterate(playoutSteps);
+            }
+        }
+
+        /**
+         * Method to run one iteration: sample the hidden draw pile if the search is fair, select a path down the
+         * tree, expand its last node, play out the rest of the game at random, take every action back and add
+         * the rewards to every node of the path
+         * A fair search keeps the children of every node sorted by action, adds the legal actions of its sample
+         * that a node on the path has no child for and selects only among the legal children, the descent only
+         * stops early if the tree is full
+         * @param playoutSteps the most random actions of the playout
+         */
+        private void iterate(int playoutSteps) {
+            GameEngine engine = this.engine;
+            SearchTree tree = this.tree;
+            if (this.determinized) {
+                engine.determinize(this.random);
+            }
+            int node = 0;
+            int depth = 0;
+            this.path[depth++] = node;
+            while (tree.isExpanded(node) && !engine.isOver()) {
+                int child;
+                if (this.determinized) {
+                    int count = engine.legalActions(this.actions);
+                    Arrays.sort(this.actions, 0, count);
+                    tree.addChildren(node, this.actions, count, engine.currentSeat());
+                    child = tree.select(node, EXPLORATION, this.actions, count);
+                } else {
+                    child = tree.select(node, EXPLORATION);
+                }
+                if (child < 0) {
+                    break;
+                }
+                node = child;
+                engine.make(tree.action(node));
+                depth = visit(depth, node);
+            }
+            if (!engine.isOver() && !tree.isExpanded(node) && (node == 0 || tree.visits(node) > 0)) {
+                int count = engine.legalActions(this.actions);
+                if (this.determinized) {
+                    Arrays.sort(this.actions, 0, count);
+                }
+                if (tree.expand(node, this.actions, count, engine.currentSeat())) {
+                    node = this.determinized ? tree.select(node, EXPLORATION, this.actions, count) : tree.select(node, EXPLORATION);
+                    engine.make(tree.action(node));
+                    depth = visit(depth, node);
+                }
+            }
+            for (int step = 0; step < playoutSteps && !engine.isOver(); step++) {
+                int count = engine.legalActions(this.actions);
+                engine.make(this.actions[count == 1 ? 0 : this.random.nextInt(count)]);
+            }
+            reward();
+            while (engine.undoDepth() > 0) {
+                engine.unmake();
+            }
+            for (int i = 0; i < depth; i++) {
+                tree.update(this.path[i], this.rewards);
+            }
+        }
+
+        /**
+         * Method to add a node to the path, growing the path if needed
+         * @param depth the number of nodes on the path
+         * @param node the node
+         * @return the new number of nodes on the path
+         */
+        private int visit(int depth, int node) {
+            if (depth == this.path.length) {
+                this.path = Arrays.copyOf(this.path, depth * 2);
+            }
+            this.path[depth] = node;
+            return depth + 1;
+        }
+
+        /**
+         * Method to reward every seat for the position a playout ended in, by how far its projected score is
+         * ahead of the best other seat: 1 for winning by as much as its own score or more, 0.5 for a tie
+         * and 0 for having no points while another seat has some
+         */
+        private void reward() {
+            int seats = this.rewards.length;
+            int best = Integer.MIN_VALUE;
+            int second = Integer.MIN_VALUE;
+            int bestSeat = -1;
+            for (int seat = 0; seat < seats; seat++) {
+                int score = this.engine.projectedScore(seat);
+                this.rewards[seat] = score;
+                if (score > best) {
+                    second = best;
+                    best = score;
+                    bestSeat = seat;
+                } else if (score > second) {
+                    second = score;
+                }
+            }
+            for (int seat = 0; seat < seats; seat++) {
+                float score = this.rewards[seat];
+                float other = seat == bestSeat ? second : best;
+                float scale = 2f * Math.max(1f, Math.max(score, other));
+                this.rewards[seat] = Math.min(1f, Math.max(0f, 0.5f + (score - other) / scale));
+            }
+        }
+    }
+
+    /**
+     * Plays a Tournament of one MctsAgent against RandomAgents and prints its statistics, entrant 0 is the
+     * MctsAgent and every game is played on one thread
+     * {@code [players] [games] [iterations] [threads] [--perfect]}, with {@code --perfect} the MctsAgent sees
+     * the real draw pile
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_ITERATIONS;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        boolean perfect = args.length > 4 && args[4].equals("--perfect");
+        List<Supplier<? extends Agent>> entrants = new ArrayList<>(players);
+        entrants.add(() -> new MctsAgent(1, iterations, 0L, DEFAULT_NODES, DEFAULT_PLAYOUT_STEPS,
+                ForkJoinPool.commonPool(), !perfect));
+        for (int i = 1; i < players; i++) {
+            entrants.add(RandomAgent::new);
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long start = System.nanoTime();
+            TournamentStats stats = new Tournament(entrants, true).run(0L, games, pool);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.print(stats);
+            System.out.printf("%.2fs on %d threads, %.2f games/s%n", seconds, threads, games / seconds);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
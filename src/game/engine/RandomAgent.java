@@ -0,0 +1,46 @@
+package src.game.engine;
+
+//  imports
+import java.util.SplittableRandom;
+
+/**
+ * An Agent that chooses uniformly among the legal actions
+ * @author devinlinux
+ */
+public final class RandomAgent implements Agent {
+
+    /**
+     * The random number generator this Agent chooses with, seeded again at the start of every game
+     */
+    private SplittableRandom random;
+
+    /**
+     * Constructor to make a new RandomAgent
+     */
+    public RandomAgent() {
+        this.random = new SplittableRandom(0L);
+    }
+
+    /**
+     * Method to seed this Agent for a new game
+     * @param engine the GameEngine the game is played on
+     * @param seat the seat this Agent plays
+     * @param seed the seed for the random decisions of this Agent in this game
+     */
+    @Override
+    public void startGame(GameEngine engine, int seat, long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Method to choose one of the legal actions at random
+     * @param engine the GameEngine the game is played on
+     * @param actions the legal actions
+     * @param count the number of legal actions
+     * @return the index of the chosen action
+     */
+    @Override
+    public int choose(GameEngine engine, int[] actions, int count) {
+        return count == 1 ? 0 : this.random.nextInt(count);
+    }
+}
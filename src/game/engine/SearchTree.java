@@ -0,0 +1,445 @@
+package src.game.engine;
+
+//  imports
+import java.util.Arrays;
+
+/**
+ * A class to hold the tree of a Monte Carlo tree search in preallocated primitive arrays instead of one object
+ * per node, so that a tree of a million nodes takes about 46 megabytes and growing it never allocates
+ * Node i is described by element i of every array. The children of a node are expanded all at once into a
+ * contiguous block, so a node only keeps where its block starts and how long it is. When a search that
+ * samples hidden information finds legal actions a node has no child for, {@link #addChildren(int, int[], int, int)}
+ * moves the block to the end of the tree with the new children, the old block is left unused until the
+ * next {@link #reroot(int)}
+ * Every node keeps the statistics of the action leading to it from the point of view of the seat that chose
+ * it, so a search can pick the best child for whoever is to move
+ * The root is always node 0. When the game moves on, {@link #reroot(int)} copies the subtree of the new
+ * position into a second set of arrays so the statistics already gathered for it are kept
+ * @author devinlinux
+ */
+public final class SearchTree {
+
+    /**
+     * The first child of a node that has not been expanded
+     */
+    private static final int UNEXPANDED = -1;
+
+    /**
+     * The most nodes this tree can hold
+     */
+    private final int capacity;
+
+    /**
+     * The action leading to each node, encoded as in {@link Action}
+     */
+    private int[] action;
+
+    /**
+     * The seat that chose the action leading to each node
+     */
+    private byte[] mover;
+
+    /**
+     * The first child of each node, or {@link #UNEXPANDED}
+     */
+    private int[] firstChild;
+
+    /**
+     * The number of children of each node
+     */
+    private short[] numChildren;
+
+    /**
+     * The number of times each node was visited
+     */
+    private int[] visits;
+
+    /**
+     * The sum of the rewards of every visit of each node for the seat that chose it
+     */
+    private float[] reward;
+
+    /**
+     * The number of times the action leading to each node was legal when its parent was searched by
+     * {@link #select(int, double, int[], int)}
+     */
+    private int[] available;
+
+    /**
+     * The arrays a subtree is copied into by {@link #reroot(int)}, made the first time they are needed
+     */
+    private SearchTree spare;
+
+    /**
+     * The number of nodes in use
+     */
+    private int size;
+
+    /**
+     * Constructor to make a new SearchTree holding only an empty root
+     * @param capacity the most nodes the tree can hold, at least 1
+     */
+    public SearchTree(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A SearchTree must hold at least its root");
+        }
+        this.capacity = capacity;
+        this.action = new int[capacity];
+        this.mover = new byte[capacity];
+        this.firstChild = new int[capacity];
+        this.numChildren = new short[capacity];
+        this.visits = new int[capacity];
+        this.reward = new float[capacity];
+        this.available = new int[capacity];
+        clear();
+    }
+
+    /**
+     * Method to throw away every node but an empty root
+     */
+    public void clear() {
+        this.size = 1;
+        this.action[0] = Action.of(Action.END);
+        this.mover[0] = -1;
+        this.firstChild[0] = UNEXPANDED;
+        this.numChildren[0] = 0;
+        this.visits[0] = 0;
+        this.reward[0] = 0f;
+        this.available[0] = 0;
+    }
+
+    /**
+     * Method to give a node one child for every legal action of its position
+     * @param node the node, must not be expanded yet
+     * @param actions the legal actions of the position of the node
+     * @param count the number of legal actions
+     * @param seat the seat to move in the position of the node
+     * @return whether the node was expanded, false if the tree has no room left for the children
+     */
+    public boolean expand(int node, int[] actions, int count, int seat) {
+        if (this.size + count > this.capacity) {
+            return false;
+        }
+        int first = this.size;
+        for (int i = 0; i < count; i++) {
+            newNode(first + i, actions[i], seat);
+        }
+        this.firstChild[node] = first;
+        this.numChildren[node] = (short) count;
+        this.size += count;
+        return true;
+    }
+
+    /**
+     * Method to give an expanded node a child for every legal action it has no child for yet, for searches
+     * where the same node is reached in positions with different legal actions
+     * If any child is missing the block of children is copied to the end of the tree with the new children,
+     * the children keep their order so both must be sorted in ascending order of their actions
+     * @param node the node, must be expanded with its children sorted by action
+     * @param actions the legal actions of the position, sorted in ascending order
+     * @param count the number of legal actions
+     * @param seat the seat to move in the position of the node
+     * @return whether every legal action has a child, false if the tree has no room left for the new block
+     */
+    public boolean addChildren(int node, int[] actions, int count, int seat) {
+        int first = this.firstChild[node];
+        int last = first + this.numChildren[node];
+        int missing = 0;
+        for (int i = 0, child = first; i < count; i++) {
+            while (child < last && this.action[child] < actions[i]) {
+                child++;
+            }
+            if ((child == last || this.action[child] != actions[i]) && (i == 0 || actions[i - 1] != actions[i])) {
+                missing++;
+            }
+        }
+        if (missing == 0) {
+            return true;
+        }
+        int total = last - first + missing;
+        if (this.size + total > this.capacity || total > Short.MAX_VALUE) {
+            return false;
+        }
+        int at = this.size;
+        int i = 0;
+        int child = first;
+        while (i < count || child < last) {
+            if (i > 0 && i < count && actions[i - 1] == actions[i]) {
+                i++;
+            } else if (child < last && (i == count || this.action[child] <= actions[i])) {
+                if (i < count && this.action[child] == actions[i]) {
+                    i++;
+                }
+                copyNode(at++, this, child++);
+            } else {
+                newNode(at++, actions[i++], seat);
+            }
+        }
+        this.firstChild[node] = this.size;
+        this.numChildren[node] = (short) total;
+        this.size = at;
+        return true;
+    }
+
+    /**
+     * Method to write a node that was never visited
+     * @param node the node to write
+     * @param action the action leading to the node
+     * @param seat the seat that chooses the action
+     */
+    private void newNode(int node, int action, int seat) {
+        this.action[node] = action;
+        this.mover[node] = (byte) seat;
+        this.firstChild[node] = UNEXPANDED;
+        this.numChildren[node] = 0;
+        this.visits[node] = 0;
+        this.reward[node] = 0f;
+        this.available[node] = 0;
+    }
+
+    /**
+     * Method to choose the child of a node to search next with the UCT formula, children that were never
+     * visited come first
+     * @param node the node, must be expanded
+     * @param exploration how much unexplored children are favoured over children with high rewards
+     * @return the chosen child
+     */
+    public int select(int node, double exploration) {
+        int first = this.firstChild[node];
+        int last = first + this.numChildren[node];
+        double logVisits = Math.log(Math.max(1, this.visits[node]));
+        int best = first;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < last; child++) {
+            int n = this.visits[child];
+            if (n == 0) {
+                return child;
+            }
+            double score = this.reward[child] / n + exploration * Math.sqrt(logVisits / n);
+            if (score > bestScore) {
+                best = child;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Method to choose the child of a node to search next among the children whose action is legal, for
+     * searches where the same node is reached in positions with different legal actions
+     * Every legal child counts that it was available, and the UCT formula uses that count instead of the
+     * visits of the node so a child that is rarely legal is not explored more for it. Children that were never
+     * visited come first
+     * @param node the node, must be expanded
+     * @param exploration how much unexplored children are favoured over children with high rewards
+     * @param legal the legal actions of the position, sorted in ascending order
+     * @param count the number of legal actions
+     * @return the chosen child, or -1 if none of the children is legal
+     */
+    public int select(int node, double exploration, int[] legal, int count) {
+        int first = this.firstChild[node];
+        int last = first + this.numChildren[node];
+        int unvisited = -1;
+        int best = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < last; child++) {
+            if (Arrays.binarySearch(legal, 0, count, this.action[child]) < 0) {
+                continue;
+            }
+            int available = ++this.available[child];
+            int n = this.visits[child];
+            if (n == 0) {
+                if (unvisited < 0) {
+                    unvisited = child;
+                }
+                continue;
+            }
+            double score = this.reward[child] / n + exploration * Math.sqrt(Math.log(available) / n);
+            if (score > bestScore) {
+                best = child;
+                bestScore = score;
+            }
+        }
+        return unvisited >= 0 ? unvisited : best;
+    }
+
+    /**
+     * Method to add the result of one visit to a node
+     * @param node the node
+     * @param rewards the reward of each seat, the node takes the reward of the seat that chose it
+     */
+    public void update(int node, float[] rewards) {
+        this.visits[node]++;
+        if (this.mover[node] >= 0) {
+            this.reward[node] += rewards[this.mover[node]];
+        }
+    }
+
+    /**
+     * Method to find the child of a node reached by an action
+     * @param node the node
+     * @param action the action encoded as in {@link Action}
+     * @return the child, or -1 if the node is not expanded or has no child for the action
+     */
+    public int child(int node, int action) {
+        int first = this.firstChild[node];
+        if (first == UNEXPANDED) {
+            return -1;
+        }
+        for (int child = first, last = first + this.numChildren[node]; child < last; child++) {
+            if (this.action[child] == action) {
+                return child;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Method to make a node the new root, keeping only its subtree
+     * The subtree is copied breadth first into the spare arrays, which then become the arrays of this tree,
+     * so every block of children stays contiguous
+     * @param node the node to make the root, 0 keeps the tree as it is
+     */
+    public void reroot(int node) {
+        if (node == 0) {
+            return;
+        }
+        if (this.spare == null) {
+            this.spare = new SearchTree(this.capacity);
+        }
+        SearchTree to = this.spare;
+        to.copyNode(0, this, node);
+        to.size = 1;
+        for (int next = 0; next < to.size; next++) {
+            int from = to.firstChild[next];
+            if (from == UNEXPANDED) {
+                continue;
+            }
+            int count = to.numChildren[next];
+            to.firstChild[next] = to.size;
+            for (int i = 0; i < count; i++) {
+                to.copyNode(to.size + i, this, from + i);
+            }
+            to.size += count;
+        }
+        to.mover[0] = -1;
+        swap(to);
+    }
+
+    /**
+     * Method to copy one node of another tree, its first child still points into the other tree
+     * @param at the node of this tree to write
+     * @param from the tree to copy from
+     * @param node the node of the other tree
+     */
+    private void copyNode(int at, SearchTree from, int node) {
+        this.action[at] = from.action[node];
+        this.mover[at] = from.mover[node];
+        this.firstChild[at] = from.firstChild[node];
+        this.numChildren[at] = from.numChildren[node];
+        this.visits[at] = from.visits[node];
+        this.reward[at] = from.reward[node];
+        this.available[at] = from.available[node];
+    }
+
+    /**
+     * Method to exchange the arrays and size of this tree with those of its spare
+     * @param other the spare tree
+     */
+    private void swap(SearchTree other) {
+        int[] action = this.action;
+        byte[] mover = this.mover;
+        int[] firstChild = this.firstChild;
+        short[] numChildren = this.numChildren;
+        int[] visits = this.visits;
+        float[] reward = this.reward;
+        int[] available = this.available;
+        int size = this.size;
+        this.action = other.action;
+        this.mover = other.mover;
+        this.firstChild = other.firstChild;
+        this.numChildren = other.numChildren;
+        this.visits = other.visits;
+        this.reward = other.reward;
+        this.available = other.available;
+        this.size = other.size;
+        other.action = action;
+        other.mover = mover;
+        other.firstChild = firstChild;
+        other.numChildren = numChildren;
+        other.visits = visits;
+        other.reward = reward;
+        other.available = available;
+        other.size = size;
+    }
+
+    /**
+     * Getter to return whether a node has been expanded
+     * @param node the node
+     * @return whether the node has children
+     */
+    public boolean isExpanded(int node) {
+        return this.firstChild[node] != UNEXPANDED;
+    }
+
+    /**
+     * Getter to return the first child of a node
+     * @param node the node, must be expanded
+     * @return the first child
+     */
+    public int firstChild(int node) {
+        return this.firstChild[node];
+    }
+
+    /**
+     * Getter to return the number of children of a node
+     * @param node the node
+     * @return the number of children, 0 if the node is not expanded
+     */
+    public int numChildren(int node) {
+        return this.numChildren[node];
+    }
+
+    /**
+     * Getter to return the action leading to a node
+     * @param node the node
+     * @return the action encoded as in {@link Action}
+     */
+    public int action(int node) {
+        return this.action[node];
+    }
+
+    /**
+     * Getter to return the number of times a node was visited
+     * @param node the node
+     * @return the visit count
+     */
+    public int visits(int node) {
+        return this.visits[node];
+    }
+
+    /**
+     * Getter to return the mean reward of a node for the seat that chose it
+     * @param node the node
+     * @return the mean reward, 0 if the node was never visited
+     */
+    public double meanReward(int node) {
+        return this.visits[node] == 0 ? 0.0 : this.reward[node] / this.visits[node];
+    }
+
+    /**
+     * Getter to return the number of nodes in use
+     * @return the number of nodes
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Getter to return the most nodes this tree can hold
+     * @return the capacity in nodes
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+}
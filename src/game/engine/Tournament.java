@@ -0,0 +1,229 @@
+package src.game.engine;
+
+//  imports
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * A class to play many headless games between the same entrants across every core and aggregate the results
+ * Each entrant is a factory of Agents, so every worker thread gets its own Agents and no Agent is shared
+ * between threads. Entrant i plays seat i, or with seat rotation every deal is played once in each rotation
+ * of the seats so that no entrant profits from its seat
+ * The games are split into ranges on a work-stealing ForkJoinPool, each range plays its games on its own
+ * GameEngine into its own TournamentStats which is merged once the range is done, so finished games are
+ * never kept. The seed of every game only depends on the base seed and the index of the game, so a
+ * Tournament gives the same statistics whatever the number of threads
+ * @author devinlinux
+ */
+public final class Tournament {
+
+    /**
+     * The number of games below which a range of games is played instead of split
+     */
+    private static final int GAMES_PER_TASK = 32;
+
+    /**
+     * The factories of the Agents of each entrant, one entrant per seat
+     */
+    private final List<Supplier<? extends Agent>> entrants;
+
+    /**
+     * Whether each deal is played once in every rotation of the seats
+     */
+    private final boolean rotateSeats;
+
+    /**
+     * Constructor to make a new Tournament
+     * @param entrants the factories of the Agents of each entrant, there must be between 2 and 5 and
+     *                 an entrant may appear more than once
+     * @param rotateSeats whether each deal is played once in every rotation of the seats
+     */
+    public Tournament(List<Supplier<? extends Agent>> entrants, boolean rotateSeats) {
+        if (entrants.size() < GameEngine.MIN_PLAYERS || entrants.size() > GameEngine.MAX_PLAYERS) {
+            throw new IllegalArgumentException("A Tournament must have between " + GameEngine.MIN_PLAYERS
+                    + " and " + GameEngine.MAX_PLAYERS + " entrants");
+        }
+        this.entrants = List.copyOf(entrants);
+        this.rotateSeats = rotateSeats;
+    }
+
+    /**
+     * Method to play the games of this Tournament on the common ForkJoinPool
+     * @param baseSeed the seed every game seed is derived from
+     * @param games the number of games to play
+     * @return the aggregated statistics of the games
+     */
+    public TournamentStats run(long baseSeed, int games) {
+        return run(baseSeed, games, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Method to play the games of this Tournament on a ForkJoinPool
+     * @param baseSeed the seed every game seed is derived from
+     * @param games the number of games to play
+     * @param pool the pool to play the games on
+     * @return the aggregated statistics of the games
+     */
+    public TournamentStats run(long baseSeed, int games, ForkJoinPool pool) {
+        TournamentStats stats = new TournamentStats(numPlayers());
+        pool.invoke(new Games(baseSeed, 0, games, stats));
+        return stats;
+    }
+
+    /**
+     * Method to find the seed of a game of this Tournament, with seat rotation the games of one deal
+     * share their seed
+     * @param baseSeed the seed every game seed is derived from
+     * @param game the index of the game
+     * @return the seed of the game
+     */
+    public long gameSeed(long baseSeed, int game) {
+        int deal = this.rotateSeats ? game / numPlayers() : game;
+        return mix(baseSeed + 0x9E3779B97F4A7C15L * (deal + 1));
+    }
+
+    /**
+     * Method to find the seat rotation of a game of this Tournament
+     * @param game the index of the game
+     * @return the rotation, seat s is played by entrant {@code (s + rotation) % numPlayers()}
+     */
+    public int rotation(int game) {
+        return this.rotateSeats ? game % numPlayers() : 0;
+    }
+
+    /**
+     * Method to play a range of the games of this Tournament in order on one GameEngine with one Agent per
+     * entrant, as every task of {@link #run(long, int, ForkJoinPool)} does
+     * @param baseSeed the seed every game seed is derived from
+     * @param from the index of the first game
+     * @param to the index after the last game
+     * @param results given the result and the index of every game as it ends
+     */
+    void playRange(long baseSeed, int from, int to, ObjIntConsumer<GameResult> results) {
+        int players = numPlayers();
+        GameEngine engine = new GameEngine(players);
+        Agent[] agents = new Agent[players];
+        for (int i = 0; i < players; i++) {
+            agents[i] = this.entrants.get(i).get();
+        }
+        Agent[] seats = new Agent[players];
+        for (int game = from; game < to; game++) {
+            int rotation = rotation(game);
+            for (int seat = 0; seat < players; seat++) {
+                seats[seat] = agents[(seat + rotation) % players];
+            }
+            results.accept(engine.play(gameSeed(baseSeed, game), seats), game);
+        }
+    }
+
+    /**
+     * Library (static) method to scramble a seed so that consecutive games get unrelated seeds
+     * @param z the seed to scramble
+     * @return the scrambled seed
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Getter to return the number of players of every game of this Tournament
+     * @return the number of entrants
+     */
+    public int numPlayers() {
+        return this.entrants.size();
+    }
+
+    /**
+     * A task that plays a range of the games of a Tournament, splitting it while it is large so that idle
+     * threads can steal the halves
+     */
+    private final class Games extends RecursiveAction {
+
+        /**
+         * The version ID for serialization
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The seed every game seed is derived from
+         */
+        private final long baseSeed;
+
+        /**
+         * The index of the first game of the range
+         */
+        private final int from;
+
+        /**
+         * The index after the last game of the range
+         */
+        private final int to;
+
+        /**
+         * The statistics the range is merged into
+         */
+        private final TournamentStats stats;
+
+        /**
+         * Constructor to make a new task for a range of games
+         * @param baseSeed the seed every game seed is derived from
+         * @param from the index of the first game
+         * @param to the index after the last game
+         * @param stats the statistics to merge the results into
+         */
+        Games(long baseSeed, int from, int to, TournamentStats stats) {
+            this.baseSeed = baseSeed;
+            this.from = from;
+            this.to = to;
+            this.stats = stats;
+        }
+
+        /**
+         * Method to play the range of games, or split it in two
+         */
+        @Override
+        protected void compute() {
+            if (this.to - this.from > GAMES_PER_TASK) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new Games(this.baseSeed, this.from, middle, this.stats),
+                        new Games(this.baseSeed, middle, this.to, this.stats));
+                return;
+            }
+            TournamentStats local = new TournamentStats(numPlayers());
+            playRange(this.baseSeed, this.from, this.to, (result, game) -> local.record(result, rotation(game)));
+            this.stats.merge(local);
+        }
+    }
+
+    /**
+     * Plays a Tournament between RandomAgents and prints its statistics
+     * {@code [players] [games] [threads]}
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        List<Supplier<? extends Agent>> entrants = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            entrants.add(RandomAgent::new);
+        }
+        Tournament tournament = new Tournament(entrants, true);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long start = System.nanoTime();
+            TournamentStats stats = tournament.run(0L, games, pool);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.print(stats);
+            System.out.printf("%.2fs on %d threads, %.0f games/s%n", seconds, threads, games / seconds);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package src.game.engine;
+
+//  imports
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * A class to check that the games of a Tournament played at the same time on several threads do not share
+ * any state, it is run on its own and is not used by a Tournament
+ * The games are played through the same paths as {@link Tournament#run(long, int, ForkJoinPool)}: every
+ * range of games reuses one GameEngine and one Agent per entrant, so state left behind by a game or leaked
+ * between threads changes the result of a later game
+ * @author devinlinux
+ */
+public final class TournamentCheck {
+
+    /**
+     * Constructor that should never be called, this class only has a main method
+     */
+    private TournamentCheck() {
+        throw new UnsupportedOperationException("TournamentCheck cannot be instantiated");
+    }
+
+    /**
+     * Library (static) method to play every game of a Tournament in ranges on a pool, each range on its own
+     * GameEngine and Agents
+     * @param tournament the Tournament to play
+     * @param baseSeed the seed every game seed is derived from
+     * @param games the number of games to play
+     * @param ranges the number of ranges to split the games into
+     * @param pool the pool to play the ranges on
+     * @return the result of every game
+     */
+    private static GameResult[] playRanges(Tournament tournament, long baseSeed, int games, int ranges, ForkJoinPool pool) {
+        GameResult[] results = new GameResult[games];
+        pool.submit(() -> IntStream.range(0, ranges).parallel().forEach(range ->
+                tournament.playRange(baseSeed, (int) ((long) games * range / ranges),
+                        (int) ((long) games * (range + 1) / ranges), (result, game) -> results[game] = result))).join();
+        return results;
+    }
+
+    /**
+     * Plays a Tournament between RandomAgents on one thread and on several, and fails if the statistics of
+     * {@link Tournament#run(long, int, ForkJoinPool)} or the result of any game differ
+     * {@code [players] [games] [threads]}
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Math.max(2, Runtime.getRuntime().availableProcessors());
+        List<Supplier<? extends Agent>> entrants = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            entrants.add(RandomAgent::new);
+        }
+        Tournament tournament = new Tournament(entrants, true);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            TournamentStats expected = tournament.run(0L, games, single);
+            TournamentStats actual = tournament.run(0L, games, pool);
+            if (!expected.equals(actual)) {
+                System.err.printf("The statistics on 1 thread:%n%sdiffer from the statistics on %d threads:%n%s",
+                        expected, threads, actual);
+                System.exit(1);
+            }
+            GameResult[] sequential = new GameResult[games];
+            tournament.playRange(0L, 0, games, (result, game) -> sequential[game] = result);
+            GameResult[] concurrent = playRanges(tournament, 0L, games, 4 * threads, pool);
+            for (int game = 0; game < games; game++) {
+                if (!sequential[game].equals(concurrent[game])) {
+                    System.err.printf("Game %d gave %s on one engine but %s on %d threads%n",
+                            game, sequential[game], concurrent[game], threads);
+                    System.exit(1);
+                }
+            }
+            System.out.printf("All %d games gave the same results on 1 and %d threads%n", games, threads);
+        } finally {
+            single.shutdown();
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package src.game.engine;
+
+//  imports
+import java.util.Arrays;
+
+/**
+ * A class to aggregate the results of the games of a Tournament as they finish, without keeping the games
+ * Every entrant of the Tournament has its win and score statistics, overall and for each seat it played
+ * A TournamentStats is filled by one thread, the statistics of several threads are combined with
+ * {@link #merge(TournamentStats)}, which is the only method that may be called concurrently
+ * @author devinlinux
+ */
+public final class TournamentStats {
+
+    /**
+     * The number of entrants, which is also the number of seats of every game
+     */
+    private final int numEntrants;
+
+    /**
+     * The number of games recorded
+     */
+    private long games;
+
+    /**
+     * The number of games that were stopped at the turn limit before they ended
+     */
+    private long unfinished;
+
+    /**
+     * The total number of turns of the games recorded
+     */
+    private long turns;
+
+    /**
+     * The number of games won by each entrant, ties count as a win for the winner of the tiebreak
+     */
+    private final long[] wins;
+
+    /**
+     * The sum of the victory points of each entrant
+     */
+    private final long[] scoreSums;
+
+    /**
+     * The sum of the squared victory points of each entrant
+     */
+    private final long[] scoreSquares;
+
+    /**
+     * The number of games each entrant played in each seat, the entry at {@code entrant * numEntrants + seat}
+     */
+    private final long[] seatGames;
+
+    /**
+     * The number of games each entrant won in each seat, the entry at {@code entrant * numEntrants + seat}
+     */
+    private final long[] seatWins;
+
+    /**
+     * Constructor to make a new empty TournamentStats
+     * @param numEntrants the number of entrants of the Tournament
+     */
+    public TournamentStats(int numEntrants) {
+        this.numEntrants = numEntrants;
+        this.wins = new long[numEntrants];
+        this.scoreSums = new long[numEntrants];
+        this.scoreSquares = new long[numEntrants];
+        this.seatGames = new long[numEntrants * numEntrants];
+        this.seatWins = new long[numEntrants * numEntrants];
+    }
+
+    /**
+     * Method to record the result of one game
+     * @param result the result of the game
+     * @param rotation the seat rotation of the game, seat s was played by entrant {@code (s + rotation) % numEntrants}
+     */
+    public void record(GameResult result, int rotation) {
+        this.games++;
+        this.turns += result.turns();
+        if (!result.finished()) {
+            this.unfinished++;
+        }
+        for (int seat = 0; seat < this.numEntrants; seat++) {
+            int entrant = (seat + rotation) % this.numEntrants;
+            long score = result.score(seat);
+            this.scoreSums[entrant] += score;
+            this.scoreSquares[entrant] += score * score;
+            this.seatGames[entrant * this.numEntrants + seat]++;
+            if (result.winner() == seat) {
+                this.wins[entrant]++;
+                this.seatWins[entrant * this.numEntrants + seat]++;
+            }
+        }
+    }
+
+    /**
+     * Method to add the statistics of another TournamentStats of the same Tournament to this one
+     * @param other the statistics to add, must not be changed while they are merged
+     */
+    public synchronized void merge(TournamentStats other) {
+        if (other.numEntrants != this.numEntrants) {
+            throw new IllegalArgumentException("Cannot merge statistics of " + other.numEntrants + " entrants into " + this.numEntrants);
+        }
+        this.games += other.games;
+        this.unfinished += other.unfinished;
+        this.turns += other.turns;
+        for (int i = 0; i < this.numEntrants; i++) {
+            this.wins[i] += other.wins[i];
+            this.scoreSums[i] += other.scoreSums[i];
+            this.scoreSquares[i] += other.scoreSquares[i];
+        }
+        for (int i = 0; i < this.seatGames.length; i++) {
+            this.seatGames[i] += other.seatGames[i];
+            this.seatWins[i] += other.seatWins[i];
+        }
+    }
+
+    /**
+     * Getter to return the number of entrants
+     * @return the number of entrants
+     */
+    public int numEntrants() {
+        return this.numEntrants;
+    }
+
+    /**
+     * Getter to return the number of games recorded
+     * @return the number of games
+     */
+    public synchronized long games() {
+        return this.games;
+    }
+
+    /**
+     * Getter to return the number of games that were stopped at the turn limit
+     * @return the number of unfinished games
+     */
+    public synchronized long unfinished() {
+        return this.unfinished;
+    }
+
+    /**
+     * Getter to return the average number of turns of a game
+     * @return the average number of turns, or 0 if no game was recorded
+     */
+    public synchronized double meanTurns() {
+        return this.games == 0 ? 0.0 : (double) this.turns / this.games;
+    }
+
+    /**
+     * Getter to return the number of games an entrant won
+     * @param entrant the index of the entrant
+     * @return the number of wins
+     */
+    public synchronized long wins(int entrant) {
+        return this.wins[entrant];
+    }
+
+    /**
+     * Getter to return the fraction of games an entrant won
+     * @param entrant the index of the entrant
+     * @return the win rate, or 0 if no game was recorded
+     */
+    public synchronized double winRate(int entrant) {
+        return this.games == 0 ? 0.0 : (double) this.wins[entrant] / this.games;
+    }
+
+    /**
+     * Getter to return the fraction of games an entrant won when it played a seat
+     * @param entrant the index of the entrant
+     * @param seat the seat
+     * @return the win rate in the seat, or 0 if the entrant never played the seat
+     */
+    public synchronized double winRate(int entrant, int seat) {
+        long played = this.seatGames[entrant * this.numEntrants + seat];
+        return played == 0 ? 0.0 : (double) this.seatWins[entrant * this.numEntrants + seat] / played;
+    }
+
+    /**
+     * Getter to return the average victory points of an entrant
+     * @param entrant the index of the entrant
+     * @return the mean score, or 0 if no game was recorded
+     */
+    public synchronized double meanScore(int entrant) {
+        return this.games == 0 ? 0.0 : (double) this.scoreSums[entrant] / this.games;
+    }
+
+    /**
+     * Getter to return the standard deviation of the victory points of an entrant
+     * @param entrant the index of the entrant
+     * @return the standard deviation of the score, or 0 if fewer than two games were recorded
+     */
+    public synchronized double scoreStdDev(int entrant) {
+        if (this.games < 2) {
+            return 0.0;
+        }
+        double mean = (double) this.scoreSums[entrant] / this.games;
+        double variance = ((double) this.scoreSquares[entrant] - this.games * mean * mean) / (this.games - 1);
+        return Math.sqrt(Math.max(0.0, variance));
+    }
+
+    /**
+     * equals method to check whether this TournamentStats is the same as another object
+     * @param obj the object to compare to
+     * @return whether the object is a TournamentStats that recorded the same totals for every entrant and seat,
+     *         the other TournamentStats must not be merged into while they are compared
+     */
+    @Override
+    public synchronized boolean equals(Object obj) {
+        return obj instanceof TournamentStats other
+                && other.numEntrants == this.numEntrants
+                && other.games == this.games
+                && other.unfinished == this.unfinished
+                && other.turns == this.turns
+                && Arrays.equals(other.wins, this.wins)
+                && Arrays.equals(other.scoreSums, this.scoreSums)
+                && Arrays.equals(other.scoreSquares, this.scoreSquares)
+                && Arrays.equals(other.seatGames, this.seatGames)
+                && Arrays.equals(other.seatWins, this.seatWins);
+    }
+
+    /**
+     * hashCode method to return a hash code of this TournamentStats
+     * @return the hash code of this TournamentStats
+     */
+    @Override
+    public synchronized int hashCode() {
+        return 31 * Long.hashCode(this.games) + Arrays.hashCode(this.scoreSums);
+    }
+
+    /**
+     * toString method to return a String representation of a TournamentStats
+     * @return a table of the statistics of every entrant
+     */
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%d games, %.1f turns per game, %d unfinished%n", this.games, meanTurns(), this.unfinished));
+        for (int i = 0; i < this.numEntrants; i++) {
+            builder.append(String.format("entrant %d: win rate %.3f, score %.2f +- %.2f, by seat", i, winRate(i), meanScore(i), scoreStdDev(i)));
+            for (int seat = 0; seat < this.numEntrants; seat++) {
+                builder.append(String.format(" %.3f", winRate(i, seat)));
+            }
+            builder.append(String.format("%n"));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,124 @@
+package src.game.engine;
+
+//  imports
+import src.game.Good;
+
+/**
+ * A class of library (static) methods to encode a whole trade of a Mercator as a long, so that every trade
+ * a Player can make can be written into a long array without allocating
+ * Each Good has 8 bits starting at bit {@code 8 * good.ordinal()} that hold how many of it are bought, as a
+ * signed byte so that Goods that are sold are negative
+ * A trade is played by selling its Goods first and then buying, so the sestertii and room of the sales can
+ * be spent on the purchases
+ * @author devinlinux
+ */
+public final class Trade {
+
+    /**
+     * The trade that buys and sells nothing
+     */
+    public static final long NONE = 0L;
+
+    /**
+     * The number of bits of each Good
+     */
+    private static final int GOOD_BITS = 8;
+
+    /**
+     * The most of one Good a trade can buy or sell
+     */
+    public static final int MAX_QUANTITY = Byte.MAX_VALUE;
+
+    /**
+     * The Goods in the order of their ordinals
+     */
+    private static final Good[] GOODS = Good.values();
+
+    /**
+     * Constructor that should never be called, this class only has library (static) methods
+     */
+    private Trade() {
+        throw new UnsupportedOperationException("Trade cannot be instantiated");
+    }
+
+    /**
+     * Library (static) method to encode a trade of one Good
+     * @param good the Good
+     * @param quantity how many of the Good are bought, negative if they are sold
+     * @return the encoded trade
+     */
+    public static long of(Good good, int quantity) {
+        return with(NONE, good, quantity);
+    }
+
+    /**
+     * Library (static) method to change how many of a Good a trade buys or sells
+     * @param trade the encoded trade
+     * @param good the Good
+     * @param quantity how many of the Good are bought, negative if they are sold
+     * @return the encoded trade with the new quantity of the Good
+     * @throws IllegalArgumentException if more than {@link #MAX_QUANTITY} of the Good are bought or sold
+     */
+    public static long with(long trade, Good good, int quantity) {
+        if (quantity > MAX_QUANTITY || quantity < -MAX_QUANTITY) {
+            throw new IllegalArgumentException("Cannot trade " + quantity + " of " + good + " at once");
+        }
+        int shift = GOOD_BITS * good.ordinal();
+        return (trade & ~(0xFFL << shift)) | ((quantity & 0xFFL) << shift);
+    }
+
+    /**
+     * Library (static) method to decode how many of a Good a trade buys or sells
+     * @param trade the encoded trade
+     * @param good the Good
+     * @return how many of the Good are bought, negative if they are sold
+     */
+    public static int quantity(long trade, Good good) {
+        return (byte) (trade >>> (GOOD_BITS * good.ordinal()));
+    }
+
+    /**
+     * Library (static) method to find how many sestertii a trade earns
+     * @param trade the encoded trade
+     * @return the sestertii of the sales minus the sestertii of the purchases
+     */
+    public static int sestertii(long trade) {
+        int sestertii = 0;
+        for (Good good : GOODS) {
+            sestertii -= quantity(trade, good) * good.price();
+        }
+        return sestertii;
+    }
+
+    /**
+     * Library (static) method to find how many steps of a GameEngine a trade is played in, one for every Good
+     * bought or sold and one to end the trade
+     * @param trade the encoded trade
+     * @return the number of actions the trade is played with
+     */
+    public static int steps(long trade) {
+        int steps = 1;
+        for (Good good : GOODS) {
+            steps += Math.abs(quantity(trade, good));
+        }
+        return steps;
+    }
+
+    /**
+     * Library (static) method to return a String representation of a trade
+     * @param trade the encoded trade
+     * @return a String representation of the trade
+     */
+    public static String toString(long trade) {
+        StringBuilder builder = new StringBuilder("TRADE(");
+        boolean first = true;
+        for (Good good : GOODS) {
+            int quantity = quantity(trade, good);
+            if (quantity != 0) {
+                builder.append(first ? "" : ", ").append(quantity > 0 ? "+" : "").append(quantity).append(' ').append(good);
+                first = false;
+            }
+        }
+        return builder.append(')').toString();
+    }
+}
@@ -0,0 +1,324 @@
+package src.game.engine;
+
+//  imports
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed-size table of what searches found about positions, looked up by the Zobrist hash of the position
+ * Every entry keeps the value, visit count, depth and best action of a position, and the table can be shared
+ * by several search threads without locks
+ * The entries are kept in one long array, three longs per entry: the hash XORed with both data words, then
+ * the two data words. An entry torn by two threads storing at once no longer XORs back to its hash, so it
+ * is seen as missing instead of being read with the data of another position
+ * The entries are grouped in buckets of {@link #BUCKET_SIZE}, a position can only be stored in its bucket and
+ * when the bucket is full the entry with the lowest depth is replaced, where every search since an entry was
+ * stored takes {@link #AGE_WEIGHT} off its depth so that old entries make room for the current search
+ * @author devinlinux
+ */
+public final class TranspositionTable {
+
+    /**
+     * The number of entries a position can be stored in
+     */
+    public static final int BUCKET_SIZE = 4;
+
+    /**
+     * The number of longs of one entry
+     */
+    private static final int LONGS_PER_ENTRY = 3;
+
+    /**
+     * The number of bytes of one entry
+     */
+    public static final int BYTES_PER_ENTRY = LONGS_PER_ENTRY * Long.BYTES;
+
+    /**
+     * The largest depth an entry can hold, deeper depths are stored as this
+     */
+    public static final int MAX_DEPTH = 0xFFFF;
+
+    /**
+     * How many depths one search of age is worth when choosing the entry to replace
+     */
+    private static final int AGE_WEIGHT = 8;
+
+    /**
+     * The bit of the second data word that is set in every stored entry, so an empty entry never matches
+     */
+    private static final long USED = 1L << 56;
+
+    /**
+     * The handle used to read and write the longs of the entries atomically, so a long is never torn
+     */
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * The entries, entry i of bucket b starts at {@code (b * BUCKET_SIZE + i) * LONGS_PER_ENTRY}
+     */
+    private final long[] entries;
+
+    /**
+     * The number of buckets minus one, the number of buckets is a power of two
+     */
+    private final int bucketMask;
+
+    /**
+     * The age of the search being run, only its lowest 8 bits are stored
+     */
+    private volatile int age;
+
+    /**
+     * A reusable holder for the data of one entry, so a lookup never allocates
+     * A search thread makes one Entry and passes it to every {@link #probe(long, Entry)}, an Entry must not be
+     * shared between threads
+     */
+    public static final class Entry {
+
+        /**
+         * The first data word, the best action and the value
+         */
+        private long data;
+
+        /**
+         * The second data word, the visit count, the depth and the age
+         */
+        private long info;
+
+        /**
+         * Getter to return the value of the position
+         * @return the value
+         */
+        public float value() {
+            return Float.intBitsToFloat((int) this.data);
+        }
+
+        /**
+         * Getter to return the best action found in the position
+         * @return the action encoded as in {@link Action}
+         */
+        public int bestAction() {
+            return (int) (this.data >>> 32);
+        }
+
+        /**
+         * Getter to return the number of times the position was visited
+         * @return the visit count
+         */
+        public int visits() {
+            return (int) this.info;
+        }
+
+        /**
+         * Getter to return the depth the position was searched to
+         * @return the depth
+         */
+        public int depth() {
+            return (int) (this.info >>> 32) & MAX_DEPTH;
+        }
+
+        /**
+         * Getter to return the age of the search that stored the position
+         * @return the lowest 8 bits of the age
+         */
+        public int age() {
+            return (int) (this.info >>> 48) & 0xFF;
+        }
+    }
+
+    /**
+     * Constructor to make a new empty TranspositionTable
+     * @param bytes the most memory the entries may take, the table holds the largest power of two of
+     *              buckets that fits and at least one bucket
+     */
+    public TranspositionTable(long bytes) {
+        long buckets = Math.max(1L, bytes / ((long) BYTES_PER_ENTRY * BUCKET_SIZE));
+        buckets = Long.highestOneBit(Math.min(buckets, (long) (Integer.MAX_VALUE - 8) / (LONGS_PER_ENTRY * BUCKET_SIZE)));
+        this.entries = new long[(int) buckets * BUCKET_SIZE * LONGS_PER_ENTRY];
+        this.bucketMask = (int) buckets - 1;
+        this.age = 0;
+    }
+
+    /**
+     * Library (static) method to make a new empty TranspositionTable of a number of megabytes
+     * @param megabytes the most memory the entries may take in megabytes
+     * @return the TranspositionTable
+     */
+    public static TranspositionTable ofMegabytes(int megabytes) {
+        return new TranspositionTable((long) megabytes << 20);
+    }
+
+    /**
+     * Method to start a new search, the entries of earlier searches are replaced first from then on
+     */
+    public void newSearch() {
+        this.age++;
+    }
+
+    /**
+     * Method to look up a position
+     * @param hash the Zobrist hash of the position
+     * @param entry the Entry to copy the data of the position into
+     * @return whether the position was found, the Entry is only filled in if it was
+     */
+    public boolean probe(long hash, Entry entry) {
+        int start = bucket(hash);
+        for (int i = 0; i < BUCKET_SIZE; i++) {
+            int at = start + i * LONGS_PER_ENTRY;
+            long check = (long) LONGS.getOpaque(this.entries, at);
+            long data = (long) LONGS.getOpaque(this.entries, at + 1);
+            long info = (long) LONGS.getOpaque(this.entries, at + 2);
+            if ((info & USED) != 0 && (check ^ data ^ info) == hash) {
+                entry.data = data;
+                entry.info = info;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method to store what a search found about a position, replacing what was stored about it before
+     * If the position is not stored yet, an empty entry of its bucket is used, or else the entry with the
+     * lowest depth once it is aged
+     * @param hash the Zobrist hash of the position
+     * @param value the value of the position
+     * @param visits the number of times the position was visited
+     * @param depth the depth the position was searched to, capped at {@link #MAX_DEPTH}
+     * @param bestAction the best action found in the position, encoded as in {@link Action}
+     */
+    public void store(long hash, float value, int visits, int depth, int bestAction) {
+        int age = this.age & 0xFF;
+        int start = bucket(hash);
+        int victim = start;
+        int victimScore = Integer.MAX_VALUE;
+        for (int i = 0; i < BUCKET_SIZE; i++) {
+            int at = start + i * LONGS_PER_ENTRY;
+            long check = (long) LONGS.getOpaque(this.entries, at);
+            long data = (long) LONGS.getOpaque(this.entries, at + 1);
+            long info = (long) LONGS.getOpaque(this.entries, at + 2);
+            if ((info & USED) == 0) {
+                victim = at;
+                victimScore = Integer.MIN_VALUE;
+                continue;
+            }
+            if ((check ^ data ^ info) == hash) {
+                victim = at;
+                break;
+            }
+            int score = (int) (info >>> 32) & MAX_DEPTH;
+            score -= AGE_WEIGHT * ((age - (int) (info >>> 48)) & 0xFF);
+            if (score < victimScore) {
+                victim = at;
+                victimScore = score;
+            }
+        }
+        long data = (long) bestAction << 32 | (Float.floatToRawIntBits(value) & 0xFFFFFFFFL);
+        long info = USED | (long) age << 48 | (long) Math.min(Math.max(depth, 0), MAX_DEPTH) << 32 | (visits & 0xFFFFFFFFL);
+        LONGS.setOpaque(this.entries, victim, hash ^ data ^ info);
+        LONGS.setOpaque(this.entries, victim + 1, data);
+        LONGS.setOpaque(this.entries, victim + 2, info);
+    }
+
+    /**
+     * Method to find where the bucket of a position starts
+     * @param hash the Zobrist hash of the position
+     * @return the index of the first long of the bucket
+     */
+    private int bucket(long hash) {
+        return ((int) (hash ^ (hash >>> 32)) & this.bucketMask) * BUCKET_SIZE * LONGS_PER_ENTRY;
+    }
+
+    /**
+     * Method to empty this TranspositionTable, must not be called while it is searched
+     */
+    public void clear() {
+        Arrays.fill(this.entries, 0L);
+        this.age = 0;
+    }
+
+    /**
+     * Getter to return the number of entries this TranspositionTable can hold
+     * @return the capacity in entries
+     */
+    public int capacity() {
+        return this.entries.length / LONGS_PER_ENTRY;
+    }
+
+    /**
+     * Getter to return the memory taken by the entries
+     * @return the size in bytes
+     */
+    public long sizeInBytes() {
+        return (long) this.entries.length * Long.BYTES;
+    }
+
+    /**
+     * Getter to return the fraction of the first entries that are stored by the current search, an estimate
+     * of how full this TranspositionTable is
+     * @return the fraction of a sample of up to 1000 entries that were stored by the current search
+     */
+    public double fill() {
+        int sample = Math.min(1000, capacity());
+        int age = this.age & 0xFF;
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long info = (long) LONGS.getOpaque(this.entries, i * LONGS_PER_ENTRY + 2);
+            if ((info & USED) != 0 && (int) (info >>> 48 & 0xFF) == age) {
+                used++;
+            }
+        }
+        return (double) used / sample;
+    }
+
+    /**
+     * Hammers one TranspositionTable from several threads, each storing entries whose data is made from their
+     * hash, and checks that no lookup ever returns the data of another position
+     * {@code [threads] [megabytes] [operations per thread]}
+     * @param args the command line arguments
+     * @throws InterruptedException if the main thread is interrupted while it waits for the others
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int megabytes = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int operations = args.length > 2 ? Integer.parseInt(args[2]) : 5_000_000;
+        TranspositionTable table = ofMegabytes(megabytes);
+        AtomicLong hits = new AtomicLong();
+        AtomicLong corrupt = new AtomicLong();
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            workers[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                Entry entry = new Entry();
+                for (int i = 0; i < operations; i++) {
+                    long hash = random.nextLong(1L << 20) * 0x9E3779B97F4A7C15L;
+                    if (random.nextBoolean()) {
+                        table.store(hash, (float) (hash & 0xFFFF), (int) (hash >>> 40), (int) (hash >>> 20) & 0xFF, (int) (hash >>> 8));
+                    } else if (table.probe(hash, entry)) {
+                        hits.incrementAndGet();
+                        if (entry.value() != (float) (hash & 0xFFFF) || entry.visits() != (int) (hash >>> 40)
+                                || entry.depth() != ((int) (hash >>> 20) & 0xFF) || entry.bestAction() != (int) (hash >>> 8)) {
+                            corrupt.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d entries (%d bytes), %d threads, %.0f operations/s, %d hits, %d corrupt, %.3f full%n",
+                table.capacity(), table.sizeInBytes(), threads, threads * (double) operations / seconds,
+                hits.get(), corrupt.get(), table.fill());
+        if (corrupt.get() > 0) {
+            System.exit(1);
+        }
+    }
+}
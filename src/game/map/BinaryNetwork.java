@@ -0,0 +1,341 @@
+package src.game.map;
+
+//  imports
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import src.game.Good;
+
+import static src.game.map.PathNode.PathType;
+
+/**
+ * A class to read and write a Network with its CityNodes (cities) and PathNodes (paths) in a compact
+ * versioned binary format, the text formats of Network, CityNode and PathNode stay the import and
+ * export path that can be edited by hand
+ * All numbers are big endian, the file is laid out as follows:
+ * header: magic (int), version (short), flags (short), number of cities (int), number of paths (int)
+ * city table: for every city its letter (char), good (byte, -1 for none) and name (short length, UTF-8 bytes)
+ * path table: for every path in id order its first city (int), second city (int) and type (byte)
+ * edges: for land then sea the offsets (number of cities + 1 ints) and neighbors (ints) in compressed sparse row form
+ * distances: only if {@link #FLAG_DISTANCES} is set, for land then sea the flattened all-pairs distance table
+ * (number of cities * number of cities ints)
+ * A file is loaded with a single memory mapped read
+ * @author devinlinux
+ */
+public final class BinaryNetwork {
+
+    /**
+     * The magic number every binary Network file starts with, "CNWB" in ASCII
+     */
+    public static final int MAGIC = 0x434E5742;
+
+    /**
+     * The version of the binary format written by this class
+     */
+    public static final short VERSION = 1;
+
+    /**
+     * The flag that is set when the file holds the precomputed distance tables
+     */
+    public static final short FLAG_DISTANCES = 1;
+
+    /**
+     * Constructor that should never be called, this class only has library (static) methods
+     */
+    private BinaryNetwork() {
+        throw new UnsupportedOperationException("BinaryNetwork cannot be instantiated");
+    }
+
+    /**
+     * Library (static) method to write a Network to a binary file
+     * @param path the path to the file to write to
+     * @param network the Network to write, must have CityNodes (cities) and PathNodes (paths)
+     * @param withDistances whether to write the precomputed distance tables as well
+     */
+    public static void fwrite(String path, Network network, boolean withDistances) {
+        List<CityNode> cities = network.cities();
+        List<PathNode> paths = network.paths();
+        if (cities == null || paths == null) {
+            throw new IllegalArgumentException("Network must have CityNodes and PathNodes to be written");
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(withDistances ? FLAG_DISTANCES : 0);
+            out.writeInt(cities.size());
+            out.writeInt(paths.size());
+
+            for (CityNode city : cities) {
+                byte[] name = city.name().getBytes(StandardCharsets.UTF_8);
+                out.writeChar(city.letter());
+                out.writeByte(city.good() == null ? -1 : city.good().ordinal());
+                out.writeShort(name.length);
+                out.write(name);
+            }
+            for (PathNode node : paths) {
+                out.writeInt(node.node1().id());
+                out.writeInt(node.node2().id());
+                out.writeByte(node.type().ordinal());
+            }
+            for (PathType type : PathType.values()) {
+                CompressedAdjacency adj = network.adjacency(type);
+                writeInts(out, adj.offsets());
+                writeInts(out, adj.neighbors());
+            }
+            if (withDistances) {
+                for (PathType type : PathType.values()) {
+                    writeInts(out, network.distanceTable(type));
+                }
+            }
+        } catch (IOException e) {
+            System.err.printf("Error writing binary Network to file: %s%n", e.getMessage());
+        }
+    }
+
+    /**
+     * Library (static) method to load a Network from a binary file with a single memory mapped read
+     * The PathNodes are made straight from the path table with the ids they had when the file was written,
+     * and the compressed adjacencies and distance tables in the file are used as they are instead of being
+     * rebuilt, once they are checked against the path table
+     * @param path the path to the binary file
+     * @return the Network stored in the file, or null if the file could not be read
+     * @throws IllegalArgumentException if the file is not a binary Network file of a supported version, or
+     *         is truncated or inconsistent
+     */
+    public static Network fread(String path) {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            System.err.printf("Error loading binary Network from file: %s%n", e.getMessage());
+            return null;
+        }
+
+        if (buffer.remaining() < 16 || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException(path + " is not a binary Network file");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary Network version " + version);
+        }
+        short flags = buffer.getShort();
+        int numCities = buffer.getInt();
+        int numPaths = buffer.getInt();
+        check(numCities >= 0 && numPaths >= 0, path, "has a negative number of cities or paths");
+        require(buffer, (long) numCities * (Character.BYTES + Byte.BYTES + Short.BYTES), path, "city table");
+
+        Good[] goods = Good.values();
+        List<CityNode> cities = new ArrayList<>(numCities);
+        for (int id = 0; id < numCities; id++) {
+            require(buffer, Character.BYTES + Byte.BYTES + Short.BYTES, path, "city table");
+            char letter = buffer.getChar();
+            byte good = buffer.get();
+            check(good >= -1 && good < goods.length, path, "has an unknown good for city " + id);
+            int length = buffer.getShort() & 0xFFFF;
+            require(buffer, length, path, "city table");
+            byte[] name = new byte[length];
+            buffer.get(name);
+            cities.add(new CityNode(new String(name, StandardCharsets.UTF_8), id, letter, good < 0 ? null : goods[good]));
+        }
+
+        PathType[] types = PathType.values();
+        require(buffer, (long) numPaths * (2 * Integer.BYTES + Byte.BYTES), path, "path table");
+        List<PathNode> paths = new ArrayList<>(numPaths);
+        int[][] degrees = new int[types.length][numCities];
+        for (int e = 0; e < numPaths; e++) {
+            int u = buffer.getInt();
+            int v = buffer.getInt();
+            byte type = buffer.get();
+            check(u >= 0 && u < numCities && v >= 0 && v < numCities, path, "has path " + e + " between unknown cities");
+            check(type >= 0 && type < types.length, path, "has an unknown type for path " + e);
+            CityNode from = cities.get(u);
+            CityNode to = cities.get(v);
+            paths.add(new PathNode(e, from.name() + " to " + to.name(), from, to, types[type]));
+            degrees[type][u]++;
+            degrees[type][v]++;
+        }
+
+        CompressedAdjacency[] adjacency = new CompressedAdjacency[types.length];
+        for (PathType type : types) {
+            int[] offsets = readInts(buffer, numCities + 1, path, "offsets");
+            check(offsets[0] == 0, path, "has offsets that do not start at 0");
+            for (int u = 0; u < numCities; u++) {
+                check(offsets[u + 1] - offsets[u] == degrees[type.ordinal()][u], path,
+                        "has " + type + " offsets that do not match the paths of city " + u);
+            }
+            int[] neighbors = readInts(buffer, offsets[numCities], path, "neighbors");
+            adjacency[type.ordinal()] = new CompressedAdjacency(offsets, neighbors);
+        }
+        checkNeighbors(paths, adjacency, numCities, path);
+
+        int[][] distances = null;
+        if ((flags & FLAG_DISTANCES) != 0) {
+            distances = new int[types.length][];
+            for (PathType type : types) {
+                int[] table = readInts(buffer, (long) numCities * numCities, path, "distances");
+                for (int distance : table) {
+                    check(distance >= -1 && distance < numCities, path, "has a " + type + " distance out of range");
+                }
+                distances[type.ordinal()] = table;
+            }
+        }
+
+        Network network = new Network(numCities);
+        network.setCities(cities);
+        network.setPaths(paths);
+        network.setTables(adjacency[PathType.LAND.ordinal()], adjacency[PathType.SEA.ordinal()], distances);
+        return network;
+    }
+
+    /**
+     * Library (static) method to check that the neighbors of every city in the compressed adjacencies are
+     * exactly the other ends of its paths of the same type, in any order
+     * @param paths the PathNodes (paths) read from the path table
+     * @param adjacency the compressed adjacencies indexed by {@code PathType.ordinal()}, their offsets
+     *                  already match the number of paths of every city
+     * @param numCities the number of cities
+     * @param path the path to the file, for the error message
+     * @throws IllegalArgumentException if a neighbor is not a city or the neighbors do not match the paths
+     */
+    private static void checkNeighbors(List<PathNode> paths, CompressedAdjacency[] adjacency, int numCities, String path) {
+        for (CompressedAdjacency adj : adjacency) {
+            for (int neighbor : adj.neighbors()) {
+                check(neighbor >= 0 && neighbor < numCities, path, "has a neighbor that is not a city");
+            }
+        }
+        int[][] expected = new int[adjacency.length][];
+        int[][] fill = new int[adjacency.length][];
+        for (int t = 0; t < adjacency.length; t++) {
+            expected[t] = new int[adjacency[t].neighbors().length];
+            fill[t] = adjacency[t].offsets().clone();
+        }
+        for (PathNode node : paths) {
+            int t = node.type().ordinal();
+            int u = node.node1().id();
+            int v = node.node2().id();
+            expected[t][fill[t][u]++] = v;
+            expected[t][fill[t][v]++] = u;
+        }
+        for (int t = 0; t < adjacency.length; t++) {
+            int[] offsets = adjacency[t].offsets();
+            int[] actual = adjacency[t].neighbors().clone();
+            for (int u = 0; u < numCities; u++) {
+                Arrays.sort(expected[t], offsets[u], offsets[u + 1]);
+                Arrays.sort(actual, offsets[u], offsets[u + 1]);
+            }
+            check(Arrays.equals(expected[t], actual), path, "has neighbors that do not match its paths");
+        }
+    }
+
+    /**
+     * Library (static) method to throw the exception of a corrupt file when a condition does not hold
+     * @param condition the condition
+     * @param path the path to the file
+     * @param problem what is wrong with the file
+     * @throws IllegalArgumentException if the condition does not hold
+     */
+    private static void check(boolean condition, String path, String problem) {
+        if (!condition) {
+            throw new IllegalArgumentException("Binary Network file " + path + " " + problem);
+        }
+    }
+
+    /**
+     * Library (static) method to check that a buffer has enough bytes left for a section of the file
+     * @param buffer the buffer
+     * @param bytes the number of bytes the section needs
+     * @param path the path to the file
+     * @param section the name of the section
+     * @throws IllegalArgumentException if the file ends before the section does
+     */
+    private static void require(MappedByteBuffer buffer, long bytes, String path, String section) {
+        check(bytes >= 0 && bytes <= buffer.remaining(), path, "is truncated in its " + section);
+    }
+
+    /**
+     * Library (static) method to convert a Network in the text formats to the binary format
+     * @param networkPath the path to the text file containing the Network
+     * @param citiesPath the path to the text file containing the CityNodes (cities) of the Network
+     * @param binaryPath the path to the binary file to write
+     * @param withDistances whether to write the precomputed distance tables as well
+     */
+    public static void fromText(String networkPath, String citiesPath, String binaryPath, boolean withDistances) {
+        Network network = Network.fread(networkPath, citiesPath);
+        if (network == null) {
+            throw new IllegalArgumentException("Could not load a Network from " + networkPath);
+        }
+        fwrite(binaryPath, network, withDistances);
+    }
+
+    /**
+     * Library (static) method to convert a Network in the binary format to the text formats
+     * @param binaryPath the path to the binary file to read
+     * @param networkPath the path to the text file to write the Network to
+     * @param citiesPath the path to the text file to write the CityNodes (cities) to
+     */
+    public static void toText(String binaryPath, String networkPath, String citiesPath) {
+        Network network = fread(binaryPath);
+        if (network == null) {
+            throw new IllegalArgumentException("Could not load a Network from " + binaryPath);
+        }
+        Network.fwrite(networkPath, network);
+        CityNode.fwrite(citiesPath, network.cities());
+    }
+
+    /**
+     * Library (static) method to write an array of ints
+     * @param out the stream to write to
+     * @param values the ints to write
+     * @throws IOException if the stream cannot be written to
+     */
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Library (static) method to read an array of ints in one bulk copy and move the buffer past them
+     * @param buffer the buffer to read from
+     * @param count the number of ints to read
+     * @param path the path to the file
+     * @param section the name of the section being read
+     * @return the ints that were read
+     * @throws IllegalArgumentException if the file ends before the ints do
+     */
+    private static int[] readInts(MappedByteBuffer buffer, long count, String path, String section) {
+        require(buffer, count * Integer.BYTES, path, section);
+        int[] values = new int[(int) count];
+        IntBuffer ints = buffer.asIntBuffer();
+        ints.get(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+        return values;
+    }
+
+    /**
+     * Converts between the text and binary formats from the command line
+     * {@code to-binary <network> <cities> <binary> [--distances]} or {@code to-text <binary> <network> <cities>}
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length >= 4 && args[0].equals("to-binary")) {
+            fromText(args[1], args[2], args[3], args.length > 4 && args[4].equals("--distances"));
+        } else if (args.length == 4 && args[0].equals("to-text")) {
+            toText(args[1], args[2], args[3]);
+        } else {
+            System.err.println("Usage: BinaryNetwork to-binary <network> <cities> <binary> [--distances]");
+            System.err.println("       BinaryNetwork to-text <binary> <network> <cities>");
+        }
+    }
+}
@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import src.game.Good;
 import src.game.Colonist;
 import src.game.House;
+import src.game.Zobrist;
 
 /**
  * A class to represent a CityNode in a Network and a city in a Game
@@ -48,6 +49,11 @@ public class CityNode implements java.io.Serializable {
      */
     private Good good;
 
+    /**
+     * The index of the province this CityNode (city) belongs to, or -1 if it belongs to none (Roma)
+     */
+    private int province = -1;
+
     /**
      * The Colonists that have been added to this CityNode (city)
      */
@@ -58,6 +64,12 @@ public class CityNode implements java.io.Serializable {
      */
     private ArrayList<House> houses;
 
+    /**
+     * The Zobrist hash of the Game this CityNode (city) is played in, every change to its token, Houses and
+     * Colonists is toggled into it
+     */
+    private transient Zobrist zobrist;
+
     /**
      * Constructor to make a new CityNode
      * @param name the name of this CityNode (city)
@@ -70,6 +82,19 @@ public class CityNode implements java.io.Serializable {
         this.id = id;
         this.letter = letter;
         this.good = good;
+        this.colonists = new ArrayList<>();
+        this.houses = new ArrayList<>();
+    }
+
+    /**
+     * Constructor to make a new CityNode for one game from the CityNode of a shared map topology
+     * The new CityNode has the same name, id and letter, its own city token and no Colonists or Houses
+     * @param template the CityNode of the shared map topology
+     * @param good the Good that this CityNode (city) should produce
+     */
+    public CityNode(CityNode template, Good good) {
+        this(template.name, template.id, template.letter, good);
+        this.province = template.province;
     }
 
     /**
@@ -79,9 +104,7 @@ public class CityNode implements java.io.Serializable {
      * @param letter the letter associated with this CityNode (city)
      */
     public CityNode(String name, int id, char letter) {
-        this.name = name;
-        this.id = id;
-        this.letter = letter;
+        this(name, id, letter, null);
     }
 
     /**
@@ -145,7 +168,19 @@ public class CityNode implements java.io.Serializable {
      * @param colonist the colonist to add
      */
     public void addColonist(Colonist colonist) {
-        this.colonists.add(colonist);
+        addColonist(this.colonists.size(), colonist);
+    }
+
+    /**
+     * Method add a colonist to this CityNode (city) at a position among its colonists, so that a colonist
+     * that was removed can be put back where it was
+     * @param index the position of the colonist among the colonists of this CityNode
+     * @param colonist the colonist to add
+     */
+    public void addColonist(int index, Colonist colonist) {
+        int count = countColonists(colonist);
+        this.colonists.add(index, colonist);
+        hashColonists(colonist, count, count + 1);
     }
 
     /**
@@ -154,6 +189,17 @@ public class CityNode implements java.io.Serializable {
      */
     public void addHouse(House house) {
         this.houses.add(house);
+        toggleHash(Zobrist.house(house.player().seat(), this.id));
+    }
+
+    /**
+     * Method to remove a house from this CityNode (city)
+     * @param house the house to remove
+     */
+    public void removeHouse(House house) {
+        if (this.houses.remove(house)) {
+            toggleHash(Zobrist.house(house.player().seat(), this.id));
+        }
     }
 
     /**
@@ -161,7 +207,47 @@ public class CityNode implements java.io.Serializable {
      * @param colonist the colonist to remove
      */
     public void removeColonist(Colonist colonist) {
-        this.colonists.remove(colonist);
+        if (this.colonists.remove(colonist)) {
+            int count = countColonists(colonist);
+            hashColonists(colonist, count + 1, count);
+        }
+    }
+
+    /**
+     * Method to count the Colonists in this CityNode (city) of the same Player and type as a Colonist
+     * @param colonist the Colonist
+     * @return the number of Colonists in this CityNode with the Player and type of the Colonist
+     */
+    private int countColonists(Colonist colonist) {
+        int count = 0;
+        for (Colonist other : this.colonists) {
+            if (other.player() == colonist.player() && other.type() == colonist.type()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Method to hash a change of the number of Colonists of one Player and type in this CityNode (city)
+     * @param colonist a Colonist of the Player and type
+     * @param before the number of Colonists before the change
+     * @param after the number of Colonists after the change
+     */
+    private void hashColonists(Colonist colonist, int before, int after) {
+        int seat = colonist.player().seat();
+        toggleHash(Zobrist.cityColonists(seat, this.id, colonist.type(), before) ^ Zobrist.cityColonists(seat, this.id, colonist.type(), after));
+    }
+
+    /**
+     * Method to toggle a key in the Zobrist hash of the Game of this CityNode (city), does nothing while it
+     * is not in a Game
+     * @param key the key to toggle
+     */
+    private void toggleHash(long key) {
+        if (this.zobrist != null) {
+            this.zobrist.toggle(key);
+        }
     }
 
     /**
@@ -169,9 +255,26 @@ public class CityNode implements java.io.Serializable {
      * @param good the Good that this CityNode (city) should produce
      */
     public void setGood(Good good) {
+        toggleHash(Zobrist.cityGood(this.id, this.good) ^ Zobrist.cityGood(this.id, good));
         this.good = good;
     }
 
+    /**
+     * Setter to set the Zobrist hash of the Game this CityNode (city) is played in
+     * @param zobrist the Zobrist hash of the Game
+     */
+    public void setZobrist(Zobrist zobrist) {
+        this.zobrist = zobrist;
+    }
+
+    /**
+     * Setter to set the province this CityNode (city) belongs to
+     * @param province the index of the province, or -1 if it belongs to none
+     */
+    public void setProvince(int province) {
+        this.province = province;
+    }
+
     /**
      * Getter to return the name of this CityNode (city)
      * @return the name of this CityNode
@@ -204,6 +307,14 @@ public class CityNode implements java.io.Serializable {
         return this.good;
     }
 
+    /**
+     * Getter to return the province this CityNode (city) belongs to
+     * @return the index of the province, or -1 if it belongs to none
+     */
+    public int province() {
+        return this.province;
+    }
+
     /**
      * Getter to return the colonists on this CityNode (city)
      * @return the colonists on this CityNode (city)
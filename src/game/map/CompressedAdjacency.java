@@ -0,0 +1,117 @@
+package src.game.map;
+
+//  imports
+import java.util.List;
+
+/**
+ * A class to represent a frozen adjacency list in compressed sparse row form
+ * The neighbors of node u are stored in {@code neighbors[offsets[u]]} up to but
+ * excluding {@code neighbors[offsets[u + 1]]}, so a walk over the neighbors of a node
+ * reads one contiguous run of a primitive array
+ * @author devinlinux
+ */
+public final class CompressedAdjacency {
+
+    /**
+     * The start index of the neighbors of each node, has one more element than there are nodes
+     */
+    private final int[] offsets;
+
+    /**
+     * The neighbors of every node laid out one node after the other
+     */
+    private final int[] neighbors;
+
+    /**
+     * Constructor to freeze an adjacency list into compressed sparse row form
+     * @param adjList the adjacency list to freeze, the order of the neighbors is kept
+     */
+    public CompressedAdjacency(List<List<Integer>> adjList) {
+        int numNodes = adjList.size();
+        this.offsets = new int[numNodes + 1];
+        for (int u = 0; u < numNodes; u++) {
+            this.offsets[u + 1] = this.offsets[u] + adjList.get(u).size();
+        }
+        this.neighbors = new int[this.offsets[numNodes]];
+        for (int u = 0; u < numNodes; u++) {
+            int i = this.offsets[u];
+            for (int v : adjList.get(u)) {
+                this.neighbors[i++] = v;
+            }
+        }
+    }
+
+    /**
+     * Constructor to make a CompressedAdjacency from arrays that are already in compressed sparse row form
+     * The arrays are used as they are and must not be modified afterwards
+     * @param offsets the start index of the neighbors of each node followed by the total number of neighbors
+     * @param neighbors the neighbors of every node laid out one node after the other
+     */
+    public CompressedAdjacency(int[] offsets, int[] neighbors) {
+        if (offsets.length == 0 || offsets[offsets.length - 1] != neighbors.length) {
+            throw new IllegalArgumentException("Offsets do not match the number of neighbors");
+        }
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+    }
+
+    /**
+     * Getter to return the number of nodes in this CompressedAdjacency
+     * @return the number of nodes
+     */
+    public int numNodes() {
+        return this.offsets.length - 1;
+    }
+
+    /**
+     * Getter to return the number of neighbors of a node
+     * @param u the node
+     * @return the number of neighbors of u
+     */
+    public int degree(int u) {
+        return this.offsets[u + 1] - this.offsets[u];
+    }
+
+    /**
+     * Getter to return the index of the first neighbor of a node in {@link #neighbors()}
+     * @param u the node
+     * @return the index of the first neighbor of u
+     */
+    public int start(int u) {
+        return this.offsets[u];
+    }
+
+    /**
+     * Getter to return the index one past the last neighbor of a node in {@link #neighbors()}
+     * @param u the node
+     * @return the index one past the last neighbor of u
+     */
+    public int end(int u) {
+        return this.offsets[u + 1];
+    }
+
+    /**
+     * Getter to return the neighbor at an index of the neighbors array
+     * @param i the index in the neighbors array
+     * @return the neighbor at index i
+     */
+    public int neighbor(int i) {
+        return this.neighbors[i];
+    }
+
+    /**
+     * Getter to return the offsets array, must not be modified
+     * @return the start index of the neighbors of each node followed by the total number of neighbors
+     */
+    public int[] offsets() {
+        return this.offsets;
+    }
+
+    /**
+     * Getter to return the neighbors array, must not be modified
+     * @return the neighbors of every node laid out one node after the other
+     */
+    public int[] neighbors() {
+        return this.neighbors;
+    }
+}
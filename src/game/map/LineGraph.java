@@ -0,0 +1,305 @@
+package src.game.map;
+
+//  imports
+import java.util.List;
+import java.util.Arrays;
+
+import static src.game.map.PathNode.PathType;
+
+/**
+ * A class to represent the line graph of a Network, that is the graph whose nodes are the
+ * PathNodes (paths) of the Network. Two PathNodes are adjacent when they are of the same type
+ * and share a CityNode (city), which is exactly one step of a Colonist
+ * Precomputes the number of steps between every pair of PathNodes and from every CityNode to
+ * every PathNode so that each lookup is O(1)
+ * @author devinlinux
+ */
+public final class LineGraph {
+
+    /**
+     * The number of PathNodes (paths) in this LineGraph
+     */
+    private final int numEdges;
+
+    /**
+     * The number of CityNodes (cities) of the Network this LineGraph was built from
+     */
+    private final int numCities;
+
+    /**
+     * The id of the first CityNode of each PathNode
+     */
+    private final int[] node1;
+
+    /**
+     * The id of the second CityNode of each PathNode
+     */
+    private final int[] node2;
+
+    /**
+     * The type of each PathNode
+     */
+    private final PathType[] types;
+
+    /**
+     * The PathNodes adjacent to each PathNode
+     */
+    private final CompressedAdjacency adjacency;
+
+    /**
+     * The flattened {@code numEdges * numEdges} table of steps between PathNodes, the entry at
+     * {@code from * numEdges + to} is the number of steps from one to the other or -1 if there is none
+     */
+    private final int[] edgeDistances;
+
+    /**
+     * The flattened {@code numCities * numEdges} table of steps from a CityNode to a PathNode,
+     * moving onto a PathNode that touches the CityNode counts as one step
+     */
+    private final int[] cityDistances;
+
+    /**
+     * The largest finite number of steps between two PathNodes or from a CityNode to a PathNode
+     */
+    private final int maxDistance;
+
+    /**
+     * Constructor to build the LineGraph of a list of PathNodes
+     * @param numCities the number of CityNodes (cities) that the PathNodes connect
+     * @param paths the PathNodes (paths), PathNode i must have the id i
+     */
+    public LineGraph(int numCities, List<PathNode> paths) {
+        this.numEdges = paths.size();
+        this.numCities = numCities;
+        this.node1 = new int[this.numEdges];
+        this.node2 = new int[this.numEdges];
+        this.types = new PathType[this.numEdges];
+        for (int e = 0; e < this.numEdges; e++) {
+            PathNode path = paths.get(e);
+            if (path.id() != e) {
+                throw new IllegalArgumentException("PathNode " + path.name() + " does not have the id " + e);
+            }
+            this.node1[e] = path.node1().id();
+            this.node2[e] = path.node2().id();
+            this.types[e] = path.type();
+        }
+
+        CompressedAdjacency incidence = buildIncidence();
+        this.adjacency = buildAdjacency(incidence);
+        this.edgeDistances = new int[this.numEdges * this.numEdges];
+        this.cityDistances = new int[this.numCities * this.numEdges];
+        Arrays.fill(this.edgeDistances, -1);
+        Arrays.fill(this.cityDistances, -1);
+
+        int[] queue = new int[this.numEdges];
+        int max = 0;
+        for (int e = 0; e < this.numEdges; e++) {
+            queue[0] = e;
+            this.edgeDistances[e * this.numEdges + e] = 0;
+            max = Math.max(max, bfs(this.edgeDistances, e * this.numEdges, queue, 1));
+        }
+        for (int c = 0; c < this.numCities; c++) {
+            int row = c * this.numEdges;
+            int tail = 0;
+            for (int i = incidence.start(c); i < incidence.end(c); i++) {
+                int e = incidence.neighbor(i);
+                this.cityDistances[row + e] = 1;
+                queue[tail++] = e;
+            }
+            max = Math.max(max, bfs(this.cityDistances, row, queue, tail));
+        }
+        this.maxDistance = max;
+    }
+
+    /**
+     * Method to list the PathNodes that touch each CityNode
+     * @return the PathNodes incident to each CityNode in compressed form
+     */
+    private CompressedAdjacency buildIncidence() {
+        int[] offsets = new int[this.numCities + 1];
+        for (int e = 0; e < this.numEdges; e++) {
+            offsets[this.node1[e] + 1]++;
+            offsets[this.node2[e] + 1]++;
+        }
+        for (int c = 0; c < this.numCities; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        int[] next = Arrays.copyOf(offsets, this.numCities);
+        int[] edges = new int[offsets[this.numCities]];
+        for (int e = 0; e < this.numEdges; e++) {
+            edges[next[this.node1[e]]++] = e;
+            edges[next[this.node2[e]]++] = e;
+        }
+        return new CompressedAdjacency(offsets, edges);
+    }
+
+    /**
+     * Method to build the adjacency of the line graph from the incidence of the CityNodes
+     * @param incidence the PathNodes incident to each CityNode
+     * @return the PathNodes adjacent to each PathNode in compressed form
+     */
+    private CompressedAdjacency buildAdjacency(CompressedAdjacency incidence) {
+        int[] mark = new int[this.numEdges];
+        Arrays.fill(mark, -1);
+        int[] offsets = new int[this.numEdges + 1];
+        for (int e = 0; e < this.numEdges; e++) {
+            offsets[e + 1] = offsets[e] + collectNeighbors(e, incidence, mark, null, 0);
+        }
+        Arrays.fill(mark, -1);
+        int[] neighbors = new int[offsets[this.numEdges]];
+        for (int e = 0; e < this.numEdges; e++) {
+            collectNeighbors(e, incidence, mark, neighbors, offsets[e]);
+        }
+        return new CompressedAdjacency(offsets, neighbors);
+    }
+
+    /**
+     * Method to find the PathNodes of the same type that share a CityNode with a PathNode
+     * @param e the id of the PathNode
+     * @param incidence the PathNodes incident to each CityNode
+     * @param mark the id of the last PathNode each PathNode was collected for, stops a PathNode
+     *             from being collected twice
+     * @param out the array to write the neighbors into, or null to only count them
+     * @param at the index of out to write the first neighbor to
+     * @return the number of neighbors of the PathNode
+     */
+    private int collectNeighbors(int e, CompressedAdjacency incidence, int[] mark, int[] out, int at) {
+        int count = 0;
+        for (int endpoint = 0; endpoint < 2; endpoint++) {
+            int c = endpoint == 0 ? this.node1[e] : this.node2[e];
+            for (int i = incidence.start(c); i < incidence.end(c); i++) {
+                int f = incidence.neighbor(i);
+                if (f != e && this.types[f] == this.types[e] && mark[f] != e) {
+                    mark[f] = e;
+                    if (out != null) {
+                        out[at + count] = f;
+                    }
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Method to run a breadth-first search over the line graph writing into one row of a distance table
+     * @param table the distance table to write into, the seeds must already have their distance set
+     * @param row the index of the first entry of the row in the table
+     * @param queue the queue holding the seeds of the search, must be able to hold every PathNode
+     * @param seeds the number of seeds at the start of the queue
+     * @return the largest distance written to the row
+     */
+    private int bfs(int[] table, int row, int[] queue, int seeds) {
+        int[] offsets = this.adjacency.offsets();
+        int[] neighbors = this.adjacency.neighbors();
+        int max = seeds > 0 ? table[row + queue[0]] : 0;
+        int head = 0;
+        int tail = seeds;
+        while (head < tail) {
+            int curr = queue[head++];
+            int next = table[row + curr] + 1;
+            for (int i = offsets[curr]; i < offsets[curr + 1]; i++) {
+                int neighbor = neighbors[i];
+                if (table[row + neighbor] == -1) {
+                    table[row + neighbor] = next;
+                    max = next;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Method to find the number of steps a Colonist needs to get from one PathNode to another
+     * @param from the id of the PathNode the Colonist is on
+     * @param to the id of the PathNode the Colonist should end on
+     * @return the number of steps, 0 if from and to are the same, or -1 if the PathNodes are
+     * of different types or not connected
+     */
+    public int distance(int from, int to) {
+        return this.edgeDistances[from * this.numEdges + to];
+    }
+
+    /**
+     * Method to find the number of steps a Colonist needs to get from one PathNode to another
+     * @param from the PathNode the Colonist is on
+     * @param to the PathNode the Colonist should end on
+     * @return the number of steps, 0 if from and to are the same, or -1 if the PathNodes are
+     * of different types or not connected
+     */
+    public int distance(PathNode from, PathNode to) {
+        return distance(from.id(), to.id());
+    }
+
+    /**
+     * Method to find the number of steps a Colonist standing in a CityNode (city) needs to get
+     * onto a PathNode, a PathNode that touches the CityNode is one step away
+     * @param city the id of the CityNode the Colonist is in
+     * @param to the id of the PathNode the Colonist should end on
+     * @return the number of steps, or -1 if the PathNode cannot be reached from the CityNode
+     */
+    public int distanceFromCity(int city, int to) {
+        return this.cityDistances[city * this.numEdges + to];
+    }
+
+    /**
+     * Getter to return the number of PathNodes (paths) in this LineGraph
+     * @return the number of PathNodes
+     */
+    public int numEdges() {
+        return this.numEdges;
+    }
+
+    /**
+     * Getter to return the number of CityNodes (cities) of the Network this LineGraph was built from
+     * @return the number of CityNodes
+     */
+    public int numCities() {
+        return this.numCities;
+    }
+
+    /**
+     * Getter to return the id of the first CityNode of a PathNode
+     * @param e the id of the PathNode
+     * @return the id of its first CityNode
+     */
+    public int node1(int e) {
+        return this.node1[e];
+    }
+
+    /**
+     * Getter to return the id of the second CityNode of a PathNode
+     * @param e the id of the PathNode
+     * @return the id of its second CityNode
+     */
+    public int node2(int e) {
+        return this.node2[e];
+    }
+
+    /**
+     * Getter to return the type of a PathNode
+     * @param e the id of the PathNode
+     * @return the type of the PathNode
+     */
+    public PathType type(int e) {
+        return this.types[e];
+    }
+
+    /**
+     * Getter to return the PathNodes adjacent to each PathNode
+     * @return the adjacency of the line graph in compressed form
+     */
+    public CompressedAdjacency adjacency() {
+        return this.adjacency;
+    }
+
+    /**
+     * Getter to return the largest finite number of steps in either distance table,
+     * no move needs a larger budget than this
+     * @return the largest finite number of steps
+     */
+    public int maxDistance() {
+        return this.maxDistance;
+    }
+}
@@ -1,19 +1,17 @@
 package src.game.map;
 
 //  imports
-import java.io.File;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Random;
-
-import static src.game.map.PathNode.PathType.LAND;
-import static src.game.map.PathNode.PathType.SEA;
+import java.util.SplittableRandom;
 
 import src.game.Good;
 
 /**
  * A class to represent an entire map in the game of Concordia
+ * Only the imperium map is built in, the italia map is rejected until its cities are known, but any
+ * map can be played on a MapTopology imported from files
  * 
  * @author devinlinux
  */
@@ -24,25 +22,32 @@ public class Map {
     public Map(){}
 
     /**
-     * An alias for File.separator
+     * The topology of the map shared with every other Map of the same type
      */
-    private static final String SEP = File.separator;
+    private MapTopology topology;
 
     /**
-     * The Network representing the various cities and paths of the map
+     * The Network representing the various cities and paths of the map, shared with every other Map
+     * of the same type and frozen
      */
     private Network network;
 
     /**
-     * The nodes for the map
+     * The nodes for the map with the city tokens of this game, city i has the id i
      */
     private List<CityNode> cities;
 
     /**
-     * The paths for the map
+     * The paths for the map, shared with every other Map of the same type, their CityNodes are the
+     * CityNodes of the topology so use {@link #city(int)} to find the CityNode of this game
      */
     private List<PathNode> paths;
 
+    /**
+     * The generator of the legal Colonist moves on the paths of the map, also tracks which paths are occupied
+     */
+    private MoveGenerator moves;
+
     /**
      * The city tokens of letter A
      */
@@ -73,28 +78,88 @@ public class Map {
      */
     public static final byte IMPERIUM = 0;
 
+    //  TODO: high resolution image of Italia map so that the names of the cities can be read
     /**
-     * The symbolic constant for the italia map
+     * The symbolic constant for the italia map, not supported by the constructors yet
      */
     public static final byte ITALIA = 1;
     
     /**
-     * The random number generator for this class
+     * The cities that produce each Good as bitmasks indexed by {@code Good.ordinal()}, bit i is set
+     * when the city with id i produces the Good
+     */
+    private int[] goodMasks;
+
+    /**
+     * The random number generator used to draw the city tokens of this Map
      */
-    Random random;
+    private SplittableRandom random;
 
     /**
-     * Constructor to make a new Map
+     * Constructor to make a new Map with randomly drawn city tokens
+     * The tokens are drawn again from the seed of the Game once the Map is given to one
      * @param type the type of map
+     * @throws IllegalArgumentException if the type is not {@link #IMPERIUM}
      */
     public Map(byte type) {
-        if (type != IMPERIUM && type != ITALIA) {
+        this(type, new SplittableRandom());
+    }
+
+    /**
+     * Constructor to make a new Map with city tokens drawn from a random number generator
+     * @param type the type of map
+     * @param random the random number generator to draw the city tokens with
+     * @throws IllegalArgumentException if the type is not {@link #IMPERIUM}
+     */
+    public Map(byte type, SplittableRandom random) {
+        if (type == ITALIA) {
+            throw new IllegalArgumentException("The italia map is not supported yet");
+        }
+        if (type != IMPERIUM) {
             throw new IllegalArgumentException("Invalid map type");
         }
         this.type = type;
-        this.random = new Random();
+        init(MapTopology.of(type));
+        dealCityTokens(random);
+    }
+
+    /**
+     * Constructor to make a new Map on a topology that was imported from files
+     * @param topology the shared topology of the map
+     */
+    public Map(MapTopology topology) {
+        this(topology, new SplittableRandom());
+    }
+
+    /**
+     * Constructor to make a new Map on a topology that was imported from files
+     * @param topology the shared topology of the map
+     * @param random the random number generator to draw the city tokens with, or null to leave them to the
+     *               Game the Map is given to, which draws them from its own seed
+     */
+    public Map(MapTopology topology, SplittableRandom random) {
+        this.type = topology.type();
+        init(topology);
+        if (random != null) {
+            dealCityTokens(random);
+        }
+    }
+
+    /**
+     * Method to draw the city tokens of every city of this Map, replacing any tokens drawn before
+     * Drawing with random number generators in the same state always gives the same tokens
+     * @param random the random number generator to draw the city tokens with
+     */
+    public void dealCityTokens(SplittableRandom random) {
+        this.random = random;
         initCityTokens();
-        init();
+        this.goodMasks = new int[Good.values().length];
+        for (CityNode city : this.cities) {
+            city.setGood(getRandomCityToken(city.letter()));
+            if (city.good() != null) {
+                this.goodMasks[city.good().ordinal()] |= 1 << city.id();
+            }
+        }
     }
 
     /**
@@ -150,146 +215,26 @@ public class Map {
                     Good.FOOD
                 )
         );
-
-        System.out.println(cityTokensA);
-        System.out.println(cityTokensB);
-        System.out.println(cityTokensC);
-        System.out.println(cityTokensD);
     }
 
     /**
-     * Method to make the network based on the type of map
+     * Method to lay this game's cities over the shared topology of the type of map
+     * The Network, the PathNodes and the distance tables are shared with every other Map of the same
+     * type, only the CityNodes (with their tokens and Houses) and the occupied PathNodes belong to this Map
+     * @param topology the shared topology of the map
      */
-    private void init() {
-        switch (type) {
-            case 0 -> {
-                cities = new ArrayList<>(
-                        Arrays.asList(
-                                new CityNode("Isca D.", 0, 'A', getRandomCityToken('A')),
-                                new CityNode("Londinivm", 1, 'A', getRandomCityToken('A')),
-                                new CityNode("Colonia A", 2, 'A', getRandomCityToken('A')),
-                                new CityNode("Vindobona", 3, 'A', getRandomCityToken('A')),
-                                new CityNode("Napoca", 4, 'A', getRandomCityToken('A')),
-                                new CityNode("Lvtetia", 5, 'A', getRandomCityToken('A')),
-                                new CityNode("Sirmivm", 6, 'A', getRandomCityToken('A')),
-                                new CityNode("Tomis", 7, 'A', getRandomCityToken('A')),
-                                new CityNode("Brigantivm", 8, 'B', getRandomCityToken('B')),
-                                new CityNode("Bvrdigala", 9, 'B', getRandomCityToken('B')),
-                                new CityNode("Massilia", 10, 'B', getRandomCityToken('B')),
-                                new CityNode("Novaria", 11, 'D', getRandomCityToken('D')),
-                                new CityNode("Aquileia", 12, 'D', getRandomCityToken('D')),
-                                new CityNode("Bycantivm", 13, 'C', getRandomCityToken('C')),
-                                new CityNode("Sinope", 14, 'C', getRandomCityToken('C')),
-                                new CityNode("Olisipo", 15, 'B', getRandomCityToken('B')),
-                                new CityNode("Valentia", 16, 'B', getRandomCityToken('B')),
-                                new CityNode("Carthago", 17, 'B', getRandomCityToken('B')),
-                                new CityNode("Syracvsa", 18, 'D', getRandomCityToken('D')),
-                                new CityNode("Dyrrhachium", 19, 'D', getRandomCityToken('D')),
-                                new CityNode("Athena", 20, 'D', getRandomCityToken('D')),
-                                new CityNode("Attalia", 21, 'C', getRandomCityToken('C')),
-                                new CityNode("Antiochia", 22, 'C', getRandomCityToken('C')),
-                                new CityNode("Tyros", 23, 'C', getRandomCityToken('C')),
-                                new CityNode("Rvsadir", 24, 'B', getRandomCityToken('B')),
-                                new CityNode("Leptis Magna", 25, 'C', getRandomCityToken('C')),
-                                new CityNode("Cyrene", 26, 'C', getRandomCityToken('C')),
-                                new CityNode("Alexandria", 27, 'C', getRandomCityToken('C')),
-                                new CityNode("Memphis", 28, 'C', getRandomCityToken('C')),
-                                new CityNode("Petra", 29, 'C', getRandomCityToken('C')),
-                                new CityNode("Roma", 30, '\0')
-                        )
-                );
-                CityNode.fwrite(String.format("src%sgame%smap%ssaves%simperium_cities.cn", SEP, SEP, SEP, SEP), cities);
-
-
-                //  Note to self: 0 -> 29, no connections to lower, right > left! ^ ~ >! < ~ >!
-                this.network = new Network(cities.size());
-                network.setCities(CityNode.fread(String.format("src%sgame%smap%ssaves%simperium_cities.cn", SEP, SEP, SEP, SEP)));
-                network.connect(0, 8, SEA);
-                network.connect(0, 1, LAND);
-                network.connect(0, 1, SEA);
-                network.connect(0, 9, SEA);
-                network.connect(1, 5, LAND);
-                network.connect(1, 2, SEA);
-                network.connect(2, 5, LAND);
-                network.connect(2, 11, LAND);
-                network.connect(2, 3, LAND);
-                network.connect(3, 12, LAND);
-                network.connect(3, 6, LAND);
-                network.connect(4, 6, LAND);
-                network.connect(4, 7, LAND);
-                network.connect(5, 9, LAND);
-                network.connect(5, 10, LAND);
-                network.connect(6, 7, LAND);
-                network.connect(6, 12, LAND);
-                network.connect(6, 19, LAND);
-                network.connect(7, 13, SEA);
-                network.connect(7, 14, SEA);
-                network.connect(8, 15, SEA);
-                network.connect(8, 15, LAND);
-                network.connect(8, 16, LAND);
-                network.connect(8, 9, LAND);
-                network.connect(8, 9, SEA);
-                network.connect(9, 10, LAND);
-                network.connect(10, 11, LAND);
-                network.connect(10, 16, SEA);
-                network.connect(10, 16, LAND);
-                network.connect(10, 30, SEA);
-                network.connect(10, 17, SEA);
-                network.connect(11, 30, LAND);
-                network.connect(11, 12, LAND);
-                network.connect(12, 30, LAND);
-                network.connect(12, 19, SEA);
-                network.connect(13, 19, LAND);
-                network.connect(13, 14, SEA);
-                network.connect(13, 14, LAND);
-                network.connect(13, 20, SEA);
-                network.connect(13, 21, LAND);
-                network.connect(14, 22, LAND);
-                network.connect(15, 16, LAND);
-                network.connect(15, 24, LAND);
-                network.connect(15, 24, SEA);
-                network.connect(16, 24, LAND);
-                network.connect(16, 24, SEA);
-                network.connect(16, 17, SEA);
-                network.connect(17, 24, LAND);
-                network.connect(17, 24, SEA);
-                network.connect(17, 25, LAND);
-                network.connect(17, 25, SEA);
-                network.connect(17, 30, SEA);
-                network.connect(17, 18, SEA);
-                network.connect(18, 30, LAND);
-                network.connect(18, 30, SEA);
-                network.connect(18, 25, SEA);
-                network.connect(18, 26, SEA);
-                network.connect(18, 20, SEA);
-                network.connect(18, 19, SEA);
-                network.connect(19, 20, LAND);
-                network.connect(20, 26, SEA);
-                network.connect(20, 27, SEA);
-                network.connect(20, 21, SEA);
-                network.connect(21, 27, SEA);
-                network.connect(21, 22, LAND);
-                network.connect(21, 22, SEA);
-                network.connect(22, 23, SEA);
-                network.connect(22, 23, LAND);
-                network.connect(23, 27, LAND);
-                network.connect(23, 27, SEA);
-                network.connect(23, 29, LAND);
-                network.connect(25, 26, LAND);
-                network.connect(25, 26, SEA);
-                network.connect(26, 27, LAND);
-                network.connect(26, 27, SEA);
-                network.connect(26, 28, LAND);
-                network.connect(27, 28, LAND);
-                network.connect(28, 29, LAND);
-                Network.fwrite(String.format("src%sgame%smap%ssaves%simperium.nw", SEP, SEP, SEP, SEP), network);
-                this.network = Network.fread(String.format("src%sgame%smap%ssaves%simperium.nw", SEP, SEP, SEP, SEP), String.format("src%sgame%smap%ssaves%simperium_cities.cn", SEP, SEP, SEP, SEP));
-                this.cities = network.cities();
-                this.paths = this.network.paths();
-            }
-            case 1 -> {
-                //  TODO: high resolution image of Italia map so that the names of the cities can be read
-            }
+    private void init(MapTopology topology) {
+        if (topology.cities().size() > Integer.SIZE) {
+            throw new IllegalArgumentException("A city bitmask can hold at most " + Integer.SIZE + " cities");
+        }
+        this.topology = topology;
+        this.network = this.topology.network();
+        this.paths = this.topology.paths();
+        this.moves = this.topology.newMoveGenerator();
+        List<CityNode> templates = this.topology.cities();
+        this.cities = new ArrayList<>(templates.size());
+        for (CityNode template : templates) {
+            this.cities.add(new CityNode(template, null));
         }
     }
 
@@ -318,6 +263,27 @@ public class Map {
         return this.cities;
     }
 
+    /**
+     * Getter method for a city of this map
+     *
+     * @param id the id of the city
+     * @return the CityNode of this Map with the id
+     */
+    public CityNode city(int id) {
+        return this.cities.get(id);
+    }
+
+    /**
+     * Getter method for the cities that produce a Good as a bitmask, bit i is set when the city
+     * with id i produces the Good
+     *
+     * @param good the Good
+     * @return the bitmask of the cities that produce the Good
+     */
+    public int goodMask(Good good) {
+        return this.goodMasks[good.ordinal()];
+    }
+
     /**
      * Getter method for the map paths
      * 
@@ -327,7 +293,51 @@ public class Map {
         return this.paths;
     }
 
+    /**
+     * Getter method for the map network
+     *
+     * @return the Network of this Map
+     */
+    public Network network() {
+        return this.network;
+    }
+
+    /**
+     * Getter method for the shared topology of the map
+     *
+     * @return the MapTopology of this Map
+     */
+    public MapTopology topology() {
+        return this.topology;
+    }
+
+    /**
+     * Getter method for the generator of the legal Colonist moves on this Map
+     *
+     * @return the MoveGenerator of this Map
+     */
+    public MoveGenerator moves() {
+        return this.moves;
+    }
+
+    /**
+     * Builds imperium Maps in rounds and prints how long one took on average in each round, the first rounds
+     * warm up the JIT so the later ones give the steady cost of a Map
+     * {@code [rounds] [maps per round]}
+     * @param args the command line arguments
+     */
     public static void main(String[] args) {
-        new Map(Map.IMPERIUM);
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int maps = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+        SplittableRandom random = new SplittableRandom(0L);
+        int cities = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < maps; i++) {
+                cities += new Map(IMPERIUM, random).cities.size();
+            }
+            System.out.printf("round %d: %.2f us per Map%n", round + 1, (System.nanoTime() - start) / 1e3 / maps);
+        }
+        System.out.println(cities + " cities built");
     }
 }
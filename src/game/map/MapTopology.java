@@ -0,0 +1,402 @@
+package src.game.map;
+
+//  imports
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static src.game.map.PathNode.PathType.LAND;
+import static src.game.map.PathNode.PathType.SEA;
+
+/**
+ * A class to represent the immutable topology of a map in the game of Concordia, that is the
+ * CityNodes (cities), the PathNodes (paths) between them, the frozen Network and its distance tables
+ * There is one MapTopology per type of map for the whole process and it is shared by every Map of
+ * that type, so it must never be changed. The CityNodes of a MapTopology have no city token, each
+ * Map makes its own CityNodes with the tokens drawn for its game
+ * The built in maps are built in memory, files are only read or written when a MapTopology is
+ * explicitly imported or exported
+ * @author devinlinux
+ */
+public final class MapTopology {
+
+    /**
+     * The type of map of this MapTopology
+     */
+    private final byte type;
+
+    /**
+     * The frozen Network of this MapTopology
+     */
+    private final Network network;
+
+    /**
+     * The CityNodes (cities) of this MapTopology, without city tokens
+     */
+    private final List<CityNode> cities;
+
+    /**
+     * The PathNodes (paths) of this MapTopology, PathNode i has the id i
+     */
+    private final List<PathNode> paths;
+
+    /**
+     * The MoveGenerator whose reach tables are shared by the MoveGenerators of every Map, never
+     * has any occupied PathNodes
+     */
+    private final MoveGenerator moves;
+
+    /**
+     * The names of the provinces of this MapTopology, indexed by province
+     */
+    private final List<String> provinceNames;
+
+    /**
+     * The CityNodes (cities) of each province as a bitmask, bit i is set when CityNode i is in the province
+     */
+    private final int[] provinceMasks;
+
+    /**
+     * The names of the provinces of the imperium map
+     */
+    private static final String[] IMPERIUM_PROVINCES = {
+            "Britania", "Gallia", "Hispania", "Germania", "Dacia", "Italia",
+            "Hellas", "Asia", "Syria", "Aegyptus", "Lybia", "Mauretania"
+    };
+
+    /**
+     * The province of each CityNode (city) of the imperium map indexed by id, Roma belongs to none
+     */
+    private static final int[] IMPERIUM_PROVINCE_OF_CITY = {
+            0, 0, 3, 3, 4, 1, 4, 4, 2, 1, 1, 5, 5, 7, 7, 2,
+            2, 11, 5, 6, 6, 7, 8, 8, 11, 10, 10, 9, 9, 9, -1
+    };
+
+    /**
+     * A class to hold the MapTopology of the imperium map, it is built the first time it is needed
+     * and the JVM guarantees that this happens once and is seen by every thread
+     */
+    private static final class ImperiumHolder {
+
+        /**
+         * The MapTopology of the imperium map
+         */
+        private static final MapTopology INSTANCE = new MapTopology(Map.IMPERIUM, buildImperium());
+    }
+
+    /**
+     * Constructor to make a MapTopology from a Network, freezing the Network
+     * @param type the type of map
+     * @param network the Network with its CityNodes (cities) and PathNodes (paths) set
+     */
+    private MapTopology(byte type, Network network) {
+        this.type = type;
+        this.network = network;
+        String[] names = assignProvinces(type, network.cities());
+        this.provinceNames = List.of(names);
+        this.provinceMasks = new int[names.length];
+        for (CityNode city : network.cities()) {
+            if (city.province() >= 0) {
+                this.provinceMasks[city.province()] |= 1 << city.id();
+            }
+        }
+        this.network.freeze();
+        this.cities = this.network.cities();
+        this.paths = this.network.paths();
+        this.moves = new MoveGenerator(this.network);
+    }
+
+    /**
+     * Library (static) method to return the shared MapTopology of a type of map
+     * @param type the type of map
+     * @return the MapTopology of the type of map
+     * @throws IllegalArgumentException if the type is not a built in map, the italia map is not built in yet
+     */
+    public static MapTopology of(byte type) {
+        return switch (type) {
+            case Map.IMPERIUM -> ImperiumHolder.INSTANCE;
+            case Map.ITALIA -> throw new IllegalArgumentException("The italia map is not supported yet");
+            default -> throw new IllegalArgumentException("Invalid map type");
+        };
+    }
+
+    /**
+     * Library (static) method to put the CityNodes (cities) of a built in type of map into their provinces
+     * Maps that are not built in, or whose cities do not match the built in map, have no provinces
+     * @param type the type of map
+     * @param cities the CityNodes of the map
+     * @return the names of the provinces, indexed by province
+     */
+    private static String[] assignProvinces(byte type, List<CityNode> cities) {
+        if (type != Map.IMPERIUM || cities.size() != IMPERIUM_PROVINCE_OF_CITY.length) {
+            return new String[0];
+        }
+        for (CityNode city : cities) {
+            city.setProvince(IMPERIUM_PROVINCE_OF_CITY[city.id()]);
+        }
+        return IMPERIUM_PROVINCES.clone();
+    }
+
+    /**
+     * Method to build the Network of the imperium map
+     * @return the Network of the imperium map, not frozen yet
+     */
+    private static Network buildImperium() {
+        List<CityNode> cities = new ArrayList<>(
+                Arrays.asList(
+                        new CityNode("Isca D.", 0, 'A'),
+                        new CityNode("Londinivm", 1, 'A'),
+                        new CityNode("Colonia A", 2, 'A'),
+                        new CityNode("Vindobona", 3, 'A'),
+                        new CityNode("Napoca", 4, 'A'),
+                        new CityNode("Lvtetia", 5, 'A'),
+                        new CityNode("Sirmivm", 6, 'A'),
+                        new CityNode("Tomis", 7, 'A'),
+                        new CityNode("Brigantivm", 8, 'B'),
+                        new CityNode("Bvrdigala", 9, 'B'),
+                        new CityNode("Massilia", 10, 'B'),
+                        new CityNode("Novaria", 11, 'D'),
+                        new CityNode("Aquileia", 12, 'D'),
+                        new CityNode("Bycantivm", 13, 'C'),
+                        new CityNode("Sinope", 14, 'C'),
+                        new CityNode("Olisipo", 15, 'B'),
+                        new CityNode("Valentia", 16, 'B'),
+                        new CityNode("Carthago", 17, 'B'),
+                        new CityNode("Syracvsa", 18, 'D'),
+                        new CityNode("Dyrrhachium", 19, 'D'),
+                        new CityNode("Athena", 20, 'D'),
+                        new CityNode("Attalia", 21, 'C'),
+                        new CityNode("Antiochia", 22, 'C'),
+                        new CityNode("Tyros", 23, 'C'),
+                        new CityNode("Rvsadir", 24, 'B'),
+                        new CityNode("Leptis Magna", 25, 'C'),
+                        new CityNode("Cyrene", 26, 'C'),
+                        new CityNode("Alexandria", 27, 'C'),
+                        new CityNode("Memphis", 28, 'C'),
+                        new CityNode("Petra", 29, 'C'),
+                        new CityNode("Roma", 30, '\0')
+                )
+        );
+
+        //  Note to self: 0 -> 29, no connections to lower, right > left! ^ ~ >! < ~ >!
+        Network network = new Network(cities.size());
+        network.setCities(cities);
+        network.connect(0, 8, SEA);
+        network.connect(0, 1, LAND);
+        network.connect(0, 1, SEA);
+        network.connect(0, 9, SEA);
+        network.connect(1, 5, LAND);
+        network.connect(1, 2, SEA);
+        network.connect(2, 5, LAND);
+        network.connect(2, 11, LAND);
+        network.connect(2, 3, LAND);
+        network.connect(3, 12, LAND);
+        network.connect(3, 6, LAND);
+        network.connect(4, 6, LAND);
+        network.connect(4, 7, LAND);
+        network.connect(5, 9, LAND);
+        network.connect(5, 10, LAND);
+        network.connect(6, 7, LAND);
+        network.connect(6, 12, LAND);
+        network.connect(6, 19, LAND);
+        network.connect(7, 13, SEA);
+        network.connect(7, 14, SEA);
+        network.connect(8, 15, SEA);
+        network.connect(8, 15, LAND);
+        network.connect(8, 16, LAND);
+        network.connect(8, 9, LAND);
+        network.connect(8, 9, SEA);
+        network.connect(9, 10, LAND);
+        network.connect(10, 11, LAND);
+        network.connect(10, 16, SEA);
+        network.connect(10, 16, LAND);
+        network.connect(10, 30, SEA);
+        network.connect(10, 17, SEA);
+        network.connect(11, 30, LAND);
+        network.connect(11, 12, LAND);
+        network.connect(12, 30, LAND);
+        network.connect(12, 19, SEA);
+        network.connect(13, 19, LAND);
+        network.connect(13, 14, SEA);
+        network.connect(13, 14, LAND);
+        network.connect(13, 20, SEA);
+        network.connect(13, 21, LAND);
+        network.connect(14, 22, LAND);
+        network.connect(15, 16, LAND);
+        network.connect(15, 24, LAND);
+        network.connect(15, 24, SEA);
+        network.connect(16, 24, LAND);
+        network.connect(16, 24, SEA);
+        network.connect(16, 17, SEA);
+        network.connect(17, 24, LAND);
+        network.connect(17, 24, SEA);
+        network.connect(17, 25, LAND);
+        network.connect(17, 25, SEA);
+        network.connect(17, 30, SEA);
+        network.connect(17, 18, SEA);
+        network.connect(18, 30, LAND);
+        network.connect(18, 30, SEA);
+        network.connect(18, 25, SEA);
+        network.connect(18, 26, SEA);
+        network.connect(18, 20, SEA);
+        network.connect(18, 19, SEA);
+        network.connect(19, 20, LAND);
+        network.connect(20, 26, SEA);
+        network.connect(20, 27, SEA);
+        network.connect(20, 21, SEA);
+        network.connect(21, 27, SEA);
+        network.connect(21, 22, LAND);
+        network.connect(21, 22, SEA);
+        network.connect(22, 23, SEA);
+        network.connect(22, 23, LAND);
+        network.connect(23, 27, LAND);
+        network.connect(23, 27, SEA);
+        network.connect(23, 29, LAND);
+        network.connect(25, 26, LAND);
+        network.connect(25, 26, SEA);
+        network.connect(26, 27, LAND);
+        network.connect(26, 27, SEA);
+        network.connect(26, 28, LAND);
+        network.connect(27, 28, LAND);
+        network.connect(28, 29, LAND);
+        return network;
+    }
+
+    /**
+     * Library (static) method to import a MapTopology from a Network file and a CityNode file
+     * The PathNodes get their ids in the order they appear in the Network file
+     * @param type the type of map the files describe
+     * @param networkPath the path to the file containing the Network
+     * @param citiesPath the path to the file containing the CityNodes (cities) of the Network
+     * @return the MapTopology described by the files
+     */
+    public static MapTopology fread(byte type, String networkPath, String citiesPath) {
+        Network network = Network.fread(networkPath, citiesPath);
+        if (network == null || network.paths() == null) {
+            throw new IllegalArgumentException("Could not load a Network from " + networkPath);
+        }
+        for (CityNode city : network.cities()) {
+            city.setGood(null);
+        }
+        return new MapTopology(type, network);
+    }
+
+    /**
+     * Library (static) method to import a MapTopology from a binary Network file
+     * @param type the type of map the file describes
+     * @param path the path to the binary file
+     * @return the MapTopology described by the file
+     */
+    public static MapTopology freadBinary(byte type, String path) {
+        Network network = BinaryNetwork.fread(path);
+        if (network == null) {
+            throw new IllegalArgumentException("Could not load a Network from " + path);
+        }
+        for (CityNode city : network.cities()) {
+            city.setGood(null);
+        }
+        return new MapTopology(type, network);
+    }
+
+    /**
+     * Method to export this MapTopology to a binary Network file including its distance tables
+     * @param path the path to the file to write to
+     */
+    public void fwriteBinary(String path) {
+        BinaryNetwork.fwrite(path, this.network, true);
+    }
+
+    /**
+     * Method to export this MapTopology to a Network file and a CityNode file
+     * @param networkPath the path to the file to write the Network to
+     * @param citiesPath the path to the file to write the CityNodes (cities) to
+     */
+    public void fwrite(String networkPath, String citiesPath) {
+        Network.fwrite(networkPath, this.network);
+        CityNode.fwrite(citiesPath, this.cities);
+    }
+
+    /**
+     * Getter to return the type of map of this MapTopology
+     * @return the type of map
+     */
+    public byte type() {
+        return this.type;
+    }
+
+    /**
+     * Getter to return the frozen Network of this MapTopology
+     * @return the Network of this MapTopology
+     */
+    public Network network() {
+        return this.network;
+    }
+
+    /**
+     * Getter to return the CityNodes (cities) of this MapTopology, they have no city tokens
+     * @return an unmodifiable list of the CityNodes
+     */
+    public List<CityNode> cities() {
+        return this.cities;
+    }
+
+    /**
+     * Getter to return the PathNodes (paths) of this MapTopology
+     * @return an unmodifiable list of the PathNodes, PathNode i has the id i
+     */
+    public List<PathNode> paths() {
+        return this.paths;
+    }
+
+    /**
+     * Getter to return the number of provinces of this MapTopology
+     * @return the number of provinces
+     */
+    public int numProvinces() {
+        return this.provinceNames.size();
+    }
+
+    /**
+     * Getter to return the name of a province of this MapTopology
+     * @param province the index of the province
+     * @return the name of the province
+     */
+    public String provinceName(int province) {
+        return this.provinceNames.get(province);
+    }
+
+    /**
+     * Getter to return the CityNodes (cities) of a province as a bitmask
+     * @param province the index of the province
+     * @return the bitmask of the CityNodes in the province, bit i is set when CityNode i is in it
+     */
+    public int provinceMask(int province) {
+        return this.provinceMasks[province];
+    }
+
+    /**
+     * Getter to return the line graph of the PathNodes of this MapTopology
+     * @return the line graph of this MapTopology
+     */
+    public LineGraph lineGraph() {
+        return this.network.lineGraph();
+    }
+
+    /**
+     * Method to make a new MoveGenerator with no occupied PathNodes for one game on this MapTopology
+     * The reach tables are shared, only the occupied PathNodes are allocated
+     * @return a new MoveGenerator for this MapTopology
+     */
+    public MoveGenerator newMoveGenerator() {
+        return new MoveGenerator(this.moves);
+    }
+
+    /**
+     * toString method to return a String representation of a MapTopology
+     * @return a String representation of this MapTopology
+     */
+    @Override
+    public String toString() {
+        return String.format("MapTopology with %d cities and %d paths", this.cities.size(), this.paths.size());
+    }
+}
@@ -0,0 +1,291 @@
+package src.game.map;
+
+//  imports
+import java.util.Arrays;
+
+import static src.game.map.PathNode.PathType;
+
+/**
+ * A class to generate the legal moves of Colonists on the PathNodes (paths) of a Network
+ * A Colonist may pass through PathNodes occupied by other Colonists but may not end its move on one
+ * For every PathNode and CityNode the set of PathNodes within each number of steps is precomputed as
+ * a bitset, and the occupied PathNodes are kept as a bitset that is updated in O(1) whenever a Colonist
+ * is placed, moves or is removed, so a query is a handful of word operations and never allocates
+ * The reach tables only depend on the topology and are shared by every MoveGenerator made from the same
+ * template, each game only owns its bitset of occupied PathNodes
+ * @author devinlinux
+ */
+public class MoveGenerator {
+
+    /**
+     * The line graph that gives the number of steps between PathNodes
+     */
+    private final LineGraph graph;
+
+    /**
+     * The number of longs needed to hold one bit per PathNode
+     */
+    private final int words;
+
+    /**
+     * The largest budget that makes a difference, larger budgets are clamped to this
+     */
+    private final int maxBudget;
+
+    /**
+     * The PathNodes reachable from each PathNode in 1 to r steps, the bitset for PathNode e
+     * and budget r starts at {@code (e * (maxBudget + 1) + r) * words}
+     */
+    private final long[] edgeReach;
+
+    /**
+     * The PathNodes reachable from each CityNode in 1 to r steps, the bitset for CityNode c
+     * and budget r starts at {@code (c * (maxBudget + 1) + r) * words}
+     */
+    private final long[] cityReach;
+
+    /**
+     * The PathNodes of each type as bitsets, indexed by {@code PathType.ordinal()}
+     */
+    private final long[][] typeMasks;
+
+    /**
+     * The PathNodes that are currently occupied by a Colonist
+     */
+    private final long[] occupied;
+
+    /**
+     * Constructor to make a new MoveGenerator for the PathNodes (paths) of a Network
+     * @param network the Network whose PathNodes the Colonists move on
+     */
+    public MoveGenerator(Network network) {
+        this(network.lineGraph());
+    }
+
+    /**
+     * Constructor to make a new MoveGenerator from a line graph, precomputing its reach tables
+     * @param graph the line graph that gives the number of steps between PathNodes
+     */
+    public MoveGenerator(LineGraph graph) {
+        this.graph = graph;
+        int numEdges = graph.numEdges();
+        this.words = (numEdges + 63) >>> 6;
+        this.maxBudget = graph.maxDistance();
+        this.occupied = new long[this.words];
+        this.typeMasks = new long[PathType.values().length][this.words];
+        for (int e = 0; e < numEdges; e++) {
+            this.typeMasks[graph.type(e).ordinal()][e >>> 6] |= 1L << e;
+        }
+
+        int stride = (this.maxBudget + 1) * this.words;
+        this.edgeReach = new long[numEdges * stride];
+        for (int from = 0; from < numEdges; from++) {
+            for (int to = 0; to < numEdges; to++) {
+                int steps = graph.distance(from, to);
+                if (steps > 0) {
+                    setFrom(this.edgeReach, from * stride, steps, to);
+                }
+            }
+        }
+        this.cityReach = new long[graph.numCities() * stride];
+        for (int city = 0; city < graph.numCities(); city++) {
+            for (int to = 0; to < numEdges; to++) {
+                int steps = graph.distanceFromCity(city, to);
+                if (steps > 0) {
+                    setFrom(this.cityReach, city * stride, steps, to);
+                }
+            }
+        }
+    }
+
+    /**
+     * Constructor to make a new MoveGenerator with no occupied PathNodes that shares the
+     * precomputed reach tables of another MoveGenerator
+     * @param template the MoveGenerator whose reach tables should be shared
+     */
+    public MoveGenerator(MoveGenerator template) {
+        this.graph = template.graph;
+        this.words = template.words;
+        this.maxBudget = template.maxBudget;
+        this.edgeReach = template.edgeReach;
+        this.cityReach = template.cityReach;
+        this.typeMasks = template.typeMasks;
+        this.occupied = new long[this.words];
+    }
+
+    /**
+     * Method to mark a PathNode as reachable for every budget of at least a number of steps
+     * @param reach the reach table to write into
+     * @param base the index of the bitset for budget 0 of the source
+     * @param steps the number of steps to the PathNode
+     * @param to the id of the PathNode
+     */
+    private void setFrom(long[] reach, int base, int steps, int to) {
+        for (int r = steps; r <= this.maxBudget; r++) {
+            reach[base + r * this.words + (to >>> 6)] |= 1L << to;
+        }
+    }
+
+    /**
+     * Method to write the ids of every PathNode a Colonist on a PathNode can legally end on into an array
+     * @param from the id of the PathNode the Colonist is on
+     * @param budget the number of steps the Colonist may take
+     * @param out the array to write the ids into, must be able to hold every PathNode
+     * @return the number of ids written
+     */
+    public int legalMoves(int from, int budget, int[] out) {
+        if (budget <= 0) {
+            return 0;
+        }
+        return collect(this.edgeReach, index(from, budget), null, out);
+    }
+
+    /**
+     * Method to write the ids of every PathNode of a type a Colonist standing in a CityNode (city)
+     * can legally end on into an array
+     * @param city the id of the CityNode the Colonist is in
+     * @param type the type of the Colonist
+     * @param budget the number of steps the Colonist may take
+     * @param out the array to write the ids into, must be able to hold every PathNode
+     * @return the number of ids written
+     */
+    public int legalMovesFromCity(int city, PathType type, int budget, int[] out) {
+        if (budget <= 0) {
+            return 0;
+        }
+        return collect(this.cityReach, index(city, budget), this.typeMasks[type.ordinal()], out);
+    }
+
+    /**
+     * Method to write the PathNodes a Colonist on a PathNode can legally end on into a bitset
+     * @param from the id of the PathNode the Colonist is on
+     * @param budget the number of steps the Colonist may take
+     * @param out the bitset to write into, must have at least {@link #words()} longs
+     */
+    public void legalMoveMask(int from, int budget, long[] out) {
+        if (budget <= 0) {
+            Arrays.fill(out, 0, this.words, 0L);
+            return;
+        }
+        int base = index(from, budget);
+        for (int w = 0; w < this.words; w++) {
+            out[w] = this.edgeReach[base + w] & ~this.occupied[w];
+        }
+    }
+
+    /**
+     * Method to check whether a Colonist on a PathNode can legally end its move on another PathNode
+     * @param from the id of the PathNode the Colonist is on
+     * @param to the id of the PathNode the Colonist should end on
+     * @param budget the number of steps the Colonist may take
+     * @return whether the move is legal
+     */
+    public boolean canMove(int from, int to, int budget) {
+        int steps = this.graph.distance(from, to);
+        return steps > 0 && steps <= budget && !isOccupied(to);
+    }
+
+    /**
+     * Method to check whether a Colonist standing in a CityNode (city) can legally end its move on a PathNode
+     * @param city the id of the CityNode the Colonist is in
+     * @param type the type of the Colonist
+     * @param to the id of the PathNode the Colonist should end on
+     * @param budget the number of steps the Colonist may take
+     * @return whether the move is legal
+     */
+    public boolean canMoveFromCity(int city, PathType type, int to, int budget) {
+        int steps = this.graph.distanceFromCity(city, to);
+        return this.graph.type(to) == type && steps > 0 && steps <= budget && !isOccupied(to);
+    }
+
+    /**
+     * Method to write the ids of the set bits of a reach bitset that are not occupied into an array
+     * @param reach the reach table to read from
+     * @param base the index of the bitset in the reach table
+     * @param filter a bitset the ids must also be in, or null
+     * @param out the array to write the ids into
+     * @return the number of ids written
+     */
+    private int collect(long[] reach, int base, long[] filter, int[] out) {
+        int count = 0;
+        for (int w = 0; w < this.words; w++) {
+            long bits = reach[base + w] & ~this.occupied[w];
+            if (filter != null) {
+                bits &= filter[w];
+            }
+            while (bits != 0) {
+                out[count++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Method to find the index of the reach bitset of a source and a budget
+     * @param source the id of the PathNode or CityNode
+     * @param budget the number of steps, clamped to the largest budget that makes a difference
+     * @return the index of the bitset in its reach table
+     */
+    private int index(int source, int budget) {
+        return (source * (this.maxBudget + 1) + Math.min(budget, this.maxBudget)) * this.words;
+    }
+
+    /**
+     * Method to mark a PathNode as occupied by a Colonist
+     * @param e the id of the PathNode
+     */
+    public void occupy(int e) {
+        this.occupied[e >>> 6] |= 1L << e;
+    }
+
+    /**
+     * Method to mark a PathNode as no longer occupied by a Colonist
+     * @param e the id of the PathNode
+     */
+    public void vacate(int e) {
+        this.occupied[e >>> 6] &= ~(1L << e);
+    }
+
+    /**
+     * Method to move the occupation of a PathNode to another PathNode
+     * @param from the id of the PathNode the Colonist leaves
+     * @param to the id of the PathNode the Colonist ends on
+     */
+    public void move(int from, int to) {
+        vacate(from);
+        occupy(to);
+    }
+
+    /**
+     * Method to mark every PathNode as not occupied
+     */
+    public void clear() {
+        Arrays.fill(this.occupied, 0L);
+    }
+
+    /**
+     * Getter to return whether a PathNode is occupied by a Colonist
+     * @param e the id of the PathNode
+     * @return whether the PathNode is occupied
+     */
+    public boolean isOccupied(int e) {
+        return (this.occupied[e >>> 6] & (1L << e)) != 0;
+    }
+
+    /**
+     * Getter to return the number of longs needed to hold one bit per PathNode
+     * @return the number of longs in a bitset of PathNodes
+     */
+    public int words() {
+        return this.words;
+    }
+
+    /**
+     * Getter to return the line graph used by this MoveGenerator
+     * @return the line graph
+     */
+    public LineGraph lineGraph() {
+        return this.graph;
+    }
+}
@@ -4,8 +4,7 @@ package src.game.map;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Queue;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.BufferedWriter;
@@ -40,12 +39,14 @@ public class Network implements java.io.Serializable {
     private final int NUM_NODES;
 
     /**
-     * The adjacency list of this Network for land
+     * The adjacency list of this Network for land, only used to record calls to connect,
+     * traversals use the frozen compressed form
      */
     private List<List<Integer>> adjListLand;
 
     /**
-     * The adjacency list of this Network for sea
+     * The adjacency list of this Network for sea, only used to record calls to connect,
+     * traversals use the frozen compressed form
      */
     private List<List<Integer>> adjListSea;
 
@@ -59,6 +60,32 @@ public class Network implements java.io.Serializable {
      */
     private List<PathNode> paths;
 
+    /**
+     * The frozen compressed sparse row form of the adjacency lists indexed by {@code PathType.ordinal()},
+     * used by all traversals of this Network. Built lazily and discarded whenever the topology changes
+     */
+    private transient volatile CompressedAdjacency[] adjacency;
+
+    /**
+     * The all-pairs distance tables of this Network indexed by {@code PathType.ordinal()},
+     * each table is a flattened {@code NUM_NODES * NUM_NODES} array where the entry at
+     * {@code u * NUM_NODES + v} is the number of edges between u and v or -1 if v cannot be
+     * reached from u. Built lazily and discarded whenever the topology changes
+     */
+    private transient volatile int[][] distances;
+
+    /**
+     * The line graph of the PathNodes (paths) of this Network, gives the number of steps between
+     * PathNodes. Built lazily and discarded whenever the topology changes
+     */
+    private transient volatile LineGraph lineGraph;
+
+    /**
+     * Whether this Network has been frozen, a frozen Network can no longer be changed and may be
+     * shared between games
+     */
+    private boolean frozen;
+
     /**
      * Constructor to make a new Network
      * @param NUM_NODES the number of nodes (cities) in this Network
@@ -80,6 +107,7 @@ public class Network implements java.io.Serializable {
      * @param type the type of edge (path) (land or sea)
      */
     public void connect(int u, int v, PathType type) {
+        checkNotFrozen();
         switch (type) {
             case LAND -> {
                 this.adjListLand.get(u).add(v);
@@ -90,12 +118,16 @@ public class Network implements java.io.Serializable {
                 this.adjListSea.get(v).add(u);
             }
         }
+        this.adjacency = null;
+        this.distances = null;
+        this.lineGraph = null;
 
         if (this.cities != null) {
             if (this.paths == null) {
                 this.paths = new ArrayList<>();
             }
             this.paths.add(new PathNode(
+                    this.paths.size(),
                     cities.get(u).name() + " to " + cities.get(v).name(),
                     cities.get(u),
                     cities.get(v),
@@ -115,7 +147,7 @@ public class Network implements java.io.Serializable {
 
     /**
      * Method to find the number of edges between a start and an edge (represented by start and end nodes)
-     * Uses a breadth-first search pathfinding algorithm
+     * Looks the distance up in the precomputed all-pairs distance table of the given type
      * @param start1 the first node associated with the first edge
      * @param start2 the second node associated with the first edge
      * @param type1 the type associated with the first edge
@@ -126,67 +158,154 @@ public class Network implements java.io.Serializable {
      * excluding the start edge. Or -1 if no path is found
      */
     public int computeDistanceBetween(int start1, int start2, PathType type1, int end1, int end2, PathType type2) {
-
         if (type1 != type2) {
             return -1;
         }
+        return distance(Math.min(start1, start2), Math.min(end1, end2), type1);
+    }
 
-        int start = Math.min(start1, start2);
-        int end = Math.min(end1, end2);
-
-        boolean[] visited = new boolean[this.NUM_NODES];
-        int[] dist = new int[this.NUM_NODES];
-        Arrays.fill(dist, -1);
-        Queue<Integer> queue = new LinkedList<>();
-        queue.add(start);
-        visited[start] = true;
-        dist[start] = 0;
-        while (!queue.isEmpty()) {
-            int curr = queue.poll();
-            switch (type1) {
-                case LAND -> {
-                    for (int neighbor : adjListLand.get(curr)) {
-                        if (!visited[neighbor]) {
-                            visited[neighbor] = true;
-                            dist[neighbor] = dist[curr] + 1;
-                            queue.add(neighbor);
-                        }
-                        if (neighbor == end) {
-                            return dist[neighbor];
-                        }
-                    }
-                }
-                case SEA -> {
-                    for (int neighbor : adjListSea.get(curr)) {
-                        if (!visited[neighbor]) {
-                            visited[neighbor] = true;
-                            dist[neighbor] = dist[curr] + 1;
-                            queue.add(neighbor);
-                        }
-                        if (neighbor == end) {
-                            return dist[neighbor];
-                        }
+    /**
+     * Method to find the number of edges of a certain type between two nodes (cities)
+     * @param u the starting node (city)
+     * @param v the ending node (city)
+     * @param type the type of edges (paths) that may be used
+     * @return the number of edges between u and v, or -1 if v cannot be reached from u
+     */
+    public int distance(int u, int v, PathType type) {
+        return distances()[type.ordinal()][u * this.NUM_NODES + v];
+    }
+
+    /**
+     * Method to return the flattened all-pairs distance table of a certain type, must not be modified
+     * @param type the type of edges (paths)
+     * @return the distance table, the entry at {@code u * numNodes() + v} is the distance from u to v
+     */
+    int[] distanceTable(PathType type) {
+        return distances()[type.ordinal()];
+    }
+
+    /**
+     * Method to build the all-pairs distance tables of this Network, and the line graph of its
+     * PathNodes (paths) if it has any, ahead of the first lookup. Should be called once the topology
+     * is finalized so that no lookup pays for the build
+     */
+    public void buildDistanceTables() {
+        distances();
+        if (this.paths != null) {
+            lineGraph();
+        }
+    }
+
+    /**
+     * Getter to return the line graph of the PathNodes (paths) of this Network,
+     * rebuilding it if a call to connect has invalidated it since it was last built
+     * @return the line graph of the PathNodes of this Network
+     * @throws IllegalStateException if this Network has no PathNodes
+     */
+    public LineGraph lineGraph() {
+        LineGraph graph = this.lineGraph;
+        if (graph == null) {
+            if (this.paths == null) {
+                throw new IllegalStateException("Network has no PathNodes");
+            }
+            graph = new LineGraph(this.NUM_NODES, this.paths);
+            this.lineGraph = graph;
+        }
+        return graph;
+    }
+
+    /**
+     * Method to return the all-pairs distance tables, rebuilding them if a call to connect
+     * has invalidated them since they were last built
+     * @return the distance tables indexed by {@code PathType.ordinal()}
+     */
+    private int[][] distances() {
+        int[][] tables = this.distances;
+        if (tables == null) {
+            tables = new int[PathType.values().length][];
+            tables[PathType.LAND.ordinal()] = computeDistanceTable(adjacency(PathType.LAND));
+            tables[PathType.SEA.ordinal()] = computeDistanceTable(adjacency(PathType.SEA));
+            this.distances = tables;
+        }
+        return tables;
+    }
+
+    /**
+     * Getter to return the frozen compressed sparse row adjacency of a certain type,
+     * rebuilding it if a call to connect has invalidated it since it was last built
+     * @param type the type of edges (paths)
+     * @return the compressed adjacency of the edges (paths) of that type
+     */
+    public CompressedAdjacency adjacency(PathType type) {
+        CompressedAdjacency[] frozen = this.adjacency;
+        if (frozen == null) {
+            frozen = new CompressedAdjacency[PathType.values().length];
+            frozen[PathType.LAND.ordinal()] = new CompressedAdjacency(this.adjListLand);
+            frozen[PathType.SEA.ordinal()] = new CompressedAdjacency(this.adjListSea);
+            this.adjacency = frozen;
+        }
+        return frozen[type.ordinal()];
+    }
+
+    /**
+     * Method to compute the all-pairs distance table for one compressed adjacency
+     * Runs a breadth-first search from every node using a single primitive queue
+     * @param adj the compressed adjacency to compute the distances for
+     * @return the flattened distance table, -1 marks unreachable pairs
+     */
+    private int[] computeDistanceTable(CompressedAdjacency adj) {
+        int[] offsets = adj.offsets();
+        int[] neighbors = adj.neighbors();
+        int[] table = new int[this.NUM_NODES * this.NUM_NODES];
+        Arrays.fill(table, -1);
+        int[] queue = new int[this.NUM_NODES];
+        for (int source = 0; source < this.NUM_NODES; source++) {
+            int row = source * this.NUM_NODES;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = source;
+            table[row + source] = 0;
+            while (head < tail) {
+                int curr = queue[head++];
+                for (int i = offsets[curr]; i < offsets[curr + 1]; i++) {
+                    int neighbor = neighbors[i];
+                    if (table[row + neighbor] == -1) {
+                        table[row + neighbor] = table[row + curr] + 1;
+                        queue[tail++] = neighbor;
                     }
                 }
             }
         }
-
-        return  -1;
+        return table;
     }
 
     /**
      * Method to find the number of PathNodes between a start and an end PathNode
-     * Uses the above implementation of the method using the ids of the cities associated
-     * with the provided PathNodes
+     * Looks the number of steps up in the line graph of this Network when both PathNodes belong to it,
+     * otherwise falls back to the above implementation of the method using the ids of the cities
+     * associated with the provided PathNodes. Either way the lookup is O(1) once the tables are built
      * @param start the start PathNode
      * @param end the end PathNode
      * @return the number of PathNodes between the start PathNode and the end PathNode including the end,
      * but not the start. Or -1 if no path is found
      */
     public int computeDistanceBetween(PathNode start, PathNode end) {
+        if (this.paths != null && belongs(start) && belongs(end)) {
+            return lineGraph().distance(start.id(), end.id());
+        }
         return computeDistanceBetween(start.node1().id(), start.node2().id(), start.type(), end.node1().id(), end.node2().id(), end.type());
     }
 
+    /**
+     * Method to check whether a PathNode is one of the PathNodes (paths) of this Network
+     * @param path the PathNode to check
+     * @return whether the PathNode is one of the PathNodes of this Network
+     */
+    private boolean belongs(PathNode path) {
+        int id = path.id();
+        return id >= 0 && id < this.paths.size() && this.paths.get(id) == path;
+    }
+
     /**
      * Library (static) method to load a Network from a file with CityNodes (cities)
      * The first non comment line must be the number of nodes in the Network
@@ -229,6 +348,8 @@ public class Network implements java.io.Serializable {
 
     /**
      * Library (static) method to write a Network to a file
+     * Every edge (path) is written once, in the order of the PathNodes of the Network if it has any
+     * so that reading the file back gives the PathNodes the same ids
      * @param path the path to the file to write to
      * @param network the Network to write to the file
      */
@@ -246,17 +367,31 @@ public class Network implements java.io.Serializable {
                 writer.write(Integer.toString(network.NUM_NODES));
                 writer.newLine();
 
-                for (int u = 0; u < network.NUM_NODES; u++) {
-                    for (int v : network.adjListLand.get(u)) {
-                        String line = String.format("%d <-> %d <-> %s", u, v, PathType.LAND.name());
+                if (network.paths != null) {
+                    for (PathNode node : network.paths) {
+                        String line = String.format("%d <-> %d <-> %s", node.node1().id(), node.node2().id(), node.type().name());
                         writer.write(line);
                         writer.newLine();
                     }
+                } else {
+                    CompressedAdjacency land = network.adjacency(PathType.LAND);
+                    CompressedAdjacency sea = network.adjacency(PathType.SEA);
+                    for (int u = 0; u < network.NUM_NODES; u++) {
+                        for (int i = land.start(u); i < land.end(u); i++) {
+                            if (u < land.neighbor(i)) {
+                                String line = String.format("%d <-> %d <-> %s", u, land.neighbor(i), PathType.LAND.name());
+                                writer.write(line);
+                                writer.newLine();
+                            }
+                        }
 
-                    for (int v : network.adjListSea.get(u)) {
-                        String line = String.format("%d <-> %d <-> %s", u, v, PathType.SEA.name());
-                        writer.write(line);
-                        writer.newLine();
+                        for (int i = sea.start(u); i < sea.end(u); i++) {
+                            if (u < sea.neighbor(i)) {
+                                String line = String.format("%d <-> %d <-> %s", u, sea.neighbor(i), PathType.SEA.name());
+                                writer.write(line);
+                                writer.newLine();
+                            }
+                        }
                     }
                 }
             }
@@ -296,8 +431,11 @@ public class Network implements java.io.Serializable {
                     g.drawString(nodeId, x - nodeIdWidth / 2, y);
                 }
 
+                CompressedAdjacency land = adjacency(PathType.LAND);
+                CompressedAdjacency sea = adjacency(PathType.SEA);
                 for (int u = 0; u < NUM_NODES; u++) {
-                    for (int v : adjListLand.get(u)) {
+                    for (int i = land.start(u); i < land.end(u); i++) {
+                        int v = land.neighbor(i);
                         int x1 = (u % 10) * nodeSize + nodeSize / 2;
                         int y1 = (u / 10) * nodeSize + nodeSize / 2;
                         int x2 = (v % 10) * nodeSize + nodeSize / 2;
@@ -307,7 +445,8 @@ public class Network implements java.io.Serializable {
                         g.drawLine(x1, y1, x2, y2);
                     }
 
-                    for (int v : adjListSea.get(u)) {
+                    for (int i = sea.start(u); i < sea.end(u); i++) {
+                        int v = sea.neighbor(i);
                         int x1 = (u % 10) * nodeSize + nodeSize / 2;
                         int y1 = (u / 10) * nodeSize + nodeSize / 2;
                         int x2 = (v % 10) * nodeSize + nodeSize / 2;
@@ -330,20 +469,109 @@ public class Network implements java.io.Serializable {
         frame.setVisible(true);
     }
 
+    /**
+     * Method to install compressed adjacencies and distance tables that were loaded from a file,
+     * so that they do not have to be rebuilt from the calls to connect
+     * They must describe exactly the edges of the PathNodes (paths) of this Network, which the caller checks
+     * The adjacency lists are filled from them in the same order, so a later call to connect rebuilds
+     * tables that still hold every edge
+     * @param land the compressed adjacency of the land edges
+     * @param sea the compressed adjacency of the sea edges
+     * @param distances the distance tables indexed by {@code PathType.ordinal()}, or null to build them when needed
+     */
+    void setTables(CompressedAdjacency land, CompressedAdjacency sea, int[][] distances) {
+        checkNotFrozen();
+        if (land.numNodes() != this.NUM_NODES || sea.numNodes() != this.NUM_NODES) {
+            throw new IllegalArgumentException("Adjacency does not match the number of nodes");
+        }
+        if (distances != null) {
+            for (int[] table : distances) {
+                if (table.length != this.NUM_NODES * this.NUM_NODES) {
+                    throw new IllegalArgumentException("Distance table does not match the number of nodes");
+                }
+            }
+        }
+        fillAdjList(this.adjListLand, land);
+        fillAdjList(this.adjListSea, sea);
+        CompressedAdjacency[] frozen = new CompressedAdjacency[PathType.values().length];
+        frozen[PathType.LAND.ordinal()] = land;
+        frozen[PathType.SEA.ordinal()] = sea;
+        this.adjacency = frozen;
+        this.distances = distances;
+    }
+
+    /**
+     * Library (static) method to replace the contents of an adjacency list with the edges of a compressed adjacency
+     * @param adjList the adjacency list to fill
+     * @param adj the compressed adjacency to fill it from
+     */
+    private static void fillAdjList(List<List<Integer>> adjList, CompressedAdjacency adj) {
+        for (int u = 0; u < adjList.size(); u++) {
+            List<Integer> neighbors = adjList.get(u);
+            neighbors.clear();
+            for (int i = adj.start(u); i < adj.end(u); i++) {
+                neighbors.add(adj.neighbor(i));
+            }
+        }
+    }
+
+    /**
+     * Method to freeze this Network so that it can be shared between games
+     * Builds the distance tables, makes the CityNodes (cities) and PathNodes (paths) unmodifiable
+     * and makes every later call to connect, setCities or setPaths throw
+     */
+    public void freeze() {
+        if (this.frozen) {
+            return;
+        }
+        buildDistanceTables();
+        if (this.cities != null) {
+            this.cities = Collections.unmodifiableList(this.cities);
+        }
+        if (this.paths != null) {
+            this.paths = Collections.unmodifiableList(this.paths);
+        }
+        this.frozen = true;
+    }
+
+    /**
+     * Getter to return whether this Network has been frozen
+     * @return whether this Network can no longer be changed
+     */
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Method to check that this Network may still be changed
+     * @throws IllegalStateException if this Network has been frozen
+     */
+    private void checkNotFrozen() {
+        if (this.frozen) {
+            throw new IllegalStateException("Network is frozen and can no longer be changed");
+        }
+    }
+
     /**
      * Setter to set the CityNodes (cities) associated with this Network
      * @param cities the CityNodes (cities) to be associated with this Network
      */
     public void setCities(List<CityNode> cities) {
+        checkNotFrozen();
         this.cities = cities;
     }
 
     /**
-     * Setter to set the PathNodes (paths) associated with this Network
+     * Setter to set the PathNodes (paths) associated with this Network, the tables built from the old
+     * PathNodes are discarded
      * @param paths the PathNodes (paths) to be associated with this Network
      */
     public void setPaths(List<PathNode> paths) {
+        checkNotFrozen();
         this.paths = paths;
+        this.adjacency = null;
+        this.distances = null;
+        this.lineGraph = null;
     }
 
     /**
@@ -362,6 +590,14 @@ public class Network implements java.io.Serializable {
         return this.paths;
     }
 
+    /**
+     * Getter to return the number of nodes (cities) in this Network
+     * @return the number of nodes in this Network
+     */
+    public int numNodes() {
+        return this.NUM_NODES;
+    }
+
     /**
      * toString to return a String representation of a Network
      * @return the String representation of this Network
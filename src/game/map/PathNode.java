@@ -16,11 +16,18 @@ import java.io.IOException;
 /**
  * A class to represent a PathNode in a Network, each PathNode is associated with exactly
  * two CityNodes
+ * PathNodes are part of the topology of a map and are shared between games, whether a PathNode
+ * is occupied by a Colonist is tracked by the MoveGenerator of each Map
  * Can be serialized for game saving
  * @author devinlinux
  */
 public class PathNode implements java.io.Serializable {
 
+    /**
+     * The index of this PathNode in the paths of its Network, or -1 if it does not belong to a Network
+     */
+    private int id;
+
     /**
      * The name of this PathNode
      */
@@ -41,11 +48,6 @@ public class PathNode implements java.io.Serializable {
      */
     private PathType type;
 
-    /**
-     * Whether this PathNode (path) is currently occupied by a Colonist
-     */
-    private boolean occupied;
-
     /**
      * An enum to represent the two types of PathNodes - land or sea
      */
@@ -73,6 +75,14 @@ public class PathNode implements java.io.Serializable {
     @java.io.Serial
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Getter method to return the index of this PathNode in the paths of its Network
+     * @return the index of this PathNode, or -1 if it does not belong to a Network
+     */
+    public int id() {
+        return id;
+    }
+
     /**
      * Getter method to return the name of this PathNode
      * @return the name of this PathNode
@@ -113,11 +123,23 @@ public class PathNode implements java.io.Serializable {
      * @param type the type of path
      */
     public PathNode(String name, CityNode node1, CityNode node2, PathType type) {
+        this(-1, name, node1, node2, type);
+    }
+
+    /**
+     * Constructor for a PathNode that belongs to a Network
+     * @param id the index of this PathNode in the paths of its Network
+     * @param name the name of this PathNode
+     * @param node1 the first CityNode that this PathNode is connected to
+     * @param node2 the second CityNode that this PathNode is connected to
+     * @param type the type of path
+     */
+    public PathNode(int id, String name, CityNode node1, CityNode node2, PathType type) {
+        this.id = id;
         this.name = name;
         this.node1 = node1;
         this.node2 = node2;
         this.type = type;
-        this.occupied = false;
     }
 
     /**
@@ -134,19 +156,22 @@ public class PathNode implements java.io.Serializable {
      * Should be written in the form
      * name::cityname1::cityid1::cityletter1::citygood1::cityname2::cityid2::cityletter2::citygood2::type
      * file form (no comments)
+     * The PathNodes are numbered in the order they appear in the file
      * @param path the path to the file with the edges
      * @return a list of PathNodes loaded from path
      */
     public static List<PathNode> fread(String path) {
         List<PathNode> paths = new ArrayList<>();
         try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
-            paths = reader.lines()
+            List<String[]> lines = reader.lines()
                     .map(String::trim)
                     .filter(line -> !line.startsWith("#"))
                     .map(line -> line.split("::"))
                     .filter(tokens -> tokens.length == 10)
-                    .map(tokens -> new PathNode(tokens[0], new CityNode(tokens[1], Integer.parseInt(tokens[2]), tokens[3].charAt(0), Good.fromString(tokens[4])), new CityNode(tokens[5], Integer.parseInt(tokens[6]), tokens[7].charAt(0), Good.fromString(tokens[8])), PathType.fromString(tokens[9])))
                     .toList();
+            for (String[] tokens : lines) {
+                paths.add(new PathNode(paths.size(), tokens[0], new CityNode(tokens[1], Integer.parseInt(tokens[2]), tokens[3].charAt(0), Good.fromString(tokens[4])), new CityNode(tokens[5], Integer.parseInt(tokens[6]), tokens[7].charAt(0), Good.fromString(tokens[8])), PathType.fromString(tokens[9])));
+            }
         } catch (IOException e) {
             System.err.printf("Error reading PathNodes from file: %s%n", e.getMessage());
         }
@@ -190,22 +215,6 @@ public class PathNode implements java.io.Serializable {
         }
     }
 
-    /**
-     * Getter to return whether this PathNode (path) is occupied by a Colonist
-     * @return whether this PathNode (path) is occupied by a Colonist
-     */
-    public boolean occupied() {
-        return this.occupied;
-    }
-
-    /**
-     * Setter to set whether this PathNode (path) is occupied by a Colonist
-     * @param occupied whether this PathNode (path) is occupied by a Colonist
-     */
-    public void setOccupied(boolean occupied) {
-        this.occupied = occupied;
-    }
-
     /**
      * toString method to return a String representation of a PathNode
      * @return a String representation of this PathNode
@@ -10,6 +10,7 @@ import java.util.ArrayList;
 
 import src.game.Good;
 import src.game.House;
+import src.game.Zobrist;
 import src.game.map.CityNode;
 import src.game.player.Player;
 
@@ -19,6 +20,8 @@ public class Province {
    private Good provinceGood;
    private ResourceStatus status;
    private int provinceSestercii;
+   private Zobrist zobrist; //The hash of the game this province is in, the side of the token is toggled into it
+   private int index; //The index of this province in its chart, used to hash the side of the token
    
    public enum ResourceStatus {
       GOODS,
@@ -37,14 +40,14 @@ public class Province {
    }
    
    public int collectSestercii() {
-      status = ResourceStatus.GOODS;
+      setStatus(ResourceStatus.GOODS);
       
       return provinceSestercii;
    }
    
    //TODO: Collect goods based on good of cities in province
    public ArrayList<Good> collectGoods(Player player) {
-      status = ResourceStatus.SESTERCII;
+      setStatus(ResourceStatus.SESTERCII);
       
       ArrayList<Good> goodsCollected = new ArrayList<Good>();      
       goodsCollected.add(provinceGood);
@@ -60,14 +63,44 @@ public class Province {
       return goodsCollected;
    }
    
+   //Every house in the province produces the good of its city for its owner, a full storehouse
+   //discards what does not fit, then the province token is flipped to its sestercii side
+   public void produce() {
+      setStatus(ResourceStatus.SESTERCII);
+      
+      for(CityNode city : cityList) {
+         if(city.good() == null) {
+            continue;
+         }
+         for(House house : city.houses()) {
+            if(house.player().storeHouse().hasRoom(1)) {
+               house.player().storeHouse().addGood(city.good());
+            }
+         }
+      }
+   }
+   
+   //Flips the province token, hashing the flip into the game of this province
+   public void setStatus(ResourceStatus status) {
+      if(this.status != status && zobrist != null) {
+         zobrist.toggle(Zobrist.provinceSestertii(index));
+      }
+      this.status = status;
+   }
+   
+   //The province good is the most valuable good produced in the province, the sestercii side of
+   //the token is worth 1 for bricks and food and 2 for anything more valuable
    private void setProvinceGood() {
       Good good = Good.BRICK;
       
       for(CityNode city : cityList) {
-         if(city.good().price() > good.price()) {
+         if(city.good() != null && city.good().price() > good.price()) {
             good = city.good();
          }
       }
+      
+      provinceGood = good;
+      provinceSestercii = good.price() > Good.FOOD.price() ? 2 : 1;
    }
    
                                              //GETTERS - SETTERS
@@ -80,6 +113,18 @@ public class Province {
       return status;
    }
    
+   public Good getGood() {
+      return provinceGood;
+   }
+   
+   public int getSestercii() {
+      return provinceSestercii;
+   }
+   
+   public ArrayList<CityNode> getCities() {
+      return cityList;
+   }
+   
    public void setGood(Good good) {
       provinceGood = good;
    }
@@ -87,4 +132,10 @@ public class Province {
    public void setSestercii(int sestercii) {
       provinceSestercii = sestercii;
    }
+   
+   //Sets the hash of the game this province is in and the index of this province in its chart
+   public void setZobrist(Zobrist zobrist, int index) {
+      this.zobrist = zobrist;
+      this.index = index;
+   }
 }
\ No newline at end of file
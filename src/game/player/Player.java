@@ -2,12 +2,13 @@ package src.game.player;
 
 //  imports
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
 import java.awt.Color;
 
+import src.game.Cost;
 import src.game.Good;
 import src.game.House;
+import src.game.Zobrist;
+import src.game.map.CityNode;
 import src.game.cards.PersonalityCard;
 import src.game.cards.Architect;
 import src.game.cards.Colonist;
@@ -30,6 +31,11 @@ public class Player implements java.io.Serializable {
      */
     private static final long serialVersionUID = 1L;
 
+    /**
+     * The Goods in the order of their ordinals
+     */
+    private static final Good[] GOODS = Good.values();
+
     /**
      * The personality cards of this player
      */
@@ -75,6 +81,26 @@ public class Player implements java.io.Serializable {
      */
     private int numHouses;
 
+    /**
+     * The CityNodes (cities) this Player has built Houses in as a bitmask, bit i is set for CityNode i
+     */
+    private int houseMask;
+
+    /**
+     * The provinces this Player has built Houses in as a bitmask, bit i is set for province i
+     */
+    private int provinceMask;
+
+    /**
+     * The number of Houses this Player has built in cities of each Good, indexed by {@code Good.ordinal()}
+     */
+    private int[] housesPerGood;
+
+    /**
+     * The colonists of this Player that have been placed on the board
+     */
+    private ArrayList<src.game.Colonist> boardColonists;
+
     /**
      * Whether the player has the praefectus magnus card
      */
@@ -90,6 +116,16 @@ public class Player implements java.io.Serializable {
      */
     private int numTurnsLeft;
 
+    /**
+     * The seat of this Player in its Game, or -1 while it is not in one
+     */
+    private int seat = -1;
+
+    /**
+     * The Zobrist hash of the Game of this Player, every change to this Player is toggled into it
+     */
+    private transient Zobrist zobrist;
+
     /**
      * Constructor to make a new Player with a name
      * @param NAME the name of this Player
@@ -105,6 +141,8 @@ public class Player implements java.io.Serializable {
         this.houses = new ArrayList<>(15);
         this.numHouses = 15;
         this.hasPraefectusMagnus = false;
+        this.housesPerGood = new int[GOODS.length];
+        this.boardColonists = new ArrayList<>(6);
         this.numTurnsLeft = Integer.MAX_VALUE;
         init();
     }
@@ -123,8 +161,11 @@ public class Player implements java.io.Serializable {
         this.storeHouse = new StoreHouse(this);
         this.victoryPoints = 0;
         this.sestertii = first ? 5 : 1;
+        this.houses = new ArrayList<>(15);
         this.numHouses = 15;
         this.hasPraefectusMagnus = last;
+        this.housesPerGood = new int[GOODS.length];
+        this.boardColonists = new ArrayList<>(6);
         init();
     }
 
@@ -151,32 +192,269 @@ public class Player implements java.io.Serializable {
     }
 
     /**
-     * Method to check whether this Player can afford something based on its cost
-     * @param cost the cost of the item, the key should be an Integer for sestertii
-     *             and the value should be the value of either the sestertii or
-     *             the good in the Map
-     * @return whether this Player can afford something based on its cost
-     */
-    public boolean canAfford(HashMap<Object, Integer> cost) {
-        for (Map.Entry<Object, Integer> entry : cost.entrySet()) {
-            Object key = entry.getKey();
-            int value = entry.getValue();
-
-            if (key instanceof Integer) {  //  if the key is a sestertius
-                if (this.sestertii < value) {
-                    return false;
-                }
+     * Method to seat this Player in a Game, from then on every change to this Player, its StoreHouse and its
+     * Colonists is hashed into the Zobrist of the Game
+     * @param seat the seat of this Player in the Game
+     * @param zobrist the Zobrist hash of the Game
+     */
+    public void joinGame(int seat, Zobrist zobrist) {
+        this.seat = seat;
+        this.zobrist = zobrist;
+    }
+
+    /**
+     * Method to toggle a key in the Zobrist hash of the Game of this Player, does nothing while this Player
+     * is not in a Game
+     * @param key the key to toggle
+     */
+    public void toggleHash(long key) {
+        if (this.zobrist != null) {
+            this.zobrist.toggle(key);
+        }
+    }
+
+    /**
+     * Method to give this Player a personality card
+     * @param card the card to add to the hand of this Player
+     */
+    public void addCard(PersonalityCard card) {
+        this.cards.add(card);
+        toggleHash(Zobrist.hand(this.seat, card.getId()));
+    }
+
+    /**
+     * Method to play a personality card of this Player, putting it on top of the discard pile
+     * @param card the card to play, must be in the hand of this Player
+     */
+    public void playCard(PersonalityCard card) {
+        if (!this.discard.isEmpty()) {
+            toggleHash(Zobrist.topDiscard(this.seat, this.discard.get(0).getId()));
+        }
+        card.setPlayed(true);
+        this.discard.add(0, card);
+        toggleHash(Zobrist.discard(this.seat, card.getId()) ^ Zobrist.topDiscard(this.seat, card.getId()));
+    }
+
+    /**
+     * Method to take every played card of this Player back into its hand, as with a Tribune
+     * The played cards are the ones on the discard pile, so the rest of the hand is not looked at
+     * @return the number of cards that had been played
+     */
+    public int takeBackCards() {
+        int played = 0;
+        for (int i = 0; i < this.discard.size(); i++) {
+            PersonalityCard card = this.discard.get(i);
+            if (card.reset()) {
+                played++;
             }
-            
-            if (key instanceof Good) {  //  if the key is a Good
-                if (!this.storeHouse.contains(key, value)) {
-                    return false;
-                }
+            toggleHash(Zobrist.discard(this.seat, card.getId()));
+        }
+        if (!this.discard.isEmpty()) {
+            toggleHash(Zobrist.topDiscard(this.seat, this.discard.get(0).getId()));
+        }
+        this.discard.clear();
+        return played;
+    }
+
+    /**
+     * Method to take the card on top of the discard pile of this Player back into its hand, undoing
+     * {@link #playCard(PersonalityCard)}
+     * @return the card that was taken back
+     */
+    public PersonalityCard unplayCard() {
+        PersonalityCard card = this.discard.remove(0);
+        card.setPlayed(false);
+        toggleHash(Zobrist.discard(this.seat, card.getId()) ^ Zobrist.topDiscard(this.seat, card.getId()));
+        if (!this.discard.isEmpty()) {
+            toggleHash(Zobrist.topDiscard(this.seat, this.discard.get(0).getId()));
+        }
+        return card;
+    }
+
+    /**
+     * Method to take away the personality card this Player was given last, undoing {@link #addCard(PersonalityCard)}
+     * @return the card that was taken away
+     */
+    public PersonalityCard removeLastCard() {
+        PersonalityCard card = this.cards.remove(this.cards.size() - 1);
+        toggleHash(Zobrist.hand(this.seat, card.getId()));
+        return card;
+    }
+
+    /**
+     * Method to check whether this Player can afford something based on its cost
+     * Does not allocate, so it can be called for every purchase a bot considers
+     * @param cost the cost of the item
+     * @return whether this Player has at least the sestertii and Goods of the cost
+     */
+    public boolean canAfford(Cost cost) {
+        return canAfford(cost.pack());
+    }
+
+    /**
+     * Method to check whether this Player can afford something based on its packed cost
+     * @param cost the cost of the item in the packed form of {@link Cost#pack()}
+     * @return whether this Player has at least the sestertii and Goods of the cost
+     */
+    public boolean canAfford(long cost) {
+        if (this.sestertii < Cost.sestertii(cost)) {
+            return false;
+        }
+        for (int goods = Cost.goods(cost); goods != 0; goods &= goods - 1) {
+            Good good = GOODS[Integer.numberOfTrailingZeros(goods)];
+            if (this.storeHouse.count(good) < Cost.count(cost, good)) {
+                return false;
             }
         }
         return true;
     }
 
+    /**
+     * Method to pay a cost out of the sestertii and StoreHouse of this Player
+     * @param cost the cost to pay
+     * @throws IllegalStateException if this Player cannot afford the cost
+     */
+    public void pay(Cost cost) {
+        pay(cost.pack());
+    }
+
+    /**
+     * Method to pay a packed cost out of the sestertii and StoreHouse of this Player
+     * @param cost the cost to pay in the packed form of {@link Cost#pack()}
+     * @throws IllegalStateException if this Player cannot afford the cost
+     */
+    public void pay(long cost) {
+        if (!canAfford(cost)) {
+            throw new IllegalStateException(this.NAME + " cannot afford " + Cost.fromPacked(cost));
+        }
+        setSestertii(this.sestertii - Cost.sestertii(cost));
+        for (int goods = Cost.goods(cost); goods != 0; goods &= goods - 1) {
+            Good good = GOODS[Integer.numberOfTrailingZeros(goods)];
+            this.storeHouse.removeGoods(good, Cost.count(cost, good));
+        }
+    }
+
+    /**
+     * Method to build one of the Houses of this Player in a CityNode (city), the cost must already be paid
+     * @param city the CityNode (city) to build in
+     * @return the House that was built
+     */
+    public House buildHouse(CityNode city) {
+        House house = new House(this);
+        house.setCity(city);
+        city.addHouse(house);
+        this.houses.add(house);
+        this.numHouses--;
+        this.houseMask |= 1 << city.id();
+        if (city.province() >= 0) {
+            this.provinceMask |= 1 << city.province();
+        }
+        if (city.good() != null) {
+            this.housesPerGood[city.good().ordinal()]++;
+        }
+        return house;
+    }
+
+    /**
+     * Method to take back the House this Player built last, undoing {@link #buildHouse(CityNode)}, the cost
+     * is not refunded
+     * @param city the CityNode (city) the House was built in
+     */
+    public void unbuildHouse(CityNode city) {
+        House house = this.houses.remove(this.houses.size() - 1);
+        city.removeHouse(house);
+        this.numHouses++;
+        this.houseMask &= ~(1 << city.id());
+        if (city.good() != null) {
+            this.housesPerGood[city.good().ordinal()]--;
+        }
+        this.provinceMask = 0;
+        for (House built : this.houses) {
+            if (built.city() != null && built.city().province() >= 0) {
+                this.provinceMask |= 1 << built.city().province();
+            }
+        }
+    }
+
+    /**
+     * Method to place a colonist of this Player on the board
+     * @param colonist the colonist that was placed
+     */
+    public void placeColonist(src.game.Colonist colonist) {
+        this.boardColonists.add(colonist);
+    }
+
+    /**
+     * Method to take the colonist this Player placed last off the board, undoing {@link #placeColonist(src.game.Colonist)}
+     * @return the colonist that was taken off the board
+     */
+    public src.game.Colonist unplaceColonist() {
+        return this.boardColonists.remove(this.boardColonists.size() - 1);
+    }
+
+    /**
+     * Getter to return the CityNodes (cities) this Player has built Houses in as a bitmask
+     * @return the bitmask of the cities, bit i is set for CityNode i
+     */
+    public int houseMask() {
+        return this.houseMask;
+    }
+
+    /**
+     * Getter to return the provinces this Player has built Houses in as a bitmask
+     * @return the bitmask of the provinces, bit i is set for province i
+     */
+    public int provinceMask() {
+        return this.provinceMask;
+    }
+
+    /**
+     * Getter to return the number of Houses this Player has built in cities of a Good
+     * @param good the Good of the cities
+     * @return the number of Houses in cities of the Good
+     */
+    public int numHousesWith(Good good) {
+        return this.housesPerGood[good.ordinal()];
+    }
+
+    /**
+     * Getter to return the number of different Goods the Houses of this Player produce
+     * @return the number of Goods with at least one House
+     */
+    public int numGoodsProduced() {
+        int count = 0;
+        for (int houses : this.housesPerGood) {
+            if (houses > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Getter to return the colonists of this Player that have been placed on the board
+     * @return the colonists on the board
+     */
+    public ArrayList<src.game.Colonist> boardColonists() {
+        return this.boardColonists;
+    }
+
+    /**
+     * Getter to return the seat of this Player in its Game
+     * @return the seat, or -1 while this Player is not in a Game
+     */
+    public int seat() {
+        return this.seat;
+    }
+
+    /**
+     * Getter to return the Zobrist hash of the Game of this Player
+     * @return the Zobrist hash, or null while this Player is not in a Game
+     */
+    public Zobrist zobrist() {
+        return this.zobrist;
+    }
+
     /**
      * Getter to get the name of this Player
      * @return the name of this Player
@@ -293,6 +571,7 @@ public class Player implements java.io.Serializable {
      * @param victoryPoints the number of victory points this Player should have
      */
     public void setVictoryPoints(int victoryPoints) {
+        toggleHash(Zobrist.victoryPoints(this.seat, this.victoryPoints) ^ Zobrist.victoryPoints(this.seat, victoryPoints));
         this.victoryPoints = victoryPoints;
     }
 
@@ -301,7 +580,7 @@ public class Player implements java.io.Serializable {
      * @param victoryPoints the number of victory points to add to this Player
      */
     public void addVictoryPoints(int victoryPoints) {
-        this.victoryPoints += victoryPoints;
+        setVictoryPoints(this.victoryPoints + victoryPoints);
     }
 
     /**
@@ -309,6 +588,9 @@ public class Player implements java.io.Serializable {
      * @param has whether this Player should have the praefectus magnus card
      */
     public void setPraefectusMagnus(boolean has) {
+        if (has != this.hasPraefectusMagnus) {
+            toggleHash(Zobrist.magnus(this.seat));
+        }
         this.hasPraefectusMagnus = has;
     }
 
@@ -325,6 +607,7 @@ public class Player implements java.io.Serializable {
      * @param sestertii the number of sestertii this Player should have
      */
     public void setSestertii(int sestertii) {
+        toggleHash(Zobrist.sestertii(this.seat, this.sestertii) ^ Zobrist.sestertii(this.seat, sestertii));
         this.sestertii = sestertii;
     }
 
@@ -333,7 +616,7 @@ public class Player implements java.io.Serializable {
      * @param sestertii the amount of sestertii to add to this Player
      */
     public void addSestertii(int sestertii) {
-        this.sestertii += sestertii;
+        setSestertii(this.sestertii + sestertii);
     }
 
     /**
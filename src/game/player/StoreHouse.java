@@ -3,16 +3,16 @@ package src.game.player;
 //  imports
 import src.game.Colonist;
 import src.game.Good;
+import src.game.Zobrist;
 import src.game.player.Player;
 
-import java.util.List;
-import java.util.ArrayList;
-import java.util.Collections;
-
 import static src.game.Colonist.ColonistType;
 
 /**
  * Represents a store house that can store 12 elements
+ * The goods are kept as one count per Good and the colonists as one stack per type, so adding,
+ * removing and counting are O(1) and never allocate
+ * every change of a count is hashed into the Zobrist hash of the game of the player
  * can be serialized for game state saving
  * @author Michael Bobrowski (devinlinux)
  */
@@ -20,59 +20,148 @@ public class StoreHouse implements java.io.Serializable {
     
     private static final long serialVersionUID = 1L;  //  the version ID for serialization
     private static final int MAX_CAPACITY = 12;       //  the maximum capacity of the store house
-    private List<Object> elements;                    //  the elements of the store house
+    private static final Good[] GOODS = Good.values(); //  the goods in the order they are listed in
+    private final int[] goods;                        //  the number of each good indexed by Good.ordinal()
+    private int numGoods;                             //  the total number of goods
+    private final Colonist[] seaColonists;            //  the sea colonists, the first numSea are stored
+    private int numSea;                               //  the number of sea colonists
+    private final Colonist[] landColonists;           //  the land colonists, the first numLand are stored
+    private int numLand;                              //  the number of land colonists
     private Player player;                            //  the player that this StoreHouse is associated with
 
     //  no-args constructor to make a new store house
     public StoreHouse(Player player) {
         this.player = player;
-        this.elements = new ArrayList<>(MAX_CAPACITY);
+        this.goods = new int[GOODS.length];
+        this.seaColonists = new Colonist[MAX_CAPACITY];
+        this.landColonists = new Colonist[MAX_CAPACITY];
         init();
     }
     
     //  method to initialize the store house by adding the starting elements
     private void init() {
-        elements.add(Good.WINE);
-        elements.add(Good.BRICK);
-        elements.add(Good.TOOL);
-        elements.add(Good.CLOTH);
-        elements.add(Good.FOOD);
-        elements.add(Good.FOOD);
-        elements.add(new Colonist(this.player, ColonistType.SEA));
-        elements.add(new Colonist(this.player, ColonistType.SEA));
-        elements.add(new Colonist(this.player, ColonistType.LAND));
-        elements.add(new Colonist(this.player, ColonistType.LAND));
+        addGood(Good.WINE);
+        addGood(Good.BRICK);
+        addGood(Good.TOOL);
+        addGood(Good.CLOTH);
+        addGood(Good.FOOD);
+        addGood(Good.FOOD);
+        addColonist(new Colonist(this.player, ColonistType.SEA));
+        addColonist(new Colonist(this.player, ColonistType.SEA));
+        addColonist(new Colonist(this.player, ColonistType.LAND));
+        addColonist(new Colonist(this.player, ColonistType.LAND));
         //the colonists dont take enums in the constructor anymore, instead we should do this:
         //elements.add(new Colonist(*player*, whichever pathnode represents rome, whether it is a land colonist or not)); x4
     }
 
     //  method to add an element to the StoreHouse
     public void add(Object element) {
-        // TODO: Colonist class
-        if (element instanceof Good || element instanceof Colonist) {
-            if (elements.size() < MAX_CAPACITY) {
-                elements.add(element);
-            } else {
-                throw new IllegalStateException("StoreHouse is full");
-            }
+        if (element instanceof Good good) {
+            addGood(good);
+        } else if (element instanceof Colonist colonist) {
+            addColonist(colonist);
         } else {
             throw new IllegalArgumentException("Element must be of type Good or Colonist");
         }
     }
 
-    //  method to check if an element is contained a certain number of times
+    //  method to add a good to the StoreHouse
+    public void addGood(Good good) {
+        checkRoom(1);
+        hashGoods(good, this.goods[good.ordinal()], this.goods[good.ordinal()] + 1);
+        this.goods[good.ordinal()]++;
+        this.numGoods++;
+    }
+
+    //  method to add a number of one good to the StoreHouse at once
+    public void addGoods(Good good, int count) {
+        checkRoom(count);
+        hashGoods(good, this.goods[good.ordinal()], this.goods[good.ordinal()] + count);
+        this.goods[good.ordinal()] += count;
+        this.numGoods += count;
+    }
+
+    //  method to add a colonist to the StoreHouse
+    public void addColonist(Colonist colonist) {
+        checkRoom(1);
+        hashColonists(colonist.type(), count(colonist.type()), count(colonist.type()) + 1);
+        if (colonist.isLand()) {
+            this.landColonists[this.numLand++] = colonist;
+        } else {
+            this.seaColonists[this.numSea++] = colonist;
+        }
+    }
+
+    //  method to hash a change of the number of a good
+    private void hashGoods(Good good, int before, int after) {
+        this.player.toggleHash(Zobrist.storedGoods(this.player.seat(), good, before) ^ Zobrist.storedGoods(this.player.seat(), good, after));
+    }
+
+    //  method to hash a change of the number of colonists of a type
+    private void hashColonists(ColonistType type, int before, int after) {
+        this.player.toggleHash(Zobrist.storedColonists(this.player.seat(), type, before) ^ Zobrist.storedColonists(this.player.seat(), type, after));
+    }
+
+    //  method to throw if there is not room for a number of elements
+    private void checkRoom(int count) {
+        if (!hasRoom(count)) {
+            throw new IllegalStateException("StoreHouse is full");
+        }
+    }
+
+    //  method to check whether there is room for a number of elements
+    public boolean hasRoom(int count) {
+        return size() + count <= MAX_CAPACITY;
+    }
+
+    //  method to check if an element is contained at least a certain number of times
+    //  colonists are counted by type, so any colonist of the same type matches
     public boolean contains(Object element, int count) {
-        return Collections.frequency(elements, element) == count;
+        if (element instanceof Good good) {
+            return this.goods[good.ordinal()] >= count;
+        }
+        if (element instanceof Colonist colonist) {
+            return count(colonist.type()) >= count;
+        }
+        return count <= 0;
+    }
+
+    //  method to get the number of a good in the StoreHouse
+    public int count(Good good) {
+        return this.goods[good.ordinal()];
+    }
+
+    //  method to get the number of colonists of a type in the StoreHouse
+    public int count(ColonistType type) {
+        return type == ColonistType.LAND ? this.numLand : this.numSea;
     }
 
     //  method to get element at certain index
+    //  the goods come first in the order of Good.values(), then the sea colonists, then the land colonists
     public Object get(int index) {
-        return elements.get(index);
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+        }
+        if (index < this.numGoods) {
+            for (Good good : GOODS) {
+                index -= this.goods[good.ordinal()];
+                if (index < 0) {
+                    return good;
+                }
+            }
+        }
+        index -= this.numGoods;
+        return index < this.numSea ? this.seaColonists[index] : this.landColonists[index - this.numSea];
     }
 
     //  getter to get the number of elements
     public int size() {
-        return elements.size();
+        return this.numGoods + this.numSea + this.numLand;
+    }
+
+    //  getter to get the number of goods
+    public int numGoods() {
+        return this.numGoods;
     }
 
     //  getter to get the capacity of the storehouse
@@ -84,15 +173,44 @@ public class StoreHouse implements java.io.Serializable {
     // returns true if an element was removed, returns false if no matching element was found
     // accepts an object as a parameter just in case, but if the object is not a good it will return false
     public boolean removeGood(Object o) {
-        if (o instanceof Good) {
-            for (Object e : elements) {
-                if (e == o) { // both .equals and == work with enums, however == is null safe so this stays
-                    elements.remove(e);
-                    return true;
-                }
+        return o instanceof Good good && removeGoods(good, 1);
+    }
+
+    // method to remove a number of one good at once
+    // returns false and removes nothing if there are not enough of the good
+    public boolean removeGoods(Good good, int count) {
+        if (this.goods[good.ordinal()] < count) {
+            return false;
+        }
+        if (count == 0) {
+            return true;
+        }
+        hashGoods(good, this.goods[good.ordinal()], this.goods[good.ordinal()] - count);
+        this.goods[good.ordinal()] -= count;
+        this.numGoods -= count;
+        return true;
+    }
+
+    // method to take a colonist of a type out of the StoreHouse
+    // returns null if there is no colonist of that type
+    public Colonist removeColonist(ColonistType type) {
+        if (count(type) > 0) {
+            hashColonists(type, count(type), count(type) - 1);
+        }
+        if (type == ColonistType.LAND) {
+            if (this.numLand == 0) {
+                return null;
             }
+            Colonist colonist = this.landColonists[--this.numLand];
+            this.landColonists[this.numLand] = null;
+            return colonist;
         }
-        return false;
+        if (this.numSea == 0) {
+            return null;
+        }
+        Colonist colonist = this.seaColonists[--this.numSea];
+        this.seaColonists[this.numSea] = null;
+        return colonist;
     }
     
     // this is purely for convenienience since I strongly dislike enums -jonah
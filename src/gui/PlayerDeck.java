@@ -183,7 +183,7 @@ public class PlayerDeck {
         shownCardID = newShownCardID;
         shownCard = cards.get(shownCardID);
         
-        cardLabel.setIcon(new ImageIcon(shownCard.IMAGE.cardImage));
+        cardLabel.setIcon(new ImageIcon(shownCard.IMAGE.image()));
     }
 
     /**
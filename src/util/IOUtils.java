@@ -16,6 +16,8 @@ import java.io.IOException;
 import java.net.URL;
 import java.net.HttpURLConnection;
 
+import java.util.List;
+import java.util.ArrayList;
 import java.util.concurrent.*;
 
 import src.game.Game;
@@ -37,10 +39,12 @@ public class IOUtils {
     }
 
     /**
-     * The maximum number of concurrent downloads represented by an
-     * {@code ExecutorService}
+     * The maximum number of files that are verified or downloaded at the same time.
+     * The threads are only started by {@code verifyGameFiles} and are shut down before
+     * it returns, so loading this class never starts a thread and the method can be
+     * called more than once, from any thread
      */
-    private static final ExecutorService executorService = Executors.newFixedThreadPool(20);
+    private static final int MAX_CONCURRENT_DOWNLOADS = 20;
 
     /**
      * The fields and constants that will be used throughout this class,
@@ -413,22 +417,10 @@ public class IOUtils {
                 }
             };
 
-            Callable<Boolean> downloadTask = () -> {
-                try {
-                    fileChannel.write(buffer, 0, null, completionHandler);
-                    return true;
-                } catch (Exception e) {
-                    Logger.error("IOUtils",
-                            "Error occurred while initiating the download for " + fileName + ": " + e.getMessage());
-                    return false;
-                }
-            };
-
-            Future<Boolean> future = executorService.submit(downloadTask);
-            future.get();
+            fileChannel.write(buffer, 0, null, completionHandler);
 
             Logger.info("IOUtils", "Successfully downloaded the " + fileName);
-        } catch (IOException | InterruptedException | ExecutionException e) {
+        } catch (IOException e) {
             Logger.error("IOUtils", "Error occurred while downloading the " + fileName + ": " + e.getMessage());
         }
     }
@@ -439,8 +431,10 @@ public class IOUtils {
      * game files concurrently. This will ensure that the program will not continue
      * to run after
      * the main thread has finished executing.
+     *
+     * @param executorService the {@code ExecutorService} to shut down
      */
-    private static void shutdownExecutorService() {
+    private static void shutdownExecutorService(ExecutorService executorService) {
         executorService.shutdown();
         try {
             if (!executorService.awaitTermination(800, TimeUnit.MILLISECONDS)) {
@@ -466,9 +460,24 @@ public class IOUtils {
     public static void verifyGameFiles() {
         for (DirectoryData data : DirectoryData.values())
             ensureDirExistence(data);
-        for (FileData data : FileData.values())
-            verifyFile(data);
-        shutdownExecutorService();
+        ExecutorService executorService = Executors.newFixedThreadPool(MAX_CONCURRENT_DOWNLOADS, task -> {
+            Thread thread = new Thread(task, "IOUtils-download");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> verifications = new ArrayList<>();
+            for (FileData data : FileData.values())
+                verifications.add(executorService.submit(() -> verifyFile(data)));
+            for (Future<?> verification : verifications)
+                verification.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Logger.error("IOUtils", "Error occurred while verifying the game files: " + e.getCause());
+        } finally {
+            shutdownExecutorService(executorService);
+        }
     }
 
     /**
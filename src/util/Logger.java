@@ -4,7 +4,9 @@ package src.util;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -59,30 +61,42 @@ public class Logger {
      */
     private static final String ANSI_GREEN = "\u001B[32m";
 
+    /**
+     * The lock that is held while a message is numbered, printed and written,
+     * so that messages logged from several threads at once keep their numbers
+     * in order and are never interleaved in the output or the log file.
+     */
+    private static final Object LOCK = new Object();
+
     /**
      * The number of messages that have been logged in a single session
-     * without resetting the log count.
+     * without resetting the log count. Only read or changed while holding {@code LOCK}.
      */
     private static int logNumber = 1;
 
     /**
      * The {@code Map} that will be used to store the log count for each
-     * log level.
+     * log level. It holds a counter for every level from the start and is never
+     * changed afterwards, only its counters are, so it can be read from any thread.
      */
-    private static Map<Level, Integer> logCountMap = new HashMap<>();
+    private static final Map<Level, AtomicInteger> logCountMap = new EnumMap<>(Level.class);
 
     /**
      * A formatter that will be used to format the time in the log message.
-     * Uses the {@code DateTimeFormatter}.
+     * Uses the {@code DateTimeFormatter}, which is immutable and safe to share.
      */
-    private static DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm:ss:SSS");
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm:ss:SSS");
 
     /**
-     * The path to the log file where
+     * The path to the log file where the messages are written, or null once the file is closed
      */
-    private static Path logFilePath;
+    private static volatile Path logFilePath;
 
     static {
+        for (Level level : Level.values()) {
+            logCountMap.put(level, new AtomicInteger());
+        }
+
         try {
             LocalDateTime currentTime = LocalDateTime.now();
             String fileName = currentTime.format(DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS")) + ".log";
@@ -121,15 +135,16 @@ public class Logger {
         LocalDateTime currentTime = LocalDateTime.now();
         String formattedTime = currentTime.format(formatter);
 
-        int logCount = logCountMap.getOrDefault(level, 0) + 1;
-        logCountMap.put(level, logCount);
+        synchronized (LOCK) {
+            logCountMap.get(level).incrementAndGet();
 
-        String logMessage = String.format("[%s]    [%d]    [%s]    %s%s%s: %s%n",
-                formattedTime, logNumber, cause, levelColor, levelString, ANSI_RESET, message);
-        logNumber++;
+            String logMessage = String.format("[%s]    [%d]    [%s]    %s%s%s: %s%n",
+                    formattedTime, logNumber, cause, levelColor, levelString, ANSI_RESET, message);
+            logNumber++;
 
-        System.out.print(logMessage);
-        write(logMessage);
+            System.out.print(logMessage);
+            write(logMessage);
+        }
     }
 
     /**
@@ -190,8 +205,12 @@ public class Logger {
      * @param message the log message to be written to the file
      */
     private static void write(String message) {
+        Path path = logFilePath;
+        if (path == null) {
+            return;
+        }
         try {
-            Files.write(logFilePath, message.getBytes(), StandardOpenOption.APPEND);
+            Files.write(path, message.getBytes(), StandardOpenOption.APPEND);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -207,8 +226,12 @@ public class Logger {
      * A method to reset the log count for each log level.
      */
     public static void reset() {
-        logNumber = 1;
-        logCountMap.clear();
+        synchronized (LOCK) {
+            logNumber = 1;
+            for (AtomicInteger count : logCountMap.values()) {
+                count.set(0);
+            }
+        }
     }
 
     /**
@@ -218,7 +241,7 @@ public class Logger {
      * @return the number of logs for the specified leve.
      */
     public static int getLogCount(Level level) {
-        return logCountMap.getOrDefault(level, 0);
+        return logCountMap.get(level).get();
     }
 
     /**
@@ -227,7 +250,13 @@ public class Logger {
      * @return A map containing the log count or each log level.
      */
     public static Map<Level, Integer> getAllLogCounts() {
-        return new HashMap<>(logCountMap);
+        Map<Level, Integer> counts = new HashMap<>();
+        for (Map.Entry<Level, AtomicInteger> entry : logCountMap.entrySet()) {
+            if (entry.getValue().get() > 0) {
+                counts.put(entry.getKey(), entry.getValue().get());
+            }
+        }
+        return counts;
     }
 
     /**